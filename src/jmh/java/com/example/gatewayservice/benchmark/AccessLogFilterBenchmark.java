@@ -0,0 +1,127 @@
+package com.example.gatewayservice.benchmark;
+
+import com.example.gatewayservice.accesslog.AccessLogSink;
+import com.example.gatewayservice.accesslog.BodyLogMode;
+import com.example.gatewayservice.config.AccessLogConfig;
+import com.example.gatewayservice.constant.AuthConstant;
+import com.example.gatewayservice.entity.GatewayPrincipal;
+import com.example.gatewayservice.filter.AccessLogFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.core.io.buffer.PooledDataBuffer;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AccessLogFilter：JSON请求体的缓存与截取、响应体旁路截取以及投递到异步日志队列
+ * 下游过滤链以返回固定JSON响应代替上游服务；响应使用与生产环境一致的NettyDataBufferFactory，
+ * 请求结束时按RemoveCachedBodyFilter的方式释放缓存的请求体
+ * @author Joetao
+ * @date 2026/10/18
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccessLogFilterBenchmark {
+    private static final byte[] RESPONSE = BenchmarkFixtures.RESPONSE_BODY.getBytes(StandardCharsets.UTF_8);
+    private static final NettyDataBufferFactory BUFFER_FACTORY = new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT);
+    private static final GatewayFilterChain CHAIN = exchange -> {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.OK);
+        exchange.getAttributes().put(ServerWebExchangeUtils.ORIGINAL_RESPONSE_CONTENT_TYPE_ATTR, MediaType.APPLICATION_JSON_VALUE);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(RESPONSE)));
+    };
+
+    @Param({"full", "metadata"})
+    public String bodyMode;
+
+    private AccessLogSink accessLogSink;
+    private AccessLogFilter filter;
+    private Route route;
+    private GatewayPrincipal principal;
+
+    @Setup
+    public void setup() throws Exception {
+        AccessLogConfig accessLogConfig = new AccessLogConfig();
+        accessLogConfig.setBodyMode(BodyLogMode.valueOf(bodyMode.toUpperCase()));
+        accessLogSink = new AccessLogSink(accessLogConfig, new SimpleMeterRegistry());
+        accessLogSink.start();
+        filter = new AccessLogFilter(accessLogSink, accessLogConfig);
+        route = BenchmarkFixtures.route();
+        String payload = "{\"id\":10086,\"user_name\":\"zhangsan\",\"client_id\":\"web-app\",\"authorities\":[\"ADMIN\",\"USER\"]}";
+        principal = new GatewayPrincipal(10086L, "zhangsan", "web-app", payload, encode(payload));
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        accessLogSink.stop();
+    }
+
+    @Benchmark
+    public ServerWebExchange exchangeOnly() {
+        return exchange();
+    }
+
+    @Benchmark
+    public Void postJson() {
+        ServerWebExchange exchange = exchange();
+        return filter.filter(exchange, CHAIN)
+                .doFinally(signal -> {
+                    Object cachedBody = exchange.getAttributes().remove(ServerWebExchangeUtils.CACHED_REQUEST_BODY_ATTR);
+                    if (cachedBody instanceof PooledDataBuffer) {
+                        DataBufferUtils.release((PooledDataBuffer) cachedBody);
+                    }
+                })
+                .block();
+    }
+
+    private ServerWebExchange exchange() {
+        MockServerHttpResponse response = new MockServerHttpResponse(BUFFER_FACTORY);
+        response.setWriteHandler(body -> body.doOnNext(DataBufferUtils::release).then());
+        ServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/us/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("x-forwarded-for", "203.98.182.163")
+                .body(BenchmarkFixtures.REQUEST_BODY))
+                .mutate().response(response).build();
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route);
+        exchange.getAttributes().put(AuthConstant.GATEWAY_PRINCIPAL_ATTR, principal);
+        exchange.getResponse().getHeaders().set("client_id", "web-app");
+        exchange.getResponse().getHeaders().set("client_type", "password");
+        return exchange;
+    }
+
+    private static String encode(String payload) throws UnsupportedEncodingException {
+        return URLEncoder.encode(payload, "UTF-8");
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.gatewayservice.benchmark;
+
+import com.example.gatewayservice.auth.AuthorityInterner;
+import com.example.gatewayservice.auth.AuthorizationManager;
+import com.example.gatewayservice.auth.TokenAuthenticationCache;
+import com.example.gatewayservice.config.TokenCacheConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.web.server.authorization.AuthorizationContext;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AuthorizationManager.check()：本地token缓存命中后按路径查资源角色索引并判断角色交集
+ * exchangeOnly为构造模拟请求的开销，check结果减去该值即为鉴权本身的开销
+ * @author Joetao
+ * @date 2026/10/18
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthorizationManagerBenchmark {
+    @Param({"/us/users", "/us/users/10086", "/us/orders/export/2026/10"})
+    public String path;
+
+    private AuthorizationManager authorizationManager;
+    private Mono<Authentication> authentication;
+    private String authorization;
+
+    @Setup
+    public void setup() {
+        AuthorityInterner authorityInterner = new AuthorityInterner();
+        BenchmarkFixtures.InMemoryResourceRolesRegistry registry =
+                new BenchmarkFixtures.InMemoryResourceRolesRegistry(BenchmarkFixtures.resources(), authorityInterner);
+        registry.reload().block();
+
+        Jwt jwt = BenchmarkFixtures.signedJwt("zhangsan", BenchmarkFixtures.ROLES);
+        BenchmarkFixtures.InMemoryTokenReader tokenReader = new BenchmarkFixtures.InMemoryTokenReader();
+        tokenReader.put(jwt.getTokenValue(), BenchmarkFixtures.oAuth2Authentication("zhangsan", BenchmarkFixtures.ROLES));
+        TokenAuthenticationCache tokenAuthenticationCache = new TokenAuthenticationCache(tokenReader,
+                BenchmarkFixtures.disconnectedStringTemplate(), new TokenCacheConfig(), new SimpleMeterRegistry());
+
+        authorizationManager = new AuthorizationManager(registry, authorityInterner, tokenAuthenticationCache);
+        authentication = Mono.just(BenchmarkFixtures.jwtAuthenticationConverter().convert(jwt).block());
+        authorization = "Bearer " + jwt.getTokenValue();
+    }
+
+    @Benchmark
+    public MockServerWebExchange exchangeOnly() {
+        return exchange();
+    }
+
+    @Benchmark
+    public AuthorizationDecision check() {
+        return authorizationManager.check(authentication, new AuthorizationContext(exchange())).block();
+    }
+
+    private MockServerWebExchange exchange() {
+        return MockServerWebExchange.from(MockServerHttpRequest.get(path).header(HttpHeaders.AUTHORIZATION, authorization));
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.gatewayservice.benchmark;
+
+import com.example.gatewayservice.auth.AuthorityInterner;
+import com.example.gatewayservice.auth.GatewayJwtAuthenticationConverter;
+import com.example.gatewayservice.auth.ReactiveRedisTokenReader;
+import com.example.gatewayservice.auth.ResourceRolesRegistry;
+import com.example.gatewayservice.config.ResourceRolesConfig;
+import com.example.gatewayservice.config.TokenCacheConfig;
+import com.example.gatewayservice.constant.AuthConstant;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.OAuth2Request;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 基准测试共用的数据与内存替身
+ * JWT使用RSA私钥真实签名，声明与认证服务签发的token一致；Redis与token存储以内存Map代替
+ * @author Joetao
+ * @date 2026/10/18
+ */
+public final class BenchmarkFixtures {
+    public static final String ROUTE_ID = "user-service";
+    public static final List<String> ROLES = Arrays.asList("ADMIN", "USER", "AUDITOR");
+    public static final String REQUEST_BODY = "{\"username\":\"zhangsan\",\"nickname\":\"张三\",\"phone\":\"13800000000\","
+            + "\"email\":\"zhangsan@example.com\",\"roles\":[1,2],\"remark\":\"基准测试请求体\"}";
+    public static final String RESPONSE_BODY = "{\"code\":200,\"msg\":\"成功\",\"data\":{\"id\":10086,\"username\":\"zhangsan\","
+            + "\"nickname\":\"张三\",\"createTime\":\"2026-10-18 10:00:00\",\"roles\":[\"ADMIN\",\"USER\"]}}";
+
+    private BenchmarkFixtures() {
+    }
+
+    public static Route route() {
+        return Route.async().id(ROUTE_ID).uri("lb://user-service").predicate(exchange -> true).build();
+    }
+
+    /**
+     * 生成RSA签名的JWT
+     */
+    public static Jwt signedJwt(String username, List<String> roles) {
+        try {
+            RSAKey rsaKey = new RSAKeyGenerator(2048).keyID("benchmark").generate();
+            Instant now = Instant.now();
+            JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                    .claim("id", 10086L)
+                    .claim("user_name", username)
+                    .claim("client_id", "web-app")
+                    .claim("scope", Collections.singletonList("all"))
+                    .claim("authorities", roles)
+                    .jwtID(UUID.randomUUID().toString())
+                    .issueTime(Date.from(now))
+                    .expirationTime(Date.from(now.plus(Duration.ofHours(2))))
+                    .build();
+            SignedJWT signedJwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(rsaKey.getKeyID()).build(), claims);
+            signedJwt.sign(new RSASSASigner(rsaKey));
+            Map<String, Object> jwtClaims = new HashMap<>(claims.getClaims());
+            jwtClaims.put("iat", now);
+            jwtClaims.put("exp", now.plus(Duration.ofHours(2)));
+            return Jwt.withTokenValue(signedJwt.serialize())
+                    .header("alg", JWSAlgorithm.RS256.getName())
+                    .header("kid", rsaKey.getKeyID())
+                    .claims(c -> c.putAll(jwtClaims))
+                    .build();
+        } catch (JOSEException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 与RedisTokenStore中保存的密码模式认证信息结构一致
+     */
+    public static OAuth2Authentication oAuth2Authentication(String username, List<String> roles) {
+        List<GrantedAuthority> authorities = AuthorityUtils.createAuthorityList(roles.toArray(new String[0]));
+        OAuth2Request request = new OAuth2Request(Collections.singletonMap("grant_type", "password"), "web-app", authorities,
+                true, Collections.singleton("all"), Collections.emptySet(), null, Collections.emptySet(), Collections.emptyMap());
+        return new OAuth2Authentication(request, new UsernamePasswordAuthenticationToken(username, null, authorities));
+    }
+
+    /**
+     * 与application.yml中secure.ignore.urls一致的白名单
+     */
+    public static List<String> ignoreUrls() {
+        return Arrays.asList("/actuator/**", "/oauth2/oauth/token", "/oauth2/oauth/check_token", "/oauth2/logout",
+                "/oauth2/oauth/authorize", "/oauth2/auth/rsa/publicKey", "/swagger-ui/**", "/swagger-resources/**",
+                "/v3/api-docs/**", "/v2/api-docs/**", "/*/v3/api-docs");
+    }
+
+    /**
+     * 模拟后台管理系统的资源角色映射：每个模块包含列表、详情、子资源、导出及若干操作接口
+     */
+    public static Map<String, List<String>> resources() {
+        Map<String, List<String>> resources = new HashMap<>();
+        String[] modules = {"users", "roles", "menus", "depts", "orders", "products", "logs", "configs"};
+        for (String module : modules) {
+            resources.put("/us/" + module, ROLES);
+            resources.put("/us/" + module + "/{id}", ROLES);
+            resources.put("/us/" + module + "/{id}/detail", Arrays.asList("ADMIN", "AUDITOR"));
+            resources.put("/us/" + module + "/export/**", Collections.singletonList("ADMIN"));
+            for (int i = 0; i < 20; i++) {
+                resources.put("/us/" + module + "/action" + i, Arrays.asList("ADMIN", "USER"));
+            }
+        }
+        return resources;
+    }
+
+    /**
+     * 与ResourceServerConfig中一致的JWT转换器
+     */
+    public static GatewayJwtAuthenticationConverter jwtAuthenticationConverter() {
+        JwtGrantedAuthoritiesConverter jwtGrantedAuthoritiesConverter = new JwtGrantedAuthoritiesConverter();
+        jwtGrantedAuthoritiesConverter.setAuthorityPrefix(AuthConstant.AUTHORITY_PREFIX);
+        jwtGrantedAuthoritiesConverter.setAuthoritiesClaimName(AuthConstant.AUTHORITY_CLAIM_NAME);
+        return new GatewayJwtAuthenticationConverter(jwtGrantedAuthoritiesConverter, new TokenCacheConfig());
+    }
+
+    /**
+     * 未连接的模板，只用于满足构造参数，基准测试路径上不会访问Redis
+     */
+    public static ReactiveStringRedisTemplate disconnectedStringTemplate() {
+        return new ReactiveStringRedisTemplate(new LettuceConnectionFactory());
+    }
+
+    /**
+     * 以内存Map代替RedisTokenStore
+     */
+    public static class InMemoryTokenReader extends ReactiveRedisTokenReader {
+        private final Map<String, OAuth2Authentication> tokens = new HashMap<>();
+
+        public InMemoryTokenReader() {
+            super(null);
+        }
+
+        public void put(String token, OAuth2Authentication authentication) {
+            tokens.put(token, authentication);
+        }
+
+        @Override
+        public Mono<OAuth2Authentication> readAuthentication(String token) {
+            return Mono.justOrEmpty(tokens.get(token));
+        }
+
+        @Override
+        public Mono<Duration> getExpire(String token) {
+            return tokens.containsKey(token) ? Mono.just(Duration.ofHours(2)) : Mono.empty();
+        }
+    }
+
+    /**
+     * 以内存Map代替Redis中的资源角色映射
+     */
+    public static class InMemoryResourceRolesRegistry extends ResourceRolesRegistry {
+        private final Map<String, List<String>> resources;
+
+        public InMemoryResourceRolesRegistry(Map<String, List<String>> resources, AuthorityInterner authorityInterner) {
+            super(null, disconnectedStringTemplate(), new ResourceRolesConfig(), authorityInterner);
+            this.resources = resources;
+        }
+
+        @Override
+        protected Mono<String> currentVersion() {
+            return Mono.just("1");
+        }
+
+        @Override
+        protected Flux<Map.Entry<Object, Object>> resourceEntries() {
+            return Flux.fromIterable(resources.entrySet())
+                    .map(entry -> new AbstractMap.SimpleImmutableEntry<>(entry.getKey(), entry.getValue()));
+        }
+    }
+}
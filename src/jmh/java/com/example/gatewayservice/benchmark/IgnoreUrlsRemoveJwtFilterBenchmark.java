@@ -0,0 +1,64 @@
+package com.example.gatewayservice.benchmark;
+
+import com.example.gatewayservice.auth.WhitelistMatcher;
+import com.example.gatewayservice.config.IgnoreUrlsConfig;
+import com.example.gatewayservice.filter.IgnoreUrlsRemoveJwtFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * IgnoreUrlsRemoveJwtFilter：白名单匹配，命中时移除Authorization请求头
+ * @author Joetao
+ * @date 2026/10/18
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IgnoreUrlsRemoveJwtFilterBenchmark {
+    private static final WebFilterChain CHAIN = exchange -> Mono.empty();
+
+    @Param({"/oauth2/oauth/token", "/swagger-ui/index.html", "/us/users/10086"})
+    public String path;
+
+    private IgnoreUrlsRemoveJwtFilter filter;
+
+    @Setup
+    public void setup() {
+        IgnoreUrlsConfig ignoreUrlsConfig = new IgnoreUrlsConfig();
+        ignoreUrlsConfig.setUrls(BenchmarkFixtures.ignoreUrls());
+        filter = new IgnoreUrlsRemoveJwtFilter(new WhitelistMatcher(ignoreUrlsConfig));
+    }
+
+    @Benchmark
+    public MockServerWebExchange exchangeOnly() {
+        return exchange();
+    }
+
+    @Benchmark
+    public Void filter() {
+        return filter.filter(exchange(), CHAIN).block();
+    }
+
+    private MockServerWebExchange exchange() {
+        return MockServerWebExchange.from(MockServerHttpRequest.get(path).header(HttpHeaders.AUTHORIZATION, "Bearer token"));
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.gatewayservice.benchmark;
+
+import com.example.gatewayservice.common.IpUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * IpUtils.getRealIpAddress：多级代理的x-forwarded-for、Proxy-Client-IP与直连地址三种情况
+ * @author Joetao
+ * @date 2026/10/18
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IpUtilsBenchmark {
+    private ServerHttpRequest forwarded;
+    private ServerHttpRequest proxyClient;
+    private ServerHttpRequest direct;
+
+    @Setup
+    public void setup() {
+        forwarded = MockServerHttpRequest.get("/us/users")
+                .header("x-forwarded-for", "203.98.182.163, 10.10.1.20, 10.10.2.30").build();
+        proxyClient = MockServerHttpRequest.get("/us/users")
+                .header("Proxy-Client-IP", "203.98.182.163").build();
+        direct = MockServerHttpRequest.get("/us/users")
+                .remoteAddress(new InetSocketAddress("192.168.1.100", 52100)).build();
+    }
+
+    @Benchmark
+    public String forwardedFor() {
+        return IpUtils.getRealIpAddress(forwarded);
+    }
+
+    @Benchmark
+    public String proxyClientIp() {
+        return IpUtils.getRealIpAddress(proxyClient);
+    }
+
+    @Benchmark
+    public String remoteAddress() {
+        return IpUtils.getRealIpAddress(direct);
+    }
+}
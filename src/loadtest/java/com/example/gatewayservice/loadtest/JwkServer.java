@@ -0,0 +1,84 @@
+package com.example.gatewayservice.loadtest;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 代替认证服务的/auth/rsa/publicKey接口，并用同一RSA密钥签发压测用的JWT
+ * @author Joetao
+ * @date 2026/10/18
+ */
+public class JwkServer implements AutoCloseable {
+    private static final String PATH = "/auth/rsa/publicKey";
+
+    private final RSAKey rsaKey;
+    private final DisposableServer server;
+
+    public JwkServer() {
+        try {
+            this.rsaKey = new RSAKeyGenerator(2048).keyID("loadtest").generate();
+        } catch (JOSEException e) {
+            throw new IllegalStateException(e);
+        }
+        String jwkSet = new JWKSet(rsaKey.toPublicJWK()).toString();
+        this.server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .route(routes -> routes.get(PATH, (request, response) -> response
+                        .header(HttpHeaderNames.CONTENT_TYPE, HttpHeaderValues.APPLICATION_JSON)
+                        .sendString(Mono.just(jwkSet))))
+                .bindNow();
+    }
+
+    public String jwkSetUri() {
+        return "http://127.0.0.1:" + server.port() + PATH;
+    }
+
+    /**
+     * 签发与认证服务声明一致的JWT
+     */
+    public String sign(String username, String clientId, List<String> authorities, Duration ttl) {
+        Instant now = Instant.now();
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .claim("id", 10086L)
+                .claim("user_name", username)
+                .claim("client_id", clientId)
+                .claim("scope", Collections.singletonList("all"))
+                .claim("authorities", authorities)
+                .jwtID(UUID.randomUUID().toString())
+                .issueTime(Date.from(now))
+                .expirationTime(Date.from(now.plus(ttl)))
+                .build();
+        SignedJWT signedJwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(rsaKey.getKeyID()).build(), claims);
+        try {
+            signedJwt.sign(new RSASSASigner(rsaKey));
+        } catch (JOSEException e) {
+            throw new IllegalStateException(e);
+        }
+        return signedJwt.serialize();
+    }
+
+    @Override
+    public void close() {
+        server.disposeNow();
+    }
+}
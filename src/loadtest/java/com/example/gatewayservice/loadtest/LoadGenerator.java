@@ -0,0 +1,144 @@
+package com.example.gatewayservice.loadtest;
+
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.ByteBufFlux;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * 闭环压测：固定数量的连接各自收到响应后立即发送下一个请求，记录吞吐量与延迟分布
+ * 网关的错误响应HTTP状态码也是200，结果按响应体中的code分类统计
+ * @author Joetao
+ * @date 2026/10/18
+ */
+public class LoadGenerator implements AutoCloseable {
+    private static final String CODE_FIELD = "\"code\":";
+
+    private final LoadTestProperties properties;
+    private final Function<TrafficMix.TokenKind, String> tokens;
+    private final ConnectionProvider connectionProvider;
+    private final HttpClient client;
+
+    public LoadGenerator(String baseUrl, LoadTestProperties properties, Function<TrafficMix.TokenKind, String> tokens) {
+        this.properties = properties;
+        this.tokens = tokens;
+        this.connectionProvider = ConnectionProvider.create("loadtest", properties.getConcurrency());
+        this.client = HttpClient.create(connectionProvider).baseUrl(baseUrl);
+    }
+
+    /**
+     * 预热后正式压测一种流量
+     */
+    public Result run(TrafficMix mix) {
+        execute(mix, properties.getWarmup());
+        return execute(mix, properties.getDuration());
+    }
+
+    private Result execute(TrafficMix mix, Duration duration) {
+        Recorder recorder = new Recorder(3);
+        Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+        Flux.range(0, properties.getConcurrency())
+                .flatMap(worker -> Mono.defer(() -> send(mix, recorder, outcomes))
+                        .repeat(() -> System.nanoTime() < deadline), properties.getConcurrency())
+                .blockLast();
+        return new Result(mix, System.nanoTime() - start, recorder.getIntervalHistogram(), outcomes);
+    }
+
+    private Mono<String> send(TrafficMix mix, Recorder recorder, Map<String, LongAdder> outcomes) {
+        String token = tokens.apply(mix.getTokenKind());
+        String uri = mix.path(ThreadLocalRandom.current().nextInt(properties.getDistinctIds()));
+        HttpClient headersClient = client.headers(headers -> {
+            if (token != null) {
+                headers.set(HttpHeaderNames.AUTHORIZATION, "Bearer " + token);
+            }
+            if (mix.getBody() != null) {
+                headers.set(HttpHeaderNames.CONTENT_TYPE, HttpHeaderValues.APPLICATION_JSON);
+            }
+        });
+        HttpClient.ResponseReceiver<?> receiver = mix.getBody() != null
+                ? headersClient.request(mix.getMethod()).uri(uri).send(ByteBufFlux.fromString(Mono.just(mix.getBody())))
+                : headersClient.request(mix.getMethod()).uri(uri);
+        long begin = System.nanoTime();
+        return receiver
+                .responseSingle((response, content) -> content.asString()
+                        .defaultIfEmpty("")
+                        .map(body -> outcome(response.status().code(), body)))
+                .onErrorResume(e -> Mono.just("error:" + e.getClass().getSimpleName()))
+                .doOnNext(outcome -> {
+                    recorder.recordValue(System.nanoTime() - begin);
+                    outcomes.computeIfAbsent(outcome, k -> new LongAdder()).increment();
+                });
+    }
+
+    private static String outcome(int status, String body) {
+        if (status != 200) {
+            return "http:" + status;
+        }
+        int index = body.indexOf(CODE_FIELD);
+        if (index < 0) {
+            return "http:200";
+        }
+        int start = index + CODE_FIELD.length();
+        int end = start;
+        while (end < body.length() && Character.isDigit(body.charAt(end))) {
+            end++;
+        }
+        return "code:" + body.substring(start, end);
+    }
+
+    @Override
+    public void close() {
+        connectionProvider.disposeLater().block();
+    }
+
+    public static final class Result {
+        private final TrafficMix mix;
+        private final long elapsedNanos;
+        private final Histogram histogram;
+        private final Map<String, LongAdder> outcomes;
+
+        private Result(TrafficMix mix, long elapsedNanos, Histogram histogram, Map<String, LongAdder> outcomes) {
+            this.mix = mix;
+            this.elapsedNanos = elapsedNanos;
+            this.histogram = histogram;
+            this.outcomes = outcomes;
+        }
+
+        public static void printHeader(PrintStream out) {
+            out.printf("%-12s %10s %10s %9s %9s %9s %9s %9s  %s%n",
+                    "mix", "requests", "req/s", "p50(ms)", "p90(ms)", "p99(ms)", "p999(ms)", "max(ms)", "outcomes");
+        }
+
+        public void print(PrintStream out) {
+            long requests = histogram.getTotalCount();
+            Map<String, Long> sorted = new TreeMap<>();
+            outcomes.forEach((outcome, count) -> sorted.put(outcome, count.sum()));
+            out.printf("%-12s %10d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f  %s%n",
+                    mix.name().toLowerCase(), requests, requests * 1e9 / elapsedNanos,
+                    millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(90)),
+                    millis(histogram.getValueAtPercentile(99)), millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue()), sorted);
+        }
+
+        private static double millis(long nanos) {
+            return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+        }
+    }
+}
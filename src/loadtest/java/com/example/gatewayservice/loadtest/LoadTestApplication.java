@@ -0,0 +1,165 @@
+package com.example.gatewayservice.loadtest;
+
+import com.example.gatewayservice.GatewayServiceApplication;
+import com.example.gatewayservice.constant.RedisConstant;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.event.ApplicationEnvironmentPreparedEvent;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.web.reactive.context.ReactiveWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.CommandLinePropertySource;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.MutablePropertySources;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.OAuth2Request;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 网关端到端压测入口
+ * 在本机启动Redis替身、JWK接口与上游替身，关闭Nacos后以真实配置启动网关，路由地址指向上游替身，
+ * 依次对各类流量进行闭环压测并输出吞吐量与延迟分位数
+ * 以--loadtest.xxx=yyy指定压测参数(见LoadTestProperties)，其余--key=value参数覆盖网关配置
+ * @author Joetao
+ * @date 2026/10/18
+ */
+public class LoadTestApplication {
+    private static final List<String> ROLES = Arrays.asList("ADMIN", "USER");
+    /**lb路由的服务名，实例列表通过Ribbon的listOfServers固定配置**/
+    private static final String LB_SERVICE = "loadtest-upstream";
+    private static final Duration TOKEN_TTL = Duration.ofDays(1);
+
+    public static void main(String[] args) {
+        // devtools会在新的类加载器中重启应用，导致替身服务重复启动
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new SimpleCommandLinePropertySource(args));
+        LoadTestProperties properties = Binder.get(environment).bind("loadtest", LoadTestProperties.class)
+                .orElseGet(LoadTestProperties::new);
+
+        try (RespServer redis = new RespServer();
+             JwkServer jwkServer = new JwkServer();
+             StubUpstream upstream = new StubUpstream(properties.getUpstreamLatency(), properties.getUpstreamCacheControl());
+             StubUpstream slowUpstream = new StubUpstream(properties.getUpstreamLatency().plus(properties.getSlowInstanceLatency()),
+                     properties.getUpstreamCacheControl())) {
+            Map<TrafficMix.TokenKind, String> tokens = seed(redis, jwkServer);
+            Map<String, Object> overrides = gatewayProperties(redis, jwkServer, upstream, slowUpstream);
+            // 预热请求使用有权限的token，经过完整的鉴权流程
+            overrides.put("warmup.token", tokens.get(TrafficMix.TokenKind.ADMIN));
+            try (ConfigurableApplicationContext context = new SpringApplicationBuilder(GatewayServiceApplication.class)
+                    .listeners(event -> {
+                        if (event instanceof ApplicationEnvironmentPreparedEvent) {
+                            addOverrides(((ApplicationEnvironmentPreparedEvent) event).getEnvironment().getPropertySources(), overrides);
+                        }
+                    })
+                    .run(args)) {
+                int port = ((ReactiveWebServerApplicationContext) context).getWebServer().getPort();
+                try (LoadGenerator generator = new LoadGenerator("http://127.0.0.1:" + port, properties, tokens::get)) {
+                    System.out.printf("%n网关压测: 并发连接%d, 预热%ds, 压测%ds, 上游耗时%dms%n", properties.getConcurrency(),
+                            properties.getWarmup().getSeconds(), properties.getDuration().getSeconds(),
+                            properties.getUpstreamLatency().toMillis());
+                    LoadGenerator.Result.printHeader(System.out);
+                    for (TrafficMix mix : properties.getMixes()) {
+                        generator.run(mix).print(System.out);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 写入资源角色映射，并签发有权限(ADMIN)与无权限(GUEST)两个用户的JWT，按RedisTokenStore的格式保存认证信息
+     */
+    private static Map<TrafficMix.TokenKind, String> seed(RespServer redis, JwkServer jwkServer) {
+        Jackson2JsonRedisSerializer<Object> jsonSerializer = new Jackson2JsonRedisSerializer<>(Object.class);
+        redis.hset(RedisConstant.RESOURCE_ROLES_MAP, "/us/users", jsonSerializer.serialize(ROLES));
+        redis.hset(RedisConstant.RESOURCE_ROLES_MAP, "/us/users/{id}", jsonSerializer.serialize(ROLES));
+        redis.hset(RedisConstant.RESOURCE_ROLES_MAP, "/lb/users/{id}", jsonSerializer.serialize(ROLES));
+        redis.set(RedisConstant.RESOURCE_ROLES_VERSION, "1".getBytes(StandardCharsets.UTF_8));
+
+        JdkSerializationRedisSerializer jdkSerializer = new JdkSerializationRedisSerializer();
+        Map<TrafficMix.TokenKind, String> tokens = new EnumMap<>(TrafficMix.TokenKind.class);
+        tokens.put(TrafficMix.TokenKind.ADMIN, issue(redis, jwkServer, jdkSerializer, "admin", Collections.singletonList("ADMIN")));
+        tokens.put(TrafficMix.TokenKind.GUEST, issue(redis, jwkServer, jdkSerializer, "guest", Collections.singletonList("GUEST")));
+        return tokens;
+    }
+
+    private static String issue(RespServer redis, JwkServer jwkServer, JdkSerializationRedisSerializer serializer,
+                                String username, List<String> roles) {
+        String token = jwkServer.sign(username, "web-app", roles, TOKEN_TTL);
+        List<GrantedAuthority> authorities = AuthorityUtils.createAuthorityList(roles.toArray(new String[0]));
+        OAuth2Request request = new OAuth2Request(Collections.singletonMap("grant_type", "password"), "web-app", authorities,
+                true, Collections.singleton("all"), Collections.emptySet(), null, Collections.emptySet(), Collections.emptyMap());
+        OAuth2Authentication authentication = new OAuth2Authentication(request,
+                new UsernamePasswordAuthenticationToken(username, null, authorities));
+        redis.set(RedisConstant.TOKEN_AUTH_PREFIX + token, serializer.serialize(authentication), TOKEN_TTL);
+        return token;
+    }
+
+    /**
+     * 路由列表不会跨配置源合并，覆盖地址时需要给出完整的路由定义
+     */
+    private static Map<String, Object> gatewayProperties(RespServer redis, JwkServer jwkServer, StubUpstream upstream,
+                                                         StubUpstream slowUpstream) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("server.port", 0);
+        properties.put("spring.cloud.nacos.discovery.enabled", false);
+        properties.put("spring.cloud.service-registry.auto-registration.enabled", false);
+        properties.put("spring.cloud.gateway.discovery.locator.enabled", false);
+        properties.put("ribbon.nacos.enabled", false);
+        properties.put("spring.redis.host", "127.0.0.1");
+        properties.put("spring.redis.port", redis.port());
+        properties.put("spring.security.oauth2.resourceserver.jwt.jwk-set-uri", jwkServer.jwkSetUri());
+        // 每次压测的JWK都是新生成的，不保存本地副本
+        properties.put("secure.jwk.local-copy", "");
+        route(properties, 0, "oauth2-auth", upstream.uri(), "/oauth2/**");
+        route(properties, 1, "user-service", upstream.uri(), "/us/**");
+        // lb路由使用固定的快慢两个实例，覆盖Ribbon、按延迟选择实例、对冲请求、请求合并与并发限制
+        route(properties, 2, "user-service-lb", "lb://" + LB_SERVICE, "/lb/**");
+        properties.put(LB_SERVICE + ".ribbon.listOfServers",
+                URI.create(upstream.uri()).getAuthority() + "," + URI.create(slowUpstream.uri()).getAuthority());
+        properties.put("hedging.routes.user-service-lb.percentile", 0.5);
+        properties.put("hedging.routes.user-service-lb.min-delay", "5ms");
+        properties.put("hedging.routes.user-service-lb.max-delay", "200ms");
+        properties.put("coalesce.routes.user-service-lb.per-principal", true);
+        properties.put("concurrency-limit.routes.user-service-lb.initial-limit", 20);
+        // 压测请求都来自同一IP，默认关闭限流，需要压测限流时以--rate-limit.enabled=true开启
+        properties.put("rate-limit.enabled", false);
+        return properties;
+    }
+
+    private static void route(Map<String, Object> properties, int index, String id, String uri, String path) {
+        String prefix = "spring.cloud.gateway.routes[" + index + "].";
+        properties.put(prefix + "id", id);
+        properties.put(prefix + "uri", uri);
+        properties.put(prefix + "predicates[0]", "Path=" + path);
+        properties.put(prefix + "filters[0]", "StripPrefix=1");
+    }
+
+    /**
+     * 压测配置优先于application.yml，但低于命令行参数
+     */
+    private static void addOverrides(MutablePropertySources propertySources, Map<String, Object> overrides) {
+        MapPropertySource source = new MapPropertySource("loadtest", overrides);
+        if (propertySources.contains(CommandLinePropertySource.COMMAND_LINE_PROPERTY_SOURCE_NAME)) {
+            propertySources.addAfter(CommandLinePropertySource.COMMAND_LINE_PROPERTY_SOURCE_NAME, source);
+        } else {
+            propertySources.addFirst(source);
+        }
+    }
+}
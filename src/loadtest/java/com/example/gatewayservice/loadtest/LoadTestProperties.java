@@ -0,0 +1,32 @@
+package com.example.gatewayservice.loadtest;
+
+import lombok.Data;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 压测参数，通过命令行--loadtest.xxx=yyy指定，其余命令行参数原样传给网关
+ * @author Joetao
+ * @date 2026/10/18
+ */
+@Data
+public class LoadTestProperties {
+    /**每种流量的压测时长**/
+    private Duration duration = Duration.ofSeconds(30);
+    /**每种流量正式压测前的预热时长，预热期间的结果不计入报告**/
+    private Duration warmup = Duration.ofSeconds(10);
+    /**并发连接数，每个连接收到响应后立即发送下一个请求**/
+    private int concurrency = 64;
+    /**依次压测的流量类型**/
+    private List<TrafficMix> mixes = Arrays.asList(TrafficMix.values());
+    /**模拟上游服务的处理耗时**/
+    private Duration upstreamLatency = Duration.ZERO;
+    /**lb路由中慢实例额外的处理耗时，用于观察按延迟选择实例与对冲请求**/
+    private Duration slowInstanceLatency = Duration.ofMillis(20);
+    /**模拟上游响应的Cache-Control，默认不允许缓存，使压测覆盖完整的转发链路**/
+    private String upstreamCacheControl = "no-store";
+    /**请求路径中不同资源id的个数**/
+    private int distinctIds = 10000;
+}
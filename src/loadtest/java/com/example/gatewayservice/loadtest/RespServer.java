@@ -0,0 +1,480 @@
+package com.example.gatewayservice.loadtest;
+
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.handler.codec.ByteToMessageDecoder;
+import io.netty.util.AttributeKey;
+import io.netty.util.ByteProcessor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.regex.Pattern;
+
+/**
+ * 兼容RESP2协议的内存版Redis，只实现网关用到的命令：字符串、Hash、过期时间与发布订阅
+ * 不做持久化与内存淘汰，仅用于压测时代替真实Redis
+ * @author Joetao
+ * @date 2026/10/18
+ */
+@Slf4j
+public class RespServer implements AutoCloseable {
+    private static final byte[] CRLF = {'\r', '\n'};
+    private static final AttributeKey<Set<String>> SUBSCRIPTIONS = AttributeKey.valueOf("subscriptions");
+    private static final long NO_EXPIRE = -1;
+
+    private final Map<String, Entry> data = new ConcurrentHashMap<>();
+    private final Map<String, Set<Channel>> channelSubscribers = new ConcurrentHashMap<>();
+    private final Map<String, Set<Channel>> patternSubscribers = new ConcurrentHashMap<>();
+    private final Map<String, Pattern> compiledPatterns = new ConcurrentHashMap<>();
+    private final EventLoopGroup group = new NioEventLoopGroup(1);
+    private final Channel serverChannel;
+
+    public RespServer() {
+        this.serverChannel = new ServerBootstrap()
+                .group(group)
+                .channel(NioServerSocketChannel.class)
+                .childHandler(new ChannelInitializer<SocketChannel>() {
+                    @Override
+                    protected void initChannel(SocketChannel ch) {
+                        ch.pipeline().addLast(new CommandDecoder(), new CommandHandler());
+                    }
+                })
+                .bind("127.0.0.1", 0)
+                .syncUninterruptibly()
+                .channel();
+    }
+
+    public int port() {
+        return ((InetSocketAddress) serverChannel.localAddress()).getPort();
+    }
+
+    public void set(String key, byte[] value) {
+        data.put(key, new Entry(value, NO_EXPIRE));
+    }
+
+    public void set(String key, byte[] value, Duration ttl) {
+        data.put(key, new Entry(value, System.currentTimeMillis() + ttl.toMillis()));
+    }
+
+    public void hset(String key, String field, byte[] value) {
+        hash(key, true).put(field, value);
+    }
+
+    @Override
+    public void close() {
+        serverChannel.close().syncUninterruptibly();
+        group.shutdownGracefully().syncUninterruptibly();
+    }
+
+    private Entry entry(String key) {
+        Entry entry = data.get(key);
+        if (entry != null && entry.isExpired()) {
+            data.remove(key, entry);
+            return null;
+        }
+        return entry;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, byte[]> hash(String key, boolean create) {
+        Entry entry = entry(key);
+        if (entry == null) {
+            if (!create) {
+                return null;
+            }
+            entry = new Entry(new ConcurrentHashMap<String, byte[]>(), NO_EXPIRE);
+            data.put(key, entry);
+        }
+        return (Map<String, byte[]>) entry.value;
+    }
+
+    private void execute(ChannelHandlerContext ctx, List<byte[]> args) {
+        ByteBuf out = ctx.alloc().buffer();
+        String command = string(args.get(0)).toUpperCase(Locale.ROOT);
+        try {
+            switch (command) {
+                case "PING":
+                    if (args.size() > 1) {
+                        bulk(out, args.get(1));
+                    } else {
+                        simple(out, "PONG");
+                    }
+                    break;
+                case "ECHO":
+                    bulk(out, args.get(1));
+                    break;
+                case "AUTH":
+                case "SELECT":
+                case "CLIENT":
+                case "QUIT":
+                    simple(out, "OK");
+                    break;
+                case "INFO":
+                    bulk(out, "# Server\r\nredis_version:6.0.0\r\nredis_mode:standalone\r\n".getBytes(StandardCharsets.UTF_8));
+                    break;
+                case "CONFIG":
+                case "COMMAND":
+                    arrayHeader(out, 0);
+                    break;
+                case "GET": {
+                    Entry entry = entry(string(args.get(1)));
+                    bulk(out, entry != null && entry.value instanceof byte[] ? (byte[]) entry.value : null);
+                    break;
+                }
+                case "SET":
+                    set(out, args);
+                    break;
+                case "DEL": {
+                    long removed = 0;
+                    for (int i = 1; i < args.size(); i++) {
+                        removed += data.remove(string(args.get(i))) != null ? 1 : 0;
+                    }
+                    integer(out, removed);
+                    break;
+                }
+                case "EXISTS": {
+                    long exists = 0;
+                    for (int i = 1; i < args.size(); i++) {
+                        exists += entry(string(args.get(i))) != null ? 1 : 0;
+                    }
+                    integer(out, exists);
+                    break;
+                }
+                case "INCR":
+                case "INCRBY": {
+                    String key = string(args.get(1));
+                    long delta = args.size() > 2 ? Long.parseLong(string(args.get(2))) : 1;
+                    Entry entry = entry(key);
+                    long value = (entry != null ? Long.parseLong(string((byte[]) entry.value)) : 0) + delta;
+                    data.put(key, new Entry(String.valueOf(value).getBytes(StandardCharsets.UTF_8), entry != null ? entry.expireAt : NO_EXPIRE));
+                    integer(out, value);
+                    break;
+                }
+                case "EXPIRE":
+                case "PEXPIRE": {
+                    Entry entry = entry(string(args.get(1)));
+                    long millis = Long.parseLong(string(args.get(2))) * ("EXPIRE".equals(command) ? 1000 : 1);
+                    if (entry != null) {
+                        data.put(string(args.get(1)), new Entry(entry.value, System.currentTimeMillis() + millis));
+                    }
+                    integer(out, entry != null ? 1 : 0);
+                    break;
+                }
+                case "TTL":
+                case "PTTL": {
+                    Entry entry = entry(string(args.get(1)));
+                    long ttl = entry == null ? -2 : entry.expireAt == NO_EXPIRE ? -1 : entry.expireAt - System.currentTimeMillis();
+                    integer(out, ttl > 0 && "TTL".equals(command) ? ttl / 1000 : ttl);
+                    break;
+                }
+                case "HSET": {
+                    Map<String, byte[]> hash = hash(string(args.get(1)), true);
+                    long added = 0;
+                    for (int i = 2; i + 1 < args.size(); i += 2) {
+                        added += hash.put(string(args.get(i)), args.get(i + 1)) == null ? 1 : 0;
+                    }
+                    integer(out, added);
+                    break;
+                }
+                case "HGET": {
+                    Map<String, byte[]> hash = hash(string(args.get(1)), false);
+                    bulk(out, hash != null ? hash.get(string(args.get(2))) : null);
+                    break;
+                }
+                case "HGETALL": {
+                    Map<String, byte[]> hash = hash(string(args.get(1)), false);
+                    List<Map.Entry<String, byte[]>> entries = hash != null ? new ArrayList<>(hash.entrySet()) : new ArrayList<>();
+                    arrayHeader(out, entries.size() * 2);
+                    for (Map.Entry<String, byte[]> entry : entries) {
+                        bulk(out, entry.getKey().getBytes(StandardCharsets.UTF_8));
+                        bulk(out, entry.getValue());
+                    }
+                    break;
+                }
+                case "PUBLISH":
+                    integer(out, publish(string(args.get(1)), args.get(2)));
+                    break;
+                case "SUBSCRIBE":
+                case "PSUBSCRIBE":
+                    subscribe(ctx.channel(), out, args, "PSUBSCRIBE".equals(command));
+                    break;
+                case "UNSUBSCRIBE":
+                case "PUNSUBSCRIBE":
+                    unsubscribe(ctx.channel(), out, args, "PUNSUBSCRIBE".equals(command));
+                    break;
+                default:
+                    error(out, "ERR unknown command '" + command + "'");
+            }
+        } catch (RuntimeException e) {
+            out.clear();
+            error(out, "ERR " + e.getMessage());
+        }
+        if ("QUIT".equals(command)) {
+            ctx.writeAndFlush(out).addListener(ChannelFutureListener.CLOSE);
+        } else {
+            ctx.write(out);
+        }
+    }
+
+    private void set(ByteBuf out, List<byte[]> args) {
+        long expireAt = NO_EXPIRE;
+        for (int i = 3; i + 1 < args.size(); i++) {
+            String option = string(args.get(i)).toUpperCase(Locale.ROOT);
+            if ("EX".equals(option)) {
+                expireAt = System.currentTimeMillis() + Long.parseLong(string(args.get(++i))) * 1000;
+            } else if ("PX".equals(option)) {
+                expireAt = System.currentTimeMillis() + Long.parseLong(string(args.get(++i)));
+            }
+        }
+        data.put(string(args.get(1)), new Entry(args.get(2), expireAt));
+        simple(out, "OK");
+    }
+
+    private long publish(String channel, byte[] message) {
+        long receivers = 0;
+        for (Channel subscriber : channelSubscribers.getOrDefault(channel, Collections.emptySet())) {
+            ByteBuf buf = subscriber.alloc().buffer();
+            arrayHeader(buf, 3);
+            bulk(buf, "message".getBytes(StandardCharsets.UTF_8));
+            bulk(buf, channel.getBytes(StandardCharsets.UTF_8));
+            bulk(buf, message);
+            subscriber.writeAndFlush(buf);
+            receivers++;
+        }
+        for (Map.Entry<String, Set<Channel>> entry : patternSubscribers.entrySet()) {
+            if (!compiledPatterns.get(entry.getKey()).matcher(channel).matches()) {
+                continue;
+            }
+            for (Channel subscriber : entry.getValue()) {
+                ByteBuf buf = subscriber.alloc().buffer();
+                arrayHeader(buf, 4);
+                bulk(buf, "pmessage".getBytes(StandardCharsets.UTF_8));
+                bulk(buf, entry.getKey().getBytes(StandardCharsets.UTF_8));
+                bulk(buf, channel.getBytes(StandardCharsets.UTF_8));
+                bulk(buf, message);
+                subscriber.writeAndFlush(buf);
+                receivers++;
+            }
+        }
+        return receivers;
+    }
+
+    private void subscribe(Channel channel, ByteBuf out, List<byte[]> args, boolean pattern) {
+        Set<String> subscriptions = subscriptions(channel);
+        Map<String, Set<Channel>> subscribers = pattern ? patternSubscribers : channelSubscribers;
+        for (int i = 1; i < args.size(); i++) {
+            String name = string(args.get(i));
+            if (pattern) {
+                compiledPatterns.computeIfAbsent(name, RespServer::globToRegex);
+            }
+            subscribers.computeIfAbsent(name, k -> new CopyOnWriteArraySet<>()).add(channel);
+            subscriptions.add((pattern ? "p:" : "c:") + name);
+            arrayHeader(out, 3);
+            bulk(out, (pattern ? "psubscribe" : "subscribe").getBytes(StandardCharsets.UTF_8));
+            bulk(out, args.get(i));
+            integer(out, subscriptions.size());
+        }
+    }
+
+    private void unsubscribe(Channel channel, ByteBuf out, List<byte[]> args, boolean pattern) {
+        Set<String> subscriptions = subscriptions(channel);
+        Map<String, Set<Channel>> subscribers = pattern ? patternSubscribers : channelSubscribers;
+        String prefix = pattern ? "p:" : "c:";
+        List<String> names = new ArrayList<>();
+        if (args.size() > 1) {
+            for (int i = 1; i < args.size(); i++) {
+                names.add(string(args.get(i)));
+            }
+        } else {
+            subscriptions.stream().filter(s -> s.startsWith(prefix)).forEach(s -> names.add(s.substring(prefix.length())));
+        }
+        for (String name : names) {
+            Set<Channel> channels = subscribers.get(name);
+            if (channels != null) {
+                channels.remove(channel);
+            }
+            subscriptions.remove(prefix + name);
+            arrayHeader(out, 3);
+            bulk(out, (pattern ? "punsubscribe" : "unsubscribe").getBytes(StandardCharsets.UTF_8));
+            bulk(out, name.getBytes(StandardCharsets.UTF_8));
+            integer(out, subscriptions.size());
+        }
+    }
+
+    private Set<String> subscriptions(Channel channel) {
+        Set<String> subscriptions = channel.attr(SUBSCRIPTIONS).get();
+        if (subscriptions == null) {
+            subscriptions = new HashSet<>();
+            channel.attr(SUBSCRIPTIONS).set(subscriptions);
+            channel.closeFuture().addListener(future -> {
+                channelSubscribers.values().forEach(channels -> channels.remove(channel));
+                patternSubscribers.values().forEach(channels -> channels.remove(channel));
+            });
+        }
+        return subscriptions;
+    }
+
+    private static Pattern globToRegex(String glob) {
+        StringBuilder regex = new StringBuilder();
+        for (char c : glob.toCharArray()) {
+            if (c == '*') {
+                regex.append(".*");
+            } else if (c == '?') {
+                regex.append('.');
+            } else {
+                regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        return Pattern.compile(regex.toString());
+    }
+
+    private static String string(byte[] bytes) {
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void simple(ByteBuf out, String value) {
+        out.writeByte('+').writeBytes(value.getBytes(StandardCharsets.UTF_8)).writeBytes(CRLF);
+    }
+
+    private static void error(ByteBuf out, String message) {
+        out.writeByte('-').writeBytes(message.getBytes(StandardCharsets.UTF_8)).writeBytes(CRLF);
+    }
+
+    private static void integer(ByteBuf out, long value) {
+        out.writeByte(':').writeBytes(String.valueOf(value).getBytes(StandardCharsets.US_ASCII)).writeBytes(CRLF);
+    }
+
+    private static void arrayHeader(ByteBuf out, int size) {
+        out.writeByte('*').writeBytes(String.valueOf(size).getBytes(StandardCharsets.US_ASCII)).writeBytes(CRLF);
+    }
+
+    private static void bulk(ByteBuf out, byte[] value) {
+        if (value == null) {
+            out.writeBytes("$-1".getBytes(StandardCharsets.US_ASCII)).writeBytes(CRLF);
+            return;
+        }
+        out.writeByte('$').writeBytes(String.valueOf(value.length).getBytes(StandardCharsets.US_ASCII)).writeBytes(CRLF)
+                .writeBytes(value).writeBytes(CRLF);
+    }
+
+    private static final class Entry {
+        private final Object value;
+        private final long expireAt;
+
+        private Entry(Object value, long expireAt) {
+            this.value = value;
+            this.expireAt = expireAt;
+        }
+
+        private boolean isExpired() {
+            return expireAt != NO_EXPIRE && expireAt <= System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * 解析客户端发送的命令：多条批量字符串组成的数组，或以空格分隔的内联命令
+     */
+    private static final class CommandDecoder extends ByteToMessageDecoder {
+        @Override
+        protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) {
+            while (in.isReadable()) {
+                in.markReaderIndex();
+                List<byte[]> command = in.getByte(in.readerIndex()) == '*' ? readArray(in) : readInline(in);
+                if (command == null) {
+                    in.resetReaderIndex();
+                    return;
+                }
+                if (!command.isEmpty()) {
+                    out.add(command);
+                }
+            }
+        }
+
+        private static List<byte[]> readArray(ByteBuf in) {
+            String header = readLine(in);
+            if (header == null) {
+                return null;
+            }
+            int size = Integer.parseInt(header.substring(1));
+            List<byte[]> args = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                String length = readLine(in);
+                if (length == null) {
+                    return null;
+                }
+                int bytes = Integer.parseInt(length.substring(1));
+                if (in.readableBytes() < bytes + CRLF.length) {
+                    return null;
+                }
+                byte[] arg = new byte[bytes];
+                in.readBytes(arg);
+                in.skipBytes(CRLF.length);
+                args.add(arg);
+            }
+            return args;
+        }
+
+        private static List<byte[]> readInline(ByteBuf in) {
+            String line = readLine(in);
+            if (line == null) {
+                return null;
+            }
+            List<byte[]> args = new ArrayList<>();
+            Arrays.stream(line.trim().split("\\s+"))
+                    .filter(arg -> !arg.isEmpty())
+                    .forEach(arg -> args.add(arg.getBytes(StandardCharsets.UTF_8)));
+            return args;
+        }
+
+        private static String readLine(ByteBuf in) {
+            int lf = in.forEachByte(ByteProcessor.FIND_LF);
+            if (lf < 0) {
+                return null;
+            }
+            int length = lf - in.readerIndex();
+            String line = in.toString(in.readerIndex(), length > 0 && in.getByte(lf - 1) == '\r' ? length - 1 : length,
+                    StandardCharsets.UTF_8);
+            in.readerIndex(lf + 1);
+            return line;
+        }
+    }
+
+    private final class CommandHandler extends SimpleChannelInboundHandler<List<byte[]>> {
+        @Override
+        protected void channelRead0(ChannelHandlerContext ctx, List<byte[]> command) {
+            execute(ctx, command);
+        }
+
+        @Override
+        public void channelReadComplete(ChannelHandlerContext ctx) {
+            ctx.flush();
+        }
+
+        @Override
+        public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+            log.warn("Redis替身连接异常:{}", cause.getMessage());
+            ctx.close();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.gatewayservice.loadtest;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * 代替oauth2-auth与user-service的上游服务，任意路径都返回固定的JSON响应
+ * @author Joetao
+ * @date 2026/10/18
+ */
+public class StubUpstream implements AutoCloseable {
+    private static final byte[] RESPONSE_BODY = ("{\"code\":200,\"msg\":\"成功\",\"data\":{\"id\":10086,\"username\":\"zhangsan\","
+            + "\"nickname\":\"张三\",\"createTime\":\"2026-10-18 10:00:00\",\"roles\":[\"ADMIN\",\"USER\"]}}").getBytes(StandardCharsets.UTF_8);
+
+    private final DisposableServer server;
+
+    public StubUpstream(Duration latency, String cacheControl) {
+        ByteBuf body = Unpooled.unreleasableBuffer(Unpooled.wrappedBuffer(RESPONSE_BODY));
+        this.server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .handle((request, response) -> request.receive().then()
+                        .then(latency.isZero() ? Mono.empty() : Mono.delay(latency).then())
+                        .then(response.header(HttpHeaderNames.CONTENT_TYPE, HttpHeaderValues.APPLICATION_JSON)
+                                .header(HttpHeaderNames.CACHE_CONTROL, cacheControl)
+                                .header(HttpHeaderNames.CONTENT_LENGTH, String.valueOf(RESPONSE_BODY.length))
+                                .send(Mono.just(body.duplicate()))
+                                .then()))
+                .bindNow();
+    }
+
+    public String uri() {
+        return "http://127.0.0.1:" + server.port();
+    }
+
+    @Override
+    public void close() {
+        server.disposeNow();
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.gatewayservice.loadtest;
+
+import io.netty.handler.codec.http.HttpMethod;
+
+/**
+ * 压测的流量类型
+ * @author Joetao
+ * @date 2026/10/18
+ */
+public enum TrafficMix {
+    /**携带有权限的token访问受保护资源，经过JWT校验、鉴权、限流、缓存等完整链路**/
+    AUTHORIZED(HttpMethod.GET, "/us/users/", TokenKind.ADMIN, null),
+    /**lb路由，在快慢两个实例间按延迟选择，并开启对冲请求、请求合并与并发限制**/
+    LOAD_BALANCED(HttpMethod.GET, "/lb/users/", TokenKind.ADMIN, null),
+    /**白名单路径，不携带token**/
+    WHITELISTED(HttpMethod.GET, "/oauth2/oauth/check_token?token=", TokenKind.NONE, null),
+    /**携带JSON请求体的写请求，请求体与响应体都会记录到访问日志**/
+    BODY_LOGGED(HttpMethod.POST, "/us/users/", TokenKind.ADMIN, "{\"username\":\"zhangsan\",\"nickname\":\"张三\","
+            + "\"phone\":\"13800000000\",\"email\":\"zhangsan@example.com\",\"roles\":[1,2],\"remark\":\"压测请求体\"}"),
+    /**token有效但角色无权访问，由网关直接拒绝，不访问上游**/
+    REJECTED(HttpMethod.GET, "/us/users/", TokenKind.GUEST, null);
+
+    private final HttpMethod method;
+    private final String pathPrefix;
+    private final TokenKind tokenKind;
+    private final String body;
+
+    TrafficMix(HttpMethod method, String pathPrefix, TokenKind tokenKind, String body) {
+        this.method = method;
+        this.pathPrefix = pathPrefix;
+        this.tokenKind = tokenKind;
+        this.body = body;
+    }
+
+    public HttpMethod getMethod() {
+        return method;
+    }
+
+    public String path(int id) {
+        return pathPrefix + id;
+    }
+
+    public TokenKind getTokenKind() {
+        return tokenKind;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public enum TokenKind {
+        NONE, ADMIN, GUEST
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.gatewayservice.accesslog;
+
+/**
+ * 访问日志输出格式
+ * @author Joetao
+ * @date 2026/10/18
+ */
+public enum AccessLogFormat {
+    /**JSON文本，经logback输出**/
+    JSON,
+    /**紧凑二进制，写入内存映射的滚动段文件，离线用BinaryAccessLogReader转换为JSON**/
+    BINARY
+}
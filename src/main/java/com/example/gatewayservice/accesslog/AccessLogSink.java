@@ -0,0 +1,181 @@
+package com.example.gatewayservice.accesslog;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.serializer.SerializerFeature;
+import com.example.gatewayservice.config.AccessLogConfig;
+import com.example.gatewayservice.entity.GatewayLog;
+import com.example.gatewayservice.filter.AccessLogFilter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.util.internal.PlatformDependent;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Queue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 异步访问日志管道
+ * 请求线程只把GatewayLog放入有界无锁队列(多生产者单消费者)，由独立的消费线程批量序列化并写出；
+ * 队列积压时依次降级：丢弃请求体与响应体 -> 按比例采样 -> 队列满时直接丢弃，保证日志不拖慢代理请求
+ * 输出格式为BINARY时不经过logback，直接编码写入内存映射的段文件，段文件只由消费线程写入和关闭
+ * 队列为空时消费线程的休眠时间指数增长，有新日志时由发布方唤醒
+ * @author Joetao
+ * @date 2026/10/18
+ */
+@Component
+@Slf4j
+public class AccessLogSink {
+    /**沿用AccessLogFilter的logger，保持原有日志输出与appender配置不变**/
+    private static final Logger ACCESS_LOG = LoggerFactory.getLogger(AccessLogFilter.class);
+    private static final long MIN_IDLE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final long MAX_IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long STOP_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(5);
+
+    private final AccessLogConfig accessLogConfig;
+    private final Queue<GatewayLog> queue;
+    private final int dropBodiesSize;
+    private final int sampleSize;
+
+    private final LongAdder queued = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder bodiesDropped = new LongAdder();
+
+    private volatile boolean running;
+    /**消费线程即将休眠或正在休眠，发布方需要唤醒**/
+    private volatile boolean sleeping;
+    private Thread consumer;
+    private BinaryLogSegmentWriter binaryWriter;
+
+    public AccessLogSink(AccessLogConfig accessLogConfig, MeterRegistry meterRegistry) {
+        this.accessLogConfig = accessLogConfig;
+        int capacity = accessLogConfig.getQueueCapacity();
+        this.queue = PlatformDependent.newFixedMpscQueue(capacity);
+        this.dropBodiesSize = (int) (capacity * accessLogConfig.getDropBodiesThreshold());
+        this.sampleSize = (int) (capacity * accessLogConfig.getSampleThreshold());
+        FunctionCounter.builder("gateway.access.log.queued", queued, LongAdder::sum).register(meterRegistry);
+        FunctionCounter.builder("gateway.access.log.written", written, LongAdder::sum).register(meterRegistry);
+        FunctionCounter.builder("gateway.access.log.dropped", dropped, LongAdder::sum).register(meterRegistry);
+        FunctionCounter.builder("gateway.access.log.bodies.dropped", bodiesDropped, LongAdder::sum).register(meterRegistry);
+        Gauge.builder("gateway.access.log.backlog", queue, Queue::size).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (accessLogConfig.getFormat() == AccessLogFormat.BINARY) {
+            AccessLogConfig.BinaryLogConfig binary = accessLogConfig.getBinary();
+            binaryWriter = new BinaryLogSegmentWriter(Paths.get(binary.getDirectory()),
+                    binary.getSegmentSize().toBytes(), binary.getMaxSegments());
+        }
+        running = true;
+        consumer = new Thread(this::consume, "access-log-writer");
+        consumer.setDaemon(true);
+        consumer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (consumer != null) {
+            LockSupport.unpark(consumer);
+            consumer.join(STOP_TIMEOUT_MILLIS);
+            if (consumer.isAlive()) {
+                log.warn("访问日志写出线程未在{}ms内退出，剩余日志:{}", STOP_TIMEOUT_MILLIS, queue.size());
+            }
+        } else if (binaryWriter != null) {
+            binaryWriter.close();
+        }
+    }
+
+    /**
+     * 发布一条访问日志，不阻塞、不序列化，积压时按策略降级
+     */
+    public void publish(GatewayLog gatewayLog) {
+        int backlog = queue.size();
+        if (backlog >= sampleSize && ThreadLocalRandom.current().nextDouble() >= accessLogConfig.getSampleRate()) {
+            dropped.increment();
+            return;
+        }
+        if (backlog >= dropBodiesSize) {
+            gatewayLog.setRequestBody(null);
+            gatewayLog.setResponseData(null);
+            bodiesDropped.increment();
+        }
+        if (!queue.offer(gatewayLog)) {
+            dropped.increment();
+            return;
+        }
+        queued.increment();
+        if (sleeping) {
+            LockSupport.unpark(consumer);
+        }
+    }
+
+    private void consume() {
+        int batchSize = accessLogConfig.getBatchSize();
+        long idleParkNanos = MIN_IDLE_PARK_NANOS;
+        try {
+            while (running || !queue.isEmpty()) {
+                int count = 0;
+                int failed = 0;
+                GatewayLog gatewayLog;
+                while (count < batchSize && (gatewayLog = queue.poll()) != null) {
+                    if (!write(gatewayLog)) {
+                        failed++;
+                    }
+                    count++;
+                }
+                if (count > 0) {
+                    written.add(count - failed);
+                    dropped.add(failed);
+                    idleParkNanos = MIN_IDLE_PARK_NANOS;
+                    continue;
+                }
+                // 先标记再检查队列，与publish中先入队再检查标记配合，不会错过唤醒
+                sleeping = true;
+                if (running && queue.isEmpty()) {
+                    LockSupport.parkNanos(this, idleParkNanos);
+                    idleParkNanos = Math.min(idleParkNanos * 2, MAX_IDLE_PARK_NANOS);
+                }
+                sleeping = false;
+            }
+        } finally {
+            // 段文件在消费线程退出后才释放映射，避免写入已释放的内存
+            if (binaryWriter != null) {
+                binaryWriter.close();
+            }
+        }
+    }
+
+    /**
+     * 写出一条访问日志，超过段文件容量或写出异常时返回false
+     */
+    private boolean write(GatewayLog gatewayLog) {
+        try {
+            if (binaryWriter != null) {
+                if (!binaryWriter.write(gatewayLog)) {
+                    log.warn("访问日志超过段文件容量，已丢弃:{}", gatewayLog.getRequestId());
+                    return false;
+                }
+                return true;
+            }
+            String logInfo = JSON.toJSONString(gatewayLog, SerializerFeature.WriteMapNullValue, SerializerFeature.DisableCircularReferenceDetect, SerializerFeature.WriteDateUseDateFormat);
+            ACCESS_LOG.warn("==access== {}", logInfo);
+            return true;
+        } catch (Exception e) {
+            log.error("写出访问日志失败", e);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.gatewayservice.accesslog;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.serializer.SerializerFeature;
+import com.example.gatewayservice.entity.GatewayLog;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 将二进制访问日志段文件转换为JSON行，供离线分析
+ * 参数为段文件或段目录(按文件名顺序读取目录下全部段)，输出到标准输出，格式与JSON访问日志一致：
+ * java -cp gateway-service.jar -Dloader.main=com.example.gatewayservice.accesslog.BinaryAccessLogReader org.springframework.boot.loader.PropertiesLauncher logs/access
+ * @author Joetao
+ * @date 2026/10/18
+ */
+public class BinaryAccessLogReader {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("用法: BinaryAccessLogReader <段文件或目录>...");
+            System.exit(1);
+        }
+        PrintStream out = System.out;
+        for (String arg : args) {
+            Path path = Paths.get(arg);
+            List<Path> segments = Files.isDirectory(path) ? BinaryLogSegmentWriter.listSegments(path) : Collections.singletonList(path);
+            for (Path segment : segments) {
+                for (GatewayLog gatewayLog : read(segment)) {
+                    out.println(JSON.toJSONString(gatewayLog, SerializerFeature.WriteMapNullValue, SerializerFeature.DisableCircularReferenceDetect, SerializerFeature.WriteDateUseDateFormat));
+                }
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * 读取单个段文件中的全部日志
+     */
+    public static List<GatewayLog> read(Path segment) throws IOException {
+        List<GatewayLog> logs = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            BinaryLogCodec.Decoder decoder = new BinaryLogCodec.Decoder(buffer, new ArrayList<>());
+            GatewayLog gatewayLog;
+            while ((gatewayLog = decoder.next()) != null) {
+                logs.add(gatewayLog);
+            }
+        }
+        return logs;
+    }
+}
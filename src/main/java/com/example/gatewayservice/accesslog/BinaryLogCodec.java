@@ -0,0 +1,365 @@
+package com.example.gatewayservice.accesslog;
+
+import com.example.gatewayservice.entity.GatewayLog;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * GatewayLog的二进制编解码
+ * 段文件格式：文件头(魔数GWLG + 版本号)后紧跟若干帧，类型字节为0表示段内数据结束；
+ * 字典帧：类型1 + varint编号 + 长度前缀的UTF-8字符串，同一段内targetServer、requestMethod等重复值只写一次；
+ * 日志帧：类型2 + varint长度 + 日志体。日志体以varint位图标识存在的字段，字典字段写编号，
+ * 时间写epoch毫秒，数值写varint，其他字符串写长度前缀的UTF-8；阶段耗时写varint个数 + 若干(阶段名字典编号, 微秒)
+ * 版本2新增spanId与阶段耗时字段，仍可读取版本1的段文件
+ * @author Joetao
+ * @date 2026/10/18
+ */
+public final class BinaryLogCodec {
+    public static final int MAGIC = 0x47574C47;
+    public static final byte VERSION = 2;
+    public static final int HEADER_SIZE = 5;
+
+    static final byte FRAME_END = 0;
+    static final byte FRAME_DICT = 1;
+    static final byte FRAME_LOG = 2;
+
+    private static final int F_TARGET_SERVER = 0;
+    private static final int F_CLIENT_TYPE = 1;
+    private static final int F_REQUEST_PATH = 2;
+    private static final int F_REQUEST_METHOD = 3;
+    private static final int F_REQUEST_ID = 4;
+    private static final int F_SCHEMA = 5;
+    private static final int F_USER_ID = 6;
+    private static final int F_USERNAME = 7;
+    private static final int F_REQUEST_BODY = 8;
+    private static final int F_RESPONSE_DATA = 9;
+    private static final int F_STATUS = 10;
+    private static final int F_IP = 11;
+    private static final int F_REQUEST_TIME = 12;
+    private static final int F_RESPONSE_TIME = 13;
+    private static final int F_CLIENT_ID = 14;
+    private static final int F_SPAN_ID = 15;
+    private static final int F_STAGE_TIMES = 16;
+
+    private BinaryLogCodec() {
+    }
+
+    /**
+     * 编码器，字典按段维护，切换段时需调用reset；非线程安全，只由日志消费线程使用
+     * 编码时新加入字典的值在commit前都是临时的，下一次encode或reset时撤销，
+     * 编码结果没有写入段文件时，后续日志不会引用段内未定义的字典编号
+     */
+    public static final class Encoder {
+        private final Map<String, Integer> dictionary = new HashMap<>();
+        private final List<String> pending = new ArrayList<>();
+        private byte[] frames = new byte[4096];
+        private int framesLength;
+        private byte[] body = new byte[4096];
+        private int bodyLength;
+
+        public void reset() {
+            dictionary.clear();
+            pending.clear();
+        }
+
+        /**
+         * 上一次encode的结果已写入段文件，保留其新增的字典值
+         */
+        public void commit() {
+            pending.clear();
+        }
+
+        /**
+         * 将日志编码为字典帧(如有新值) + 日志帧，返回的数组只有前length()个字节有效
+         */
+        public byte[] encode(GatewayLog gatewayLog) {
+            rollback();
+            framesLength = 0;
+            bodyLength = 0;
+            int mask = 0;
+            mask |= bit(F_TARGET_SERVER, gatewayLog.getTargetServer());
+            mask |= bit(F_CLIENT_TYPE, gatewayLog.getClientType());
+            mask |= bit(F_REQUEST_PATH, gatewayLog.getRequestPath());
+            mask |= bit(F_REQUEST_METHOD, gatewayLog.getRequestMethod());
+            mask |= bit(F_REQUEST_ID, gatewayLog.getRequestId());
+            mask |= bit(F_SCHEMA, gatewayLog.getSchema());
+            mask |= bit(F_USER_ID, gatewayLog.getUserId());
+            mask |= bit(F_USERNAME, gatewayLog.getUsername());
+            mask |= bit(F_REQUEST_BODY, gatewayLog.getRequestBody());
+            mask |= bit(F_RESPONSE_DATA, gatewayLog.getResponseData());
+            mask |= bit(F_STATUS, gatewayLog.getStatus());
+            mask |= bit(F_IP, gatewayLog.getIp());
+            mask |= bit(F_REQUEST_TIME, gatewayLog.getRequestTime());
+            mask |= bit(F_RESPONSE_TIME, gatewayLog.getResponseTime());
+            mask |= bit(F_CLIENT_ID, gatewayLog.getClientId());
+            mask |= bit(F_SPAN_ID, gatewayLog.getSpanId());
+            mask |= bit(F_STAGE_TIMES, gatewayLog.getStageTimes());
+            writeBodyVarint(mask);
+            writeBodyVarint(zigzag(gatewayLog.getExecuteTime()));
+            writeDict(gatewayLog.getTargetServer());
+            writeDict(gatewayLog.getClientType());
+            writeString(gatewayLog.getRequestPath());
+            writeDict(gatewayLog.getRequestMethod());
+            writeString(gatewayLog.getRequestId());
+            writeDict(gatewayLog.getSchema());
+            if (gatewayLog.getUserId() != null) {
+                writeBodyVarint(zigzag(gatewayLog.getUserId()));
+            }
+            writeString(gatewayLog.getUsername());
+            writeString(gatewayLog.getRequestBody());
+            writeString(gatewayLog.getResponseData());
+            if (gatewayLog.getStatus() != null) {
+                writeBodyVarint(gatewayLog.getStatus());
+            }
+            writeString(gatewayLog.getIp());
+            if (gatewayLog.getRequestTime() != null) {
+                writeBodyVarint(gatewayLog.getRequestTime().getTime());
+            }
+            if (gatewayLog.getResponseTime() != null) {
+                writeBodyVarint(gatewayLog.getResponseTime().getTime());
+            }
+            writeDict(gatewayLog.getClientId());
+            writeString(gatewayLog.getSpanId());
+            if (gatewayLog.getStageTimes() != null) {
+                writeBodyVarint(gatewayLog.getStageTimes().size());
+                for (Map.Entry<String, Long> entry : gatewayLog.getStageTimes().entrySet()) {
+                    writeDict(entry.getKey());
+                    writeBodyVarint(entry.getValue());
+                }
+            }
+
+            ensureFrames(1 + 10 + bodyLength);
+            frames[framesLength++] = FRAME_LOG;
+            framesLength = putVarint(frames, framesLength, bodyLength);
+            System.arraycopy(body, 0, frames, framesLength, bodyLength);
+            framesLength += bodyLength;
+            return frames;
+        }
+
+        public int length() {
+            return framesLength;
+        }
+
+        private void writeDict(String value) {
+            if (value == null) {
+                return;
+            }
+            Integer id = dictionary.get(value);
+            if (id == null) {
+                id = dictionary.size();
+                dictionary.put(value, id);
+                pending.add(value);
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                ensureFrames(1 + 5 + 5 + bytes.length);
+                frames[framesLength++] = FRAME_DICT;
+                framesLength = putVarint(frames, framesLength, id);
+                framesLength = putVarint(frames, framesLength, bytes.length);
+                System.arraycopy(bytes, 0, frames, framesLength, bytes.length);
+                framesLength += bytes.length;
+            }
+            writeBodyVarint(id);
+        }
+
+        private void rollback() {
+            for (String value : pending) {
+                dictionary.remove(value);
+            }
+            pending.clear();
+        }
+
+        private void writeString(String value) {
+            if (value == null) {
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeBodyVarint(bytes.length);
+            ensureBody(bytes.length);
+            System.arraycopy(bytes, 0, body, bodyLength, bytes.length);
+            bodyLength += bytes.length;
+        }
+
+        private void writeBodyVarint(long value) {
+            ensureBody(10);
+            bodyLength = putVarint(body, bodyLength, value);
+        }
+
+        private void ensureBody(int extra) {
+            if (bodyLength + extra > body.length) {
+                body = Arrays.copyOf(body, Math.max(body.length * 2, bodyLength + extra));
+            }
+        }
+
+        private void ensureFrames(int extra) {
+            if (framesLength + extra > frames.length) {
+                frames = Arrays.copyOf(frames, Math.max(frames.length * 2, framesLength + extra));
+            }
+        }
+    }
+
+    /**
+     * 解码器，按段顺序读取帧，字典随读取过程重建
+     */
+    public static final class Decoder {
+        private final ByteBuffer buffer;
+        private final List<String> dictionary;
+
+        public Decoder(ByteBuffer buffer, List<String> dictionary) {
+            this.buffer = buffer;
+            this.dictionary = dictionary;
+            if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+                throw new IllegalArgumentException("不是访问日志段文件");
+            }
+            byte version = buffer.get();
+            if (version < 1 || version > VERSION) {
+                throw new IllegalArgumentException("不支持的段文件版本:" + version);
+            }
+        }
+
+        /**
+         * 读取下一条日志，段内数据结束时返回null
+         */
+        public GatewayLog next() {
+            while (buffer.hasRemaining()) {
+                byte type = buffer.get();
+                if (type == FRAME_END) {
+                    return null;
+                } else if (type == FRAME_DICT) {
+                    int id = (int) getVarint(buffer);
+                    String value = getString(buffer);
+                    while (dictionary.size() <= id) {
+                        dictionary.add(null);
+                    }
+                    dictionary.set(id, value);
+                } else if (type == FRAME_LOG) {
+                    int length = (int) getVarint(buffer);
+                    ByteBuffer body = buffer.slice();
+                    body.limit(length);
+                    buffer.position(buffer.position() + length);
+                    return decodeLog(body);
+                } else {
+                    throw new IllegalStateException("未知的帧类型:" + type);
+                }
+            }
+            return null;
+        }
+
+        private GatewayLog decodeLog(ByteBuffer body) {
+            GatewayLog gatewayLog = new GatewayLog();
+            int mask = (int) getVarint(body);
+            gatewayLog.setExecuteTime(unzigzag(getVarint(body)));
+            if (has(mask, F_TARGET_SERVER)) {
+                gatewayLog.setTargetServer(getDict(body));
+            }
+            if (has(mask, F_CLIENT_TYPE)) {
+                gatewayLog.setClientType(getDict(body));
+            }
+            if (has(mask, F_REQUEST_PATH)) {
+                gatewayLog.setRequestPath(getString(body));
+            }
+            if (has(mask, F_REQUEST_METHOD)) {
+                gatewayLog.setRequestMethod(getDict(body));
+            }
+            if (has(mask, F_REQUEST_ID)) {
+                gatewayLog.setRequestId(getString(body));
+            }
+            if (has(mask, F_SCHEMA)) {
+                gatewayLog.setSchema(getDict(body));
+            }
+            if (has(mask, F_USER_ID)) {
+                gatewayLog.setUserId(unzigzag(getVarint(body)));
+            }
+            if (has(mask, F_USERNAME)) {
+                gatewayLog.setUsername(getString(body));
+            }
+            if (has(mask, F_REQUEST_BODY)) {
+                gatewayLog.setRequestBody(getString(body));
+            }
+            if (has(mask, F_RESPONSE_DATA)) {
+                gatewayLog.setResponseData(getString(body));
+            }
+            if (has(mask, F_STATUS)) {
+                gatewayLog.setStatus((int) getVarint(body));
+            }
+            if (has(mask, F_IP)) {
+                gatewayLog.setIp(getString(body));
+            }
+            if (has(mask, F_REQUEST_TIME)) {
+                gatewayLog.setRequestTime(new Date(getVarint(body)));
+            }
+            if (has(mask, F_RESPONSE_TIME)) {
+                gatewayLog.setResponseTime(new Date(getVarint(body)));
+            }
+            if (has(mask, F_CLIENT_ID)) {
+                gatewayLog.setClientId(getDict(body));
+            }
+            if (has(mask, F_SPAN_ID)) {
+                gatewayLog.setSpanId(getString(body));
+            }
+            if (has(mask, F_STAGE_TIMES)) {
+                int count = (int) getVarint(body);
+                Map<String, Long> stageTimes = new LinkedHashMap<>(count * 2);
+                for (int i = 0; i < count; i++) {
+                    stageTimes.put(getDict(body), getVarint(body));
+                }
+                gatewayLog.setStageTimes(stageTimes);
+            }
+            return gatewayLog;
+        }
+
+        private String getDict(ByteBuffer body) {
+            return dictionary.get((int) getVarint(body));
+        }
+    }
+
+    private static int bit(int field, Object value) {
+        return value != null ? 1 << field : 0;
+    }
+
+    private static boolean has(int mask, int field) {
+        return (mask & (1 << field)) != 0;
+    }
+
+    private static int putVarint(byte[] target, int offset, long value) {
+        while ((value & ~0x7FL) != 0) {
+            target[offset++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        target[offset++] = (byte) value;
+        return offset;
+    }
+
+    private static long getVarint(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("varint格式错误");
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = (int) getVarint(buffer);
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
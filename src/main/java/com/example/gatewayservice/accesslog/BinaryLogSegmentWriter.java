@@ -0,0 +1,133 @@
+package com.example.gatewayservice.accesslog;
+
+import cn.hutool.core.date.DateUtil;
+import com.example.gatewayservice.entity.GatewayLog;
+import io.netty.util.internal.PlatformDependent;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 二进制访问日志的段文件写入器
+ * 每个段文件预分配固定大小并整体内存映射，写入只是内存拷贝；写满后切换到新段并清理超出保留数量的旧段
+ * 非线程安全，只由AccessLogSink的消费线程调用
+ * @author Joetao
+ * @date 2026/10/18
+ */
+@Slf4j
+public class BinaryLogSegmentWriter implements AutoCloseable {
+    static final String SEGMENT_PREFIX = "access-";
+    static final String SEGMENT_SUFFIX = ".seg";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final BinaryLogCodec.Encoder encoder = new BinaryLogCodec.Encoder();
+
+    private MappedByteBuffer segment;
+    private int sequence;
+
+    public BinaryLogSegmentWriter(Path directory, long segmentSize, int maxSegments) throws IOException {
+        // 单个MappedByteBuffer最多映射Integer.MAX_VALUE字节
+        if (segmentSize <= BinaryLogCodec.HEADER_SIZE + 1 || segmentSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("段文件大小需大于" + (BinaryLogCodec.HEADER_SIZE + 1) + "字节且小于2GB:" + segmentSize);
+        }
+        if (maxSegments < 1) {
+            throw new IllegalArgumentException("保留的段文件数量至少为1:" + maxSegments);
+        }
+        this.directory = directory;
+        this.segmentSize = (int) segmentSize;
+        this.maxSegments = maxSegments;
+        Files.createDirectories(directory);
+    }
+
+    /**
+     * 写入一条日志，超过单个段容量的日志先丢弃报文体重试，仍放不下则返回false
+     */
+    public boolean write(GatewayLog gatewayLog) throws IOException {
+        if (segment == null) {
+            rotate();
+        }
+        byte[] frames = encoder.encode(gatewayLog);
+        if (!fits(encoder.length())) {
+            rotate();
+            frames = encoder.encode(gatewayLog);
+            if (!fits(encoder.length())) {
+                gatewayLog.setRequestBody(null);
+                gatewayLog.setResponseData(null);
+                frames = encoder.encode(gatewayLog);
+                if (!fits(encoder.length())) {
+                    return false;
+                }
+            }
+        }
+        segment.put(frames, 0, encoder.length());
+        encoder.commit();
+        return true;
+    }
+
+    @Override
+    public void close() {
+        release();
+    }
+
+    /**
+     * 保留至少一个字节作为结束标记(映射区域初始为0即FRAME_END)
+     */
+    private boolean fits(int length) {
+        return segment.remaining() > length;
+    }
+
+    private void rotate() throws IOException {
+        release();
+        Path file = directory.resolve(SEGMENT_PREFIX + DateUtil.format(new Date(), "yyyyMMddHHmmssSSS")
+                + "-" + String.format("%04d", sequence++ % 10000) + SEGMENT_SUFFIX);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+        segment.putInt(BinaryLogCodec.MAGIC);
+        segment.put(BinaryLogCodec.VERSION);
+        encoder.reset();
+        log.info("访问日志切换到新的段文件:{}", file);
+        purge();
+    }
+
+    private void release() {
+        if (segment != null) {
+            segment.force();
+            PlatformDependent.freeDirectBuffer(segment);
+            segment = null;
+        }
+    }
+
+    private void purge() throws IOException {
+        List<Path> segments = listSegments(directory);
+        for (int i = 0; i < segments.size() - maxSegments; i++) {
+            Files.deleteIfExists(segments.get(i));
+        }
+    }
+
+    /**
+     * 按文件名(即创建时间)升序列出目录下的段文件
+     */
+    static List<Path> listSegments(Path directory) throws IOException {
+        List<Path> segments = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path path : stream) {
+                segments.add(path);
+            }
+        }
+        Collections.sort(segments);
+        return segments;
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.gatewayservice.accesslog;
+
+import org.springframework.core.io.buffer.DataBuffer;
+
+import java.nio.charset.Charset;
+
+/**
+ * 旁路截取报文体的前N个字节用于记录日志
+ * 只读取DataBuffer的可读区域而不移动读指针，原始缓冲区(包括Netty池化缓冲区)照常向下游传递，
+ * 同一实例只会被一个报文体流按顺序调用
+ * @author Joetao
+ * @date 2026/10/18
+ */
+public class BodyCapture {
+    private static final String TRUNCATED_SUFFIX = "...(truncated)";
+    private static final int INITIAL_CAPACITY = 256;
+
+    private final int limit;
+    private byte[] bytes;
+    private int count;
+    private boolean truncated;
+
+    public BodyCapture(int limit) {
+        this.limit = Math.max(0, limit);
+    }
+
+    public void append(DataBuffer buffer) {
+        int readable = buffer.readableByteCount();
+        int length = Math.min(readable, limit - count);
+        if (length < readable) {
+            truncated = true;
+        }
+        if (length <= 0) {
+            return;
+        }
+        ensureCapacity(count + length);
+        buffer.asByteBuffer(buffer.readPosition(), length).get(bytes, count, length);
+        count += length;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    public byte[] toByteArray() {
+        byte[] copy = new byte[count];
+        if (count > 0) {
+            System.arraycopy(bytes, 0, copy, 0, count);
+        }
+        return copy;
+    }
+
+    public String toString(Charset charset) {
+        if (count == 0) {
+            return truncated ? TRUNCATED_SUFFIX : "";
+        }
+        String content = new String(bytes, 0, count, charset);
+        return truncated ? content + TRUNCATED_SUFFIX : content;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (bytes == null) {
+            bytes = new byte[Math.min(limit, Math.max(INITIAL_CAPACITY, capacity))];
+        } else if (bytes.length < capacity) {
+            byte[] expanded = new byte[Math.min(limit, Math.max(bytes.length << 1, capacity))];
+            System.arraycopy(bytes, 0, expanded, 0, count);
+            bytes = expanded;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.gatewayservice.accesslog;
+
+/**
+ * 访问日志中请求体、响应体的记录方式
+ * @author Joetao
+ * @date 2026/10/18
+ */
+public enum BodyLogMode {
+    /**不记录访问日志**/
+    OFF,
+    /**只记录元数据，不缓存、不记录报文体**/
+    METADATA,
+    /**按采样比例记录报文体，未采中的请求按METADATA处理**/
+    SAMPLED,
+    /**只在响应状态>=400或响应慢于阈值时记录报文体**/
+    ON_ERROR,
+    /**记录全部报文体**/
+    FULL
+}
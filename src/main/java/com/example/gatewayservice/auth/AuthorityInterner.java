@@ -0,0 +1,62 @@
+package com.example.gatewayservice.auth;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 角色名称驻留表，将角色名映射为连续的整数编号，资源所需角色与token拥有的角色都以BitSet表示，
+ * 鉴权时只需一次按位与即可判断是否有交集
+ * 编号只增不减，generation()变化说明有新角色加入，之前计算的token角色集合需要重新计算
+ * @author Joetao
+ * @date 2026/10/18
+ */
+@Component
+public class AuthorityInterner {
+    private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+
+    /**
+     * 获取角色编号，不存在时分配新编号
+     */
+    public int intern(String authority) {
+        Integer id = ids.get(authority);
+        if (id != null) {
+            return id;
+        }
+        synchronized (ids) {
+            return ids.computeIfAbsent(authority, k -> ids.size());
+        }
+    }
+
+    /**
+     * 资源所需角色集合，未出现过的角色会分配新编号
+     */
+    public BitSet internAll(Collection<String> authorities) {
+        BitSet bits = new BitSet();
+        for (String authority : authorities) {
+            bits.set(intern(authority));
+        }
+        return bits;
+    }
+
+    /**
+     * token拥有的角色集合，任何资源都未要求的角色不会命中，直接忽略
+     */
+    public BitSet lookupAll(Collection<? extends GrantedAuthority> authorities) {
+        BitSet bits = new BitSet();
+        for (GrantedAuthority authority : authorities) {
+            Integer id = ids.get(authority.getAuthority());
+            if (id != null) {
+                bits.set(id);
+            }
+        }
+        return bits;
+    }
+
+    public int generation() {
+        return ids.size();
+    }
+}
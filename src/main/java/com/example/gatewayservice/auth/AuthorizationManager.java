@@ -1,29 +1,26 @@
 package com.example.gatewayservice.auth;
 
-import cn.hutool.core.convert.Convert;
 import com.example.gatewayservice.constant.AuthConstant;
-import com.example.gatewayservice.constant.RedisConstant;
+import com.example.gatewayservice.entity.GatewayPrincipal;
+import com.example.gatewayservice.trace.Stage;
+import com.example.gatewayservice.trace.StageTimings;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
-import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.security.authorization.AuthorizationDecision;
 import org.springframework.security.authorization.ReactiveAuthorizationManager;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.oauth2.common.OAuth2AccessToken;
 import org.springframework.security.oauth2.provider.OAuth2Authentication;
-import org.springframework.security.oauth2.provider.token.TokenStore;
 import org.springframework.security.web.server.authorization.AuthorizationContext;
 import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
-import java.net.URI;
-import java.util.List;
-import java.util.stream.Collectors;
+import java.util.BitSet;
 
 /**
  * 鉴权管理器，用于判断是否有资源的访问权限
@@ -35,18 +32,20 @@ import java.util.stream.Collectors;
 @AllArgsConstructor
 public class AuthorizationManager implements ReactiveAuthorizationManager<AuthorizationContext> {
 
-    private final RedisTemplate<String,Object> redisTemplate;
-    private final TokenStore redisTokenStore;
+    private final ResourceRolesRegistry resourceRolesRegistry;
+    private final AuthorityInterner authorityInterner;
+    private final TokenAuthenticationCache tokenAuthenticationCache;
 
 
     @Override
     public Mono<AuthorizationDecision> check(Mono<Authentication> mono, AuthorizationContext authorizationContext) {
+        ServerWebExchange exchange = authorizationContext.getExchange();
         // 对应跨域的预检请求直接放行
-        if (authorizationContext.getExchange().getRequest().getMethod() == HttpMethod.OPTIONS) {
+        if (exchange.getRequest().getMethod() == HttpMethod.OPTIONS) {
             return Mono.just(new AuthorizationDecision(true));
         }
 
-        String authorizationToken = authorizationContext.getExchange().getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        String authorizationToken = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
         log.debug("当前请求头Authorization中的值:{}",authorizationToken);
         if (StringUtils.isBlank(authorizationToken)) {
             log.warn("当前请求头Authorization中的值不存在");
@@ -54,31 +53,50 @@ public class AuthorizationManager implements ReactiveAuthorizationManager<Author
         }
 
         String token = authorizationToken.replace(OAuth2AccessToken.BEARER_TYPE + " ", "");
-        OAuth2Authentication oAuth2Authentication = redisTokenStore.readAuthentication(token);
-        String clientId = oAuth2Authentication.getOAuth2Request().getClientId();
-        ServerHttpResponse response = authorizationContext.getExchange().getResponse();
-        response.getHeaders().set("client_id", clientId);
-        //通过客户端方式访问，则直接放行，不进行权限校验，由服务自身去校验
-        if (oAuth2Authentication.isClientOnly()) {
-            response.getHeaders().set("client_type", "client");
-            return Mono.just(new AuthorizationDecision(true));
-        } else {
-            response.getHeaders().set("client_type", "password");
-        }
+        ServerHttpResponse response = exchange.getResponse();
+        String path = exchange.getRequest().getURI().getPath();
+        //优先读取本地缓存，Redis访问全部为非阻塞调用，不占用事件循环线程
+        return StageTimings.timed(Stage.AUTHORIZATION, tokenAuthenticationCache.readAuthentication(token))
+                .flatMap(cachedAuthentication -> {
+                    OAuth2Authentication oAuth2Authentication = cachedAuthentication.getAuthentication();
+                    String clientId = oAuth2Authentication.getOAuth2Request().getClientId();
+                    response.getHeaders().set("client_id", clientId);
+                    //通过客户端方式访问，则直接放行，不进行权限校验，由服务自身去校验
+                    if (oAuth2Authentication.isClientOnly()) {
+                        response.getHeaders().set("client_type", "client");
+                        return mono.doOnNext(authentication -> publishPrincipal(exchange, authentication))
+                                .thenReturn(new AuthorizationDecision(true));
+                    }
+                    response.getHeaders().set("client_type", "password");
+                    return checkRoles(mono, exchange, path, cachedAuthentication);
+                })
+                .switchIfEmpty(Mono.fromSupplier(() -> {
+                    log.warn("token在Redis中不存在或已失效");
+                    return new AuthorizationDecision(false);
+                }));
+    }
 
-        //从Redis中获取当前路径可访问角色列表
-        URI uri = authorizationContext.getExchange().getRequest().getURI();
-        Object obj = redisTemplate.opsForHash().get(RedisConstant.RESOURCE_ROLES_MAP, uri.getPath());
-        List<String> authorities = Convert.toList(String.class,obj);
-        authorities = authorities.stream().map(i -> i = AuthConstant.AUTHORITY_PREFIX + i).collect(Collectors.toList());
-        //认证通过且角色匹配的用户可访问当前路径
+    /**
+     * 从本地资源角色索引中获取当前路径可访问角色集合，认证通过且角色有交集的用户可访问当前路径
+     * 角色集合均为按编号的BitSet，token的角色集合随本地缓存复用，判断只需一次按位与
+     */
+    private Mono<AuthorizationDecision> checkRoles(Mono<Authentication> mono, ServerWebExchange exchange, String path,
+                                                   CachedAuthentication cachedAuthentication) {
+        BitSet authorities = resourceRolesRegistry.getAuthorities(path);
         return mono
                 .filter(Authentication::isAuthenticated)
-                .flatMapIterable(Authentication::getAuthorities)
-                .map(GrantedAuthority::getAuthority)
-                .any(authorities::contains)
+                .doOnNext(authentication -> publishPrincipal(exchange, authentication))
+                .map(authentication -> authorities.intersects(cachedAuthentication.grantedAuthorities(authentication, authorityInterner)))
                 .map(AuthorizationDecision::new)
                 .defaultIfEmpty(new AuthorizationDecision(false));
+    }
 
+    /**
+     * 将JWT转换时解析出的用户信息放入exchange属性，供后续过滤器与访问日志直接使用
+     */
+    private void publishPrincipal(ServerWebExchange exchange, Authentication authentication) {
+        if (authentication.getDetails() instanceof GatewayPrincipal) {
+            exchange.getAttributes().put(AuthConstant.GATEWAY_PRINCIPAL_ATTR, authentication.getDetails());
+        }
     }
 }
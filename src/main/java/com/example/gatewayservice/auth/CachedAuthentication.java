@@ -0,0 +1,54 @@
+package com.example.gatewayservice.auth;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+
+import java.time.Duration;
+import java.util.BitSet;
+
+/**
+ * 本地缓存的token认证信息，同时缓存按AuthorityInterner编号计算出的角色集合
+ * @author Joetao
+ * @date 2026/10/18
+ */
+public class CachedAuthentication {
+    private final OAuth2Authentication authentication;
+    private final Duration ttl;
+    private volatile GrantedBits grantedBits;
+
+    public CachedAuthentication(OAuth2Authentication authentication, Duration ttl) {
+        this.authentication = authentication;
+        this.ttl = ttl;
+    }
+
+    public OAuth2Authentication getAuthentication() {
+        return authentication;
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    /**
+     * 同一token只在首次访问或有新角色驻留后计算一次角色集合
+     */
+    public BitSet grantedAuthorities(Authentication jwtAuthentication, AuthorityInterner authorityInterner) {
+        GrantedBits current = grantedBits;
+        int generation = authorityInterner.generation();
+        if (current == null || current.generation != generation) {
+            current = new GrantedBits(authorityInterner.lookupAll(jwtAuthentication.getAuthorities()), generation);
+            grantedBits = current;
+        }
+        return current.bits;
+    }
+
+    private static final class GrantedBits {
+        private final BitSet bits;
+        private final int generation;
+
+        private GrantedBits(BitSet bits, int generation) {
+            this.bits = bits;
+            this.generation = generation;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.gatewayservice.auth;
+
+import cn.hutool.crypto.digest.DigestUtil;
+import com.example.gatewayservice.config.JwkConfig;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import reactor.core.publisher.Mono;
+
+/**
+ * 缓存已验签的JWT，同一token再次请求时跳过签名校验
+ * 缓存以token的SHA-256摘要为key，存活时间不超过token的剩余有效期，校验失败的token不缓存；
+ * JWK变化时由JwkManager回调清空缓存
+ * @author Joetao
+ * @date 2026/10/18
+ */
+public class CachingReactiveJwtDecoder implements ReactiveJwtDecoder {
+    private final ReactiveJwtDecoder delegate;
+    private final boolean enabled;
+    private final AsyncCache<String, Jwt> cache;
+
+    public CachingReactiveJwtDecoder(ReactiveJwtDecoder delegate, JwkConfig.VerifiedCacheConfig cacheConfig,
+                                     MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.enabled = cacheConfig.isEnabled();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(cacheConfig.getMaximumSize())
+                .expireAfter(new JwtExpiry<String, Jwt>(cacheConfig.getMaxTtl(), Jwt::getExpiresAt))
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "gateway.jwt");
+    }
+
+    /**
+     * 校验token，本地未命中时委托给delegate，并发的相同token只会校验一次
+     */
+    @Override
+    public Mono<Jwt> decode(String token) throws JwtException {
+        if (!enabled) {
+            return delegate.decode(token);
+        }
+        return Mono.fromFuture(cache.get(DigestUtil.sha256Hex(token), (key, executor) -> delegate.decode(token).toFuture()));
+    }
+
+    public void invalidateAll() {
+        cache.synchronous().invalidateAll();
+    }
+}
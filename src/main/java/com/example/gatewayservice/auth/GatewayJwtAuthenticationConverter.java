@@ -0,0 +1,96 @@
+package com.example.gatewayservice.auth;
+
+import cn.hutool.crypto.digest.DigestUtil;
+import com.example.gatewayservice.config.TokenCacheConfig;
+import com.example.gatewayservice.entity.GatewayPrincipal;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import reactor.core.publisher.Mono;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * 将已校验的JWT转换为认证信息，并一次性解析出GatewayPrincipal放入details
+ * 同一token解析出的GatewayPrincipal与角色在有效期内复用，缓存以token的SHA-256摘要为key；
+ * 认证信息可变，每次请求重新创建，后续过滤器与访问日志直接读取details，不再重复解析JWT
+ * @author Joetao
+ * @date 2026/10/18
+ */
+public class GatewayJwtAuthenticationConverter implements Converter<Jwt, Mono<AbstractAuthenticationToken>> {
+    private static final String CLAIM_USER_ID = "id";
+    private static final String CLAIM_USERNAME = "user_name";
+    private static final String CLAIM_CLIENT_ID = "client_id";
+
+    private final Converter<Jwt, Collection<GrantedAuthority>> jwtGrantedAuthoritiesConverter;
+    private final Cache<String, ParsedJwt> cache;
+
+    public GatewayJwtAuthenticationConverter(Converter<Jwt, Collection<GrantedAuthority>> jwtGrantedAuthoritiesConverter,
+                                             TokenCacheConfig tokenCacheConfig) {
+        this.jwtGrantedAuthoritiesConverter = jwtGrantedAuthoritiesConverter;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(tokenCacheConfig.getMaximumSize())
+                .expireAfter(new JwtExpiry<String, ParsedJwt>(tokenCacheConfig.getMaxTtl(), parsed -> parsed.expiresAt))
+                .build();
+    }
+
+    @Override
+    public Mono<AbstractAuthenticationToken> convert(Jwt jwt) {
+        ParsedJwt parsed = cache.get(DigestUtil.sha256Hex(jwt.getTokenValue()), key -> parse(jwt));
+        JwtAuthenticationToken authentication = new JwtAuthenticationToken(jwt, parsed.authorities);
+        authentication.setDetails(parsed.principal);
+        return Mono.just(authentication);
+    }
+
+    private ParsedJwt parse(Jwt jwt) {
+        Collection<GrantedAuthority> authorities = jwtGrantedAuthoritiesConverter.convert(jwt);
+        return new ParsedJwt(toPrincipal(jwt),
+                Collections.unmodifiableList(authorities == null ? new ArrayList<>() : new ArrayList<>(authorities)),
+                jwt.getExpiresAt());
+    }
+
+    private static GatewayPrincipal toPrincipal(Jwt jwt) {
+        Object id = jwt.getClaims().get(CLAIM_USER_ID);
+        Long userId = id instanceof Number ? ((Number) id).longValue() : 0L;
+        String username = jwt.getClaimAsString(CLAIM_USERNAME);
+        String payload = decodePayload(jwt.getTokenValue());
+        try {
+            return new GatewayPrincipal(userId, username == null ? "" : username,
+                    jwt.getClaimAsString(CLAIM_CLIENT_ID), payload, URLEncoder.encode(payload, "UTF-8"));
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String decodePayload(String token) {
+        int start = token.indexOf('.') + 1;
+        int end = token.indexOf('.', start);
+        return new String(Base64.getUrlDecoder().decode(token.substring(start, end)), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 同一token解析出的不可变结果，不持有token原文
+     */
+    private static final class ParsedJwt {
+        private final GatewayPrincipal principal;
+        private final Collection<GrantedAuthority> authorities;
+        private final Instant expiresAt;
+
+        private ParsedJwt(GatewayPrincipal principal, Collection<GrantedAuthority> authorities, Instant expiresAt) {
+            this.principal = principal;
+            this.authorities = authorities;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
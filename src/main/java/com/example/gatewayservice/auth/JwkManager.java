@@ -0,0 +1,198 @@
+package com.example.gatewayservice.auth;
+
+import com.example.gatewayservice.config.JwkConfig;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jwt.SignedJWT;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.boot.autoconfigure.security.oauth2.resource.OAuth2ResourceServerProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 本地缓存的JWK
+ * 启动时预先获取jwk-set-uri的公钥，首个请求不再等待；之后按间隔在后台刷新，失败时指数退避重试；
+ * 每次获取成功都保存本地副本，认证服务不可用时从本地副本启动；遇到未知kid时限频触发一次刷新以适应密钥轮换
+ * @author Joetao
+ * @date 2026/10/18
+ */
+@Component
+@Slf4j
+public class JwkManager {
+    private final JwkConfig jwkConfig;
+    private final String jwkSetUri;
+    private final WebClient webClient;
+    private final Counter refreshFailures;
+    private final List<Runnable> keySetListeners = new CopyOnWriteArrayList<>();
+    private final AtomicLong lastUnknownKeyRefresh;
+
+    private volatile JWKSet jwkSet = new JWKSet();
+    private volatile Mono<Void> unknownKeyRefresh = Mono.empty();
+    private Disposable refreshSubscription;
+
+    public JwkManager(JwkConfig jwkConfig, OAuth2ResourceServerProperties resourceServerProperties, MeterRegistry meterRegistry) {
+        this.jwkConfig = jwkConfig;
+        this.jwkSetUri = resourceServerProperties.getJwt().getJwkSetUri();
+        this.webClient = WebClient.create();
+        this.lastUnknownKeyRefresh = new AtomicLong(System.nanoTime() - jwkConfig.getUnknownKeyRefreshInterval().toNanos());
+        Gauge.builder("gateway.jwk.keys", this, manager -> manager.jwkSet.getKeys().size()).register(meterRegistry);
+        this.refreshFailures = Counter.builder("gateway.jwk.refresh.failures").register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        try {
+            refresh().block(jwkConfig.getInitialLoadTimeout());
+        } catch (Exception e) {
+            log.error("首次获取JWK失败，尝试使用本地副本", e);
+            loadLocalCopy();
+        }
+        Duration interval = jwkConfig.getRefreshInterval();
+        // 启动时没有可用的公钥则立即开始重试
+        refreshSubscription = Flux.interval(jwkSet.getKeys().isEmpty() ? Duration.ZERO : interval, interval)
+                .onBackpressureDrop()
+                .concatMap(tick -> refresh()
+                        .doOnError(e -> {
+                            refreshFailures.increment();
+                            log.warn("刷新JWK失败:{}", e.getMessage());
+                        })
+                        .retryWhen(Retry.backoff(Long.MAX_VALUE, jwkConfig.getRetryMinBackoff()).maxBackoff(jwkConfig.getRetryMaxBackoff())), 1)
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (refreshSubscription != null) {
+            refreshSubscription.dispose();
+        }
+    }
+
+    /**
+     * 按JWT头中的kid、算法等选择验签公钥，作为NimbusReactiveJwtDecoder的JWK来源
+     */
+    public Flux<JWK> select(SignedJWT jwt) {
+        JWKSelector selector = new JWKSelector(JWKMatcher.forJWSHeader(jwt.getHeader()));
+        List<JWK> keys = selector.select(jwkSet);
+        if (!keys.isEmpty()) {
+            return Flux.fromIterable(keys);
+        }
+        return refreshForUnknownKey().thenMany(Flux.defer(() -> Flux.fromIterable(selector.select(jwkSet))));
+    }
+
+    /**
+     * 公钥变化时回调，用于清除按旧公钥验签的缓存
+     */
+    public void addKeySetListener(Runnable listener) {
+        keySetListeners.add(listener);
+    }
+
+    /**
+     * 从jwk-set-uri获取公钥，成功后替换当前公钥并保存本地副本
+     */
+    public Mono<Void> refresh() {
+        return webClient.get()
+                .uri(jwkSetUri)
+                .retrieve()
+                .bodyToMono(String.class)
+                .timeout(jwkConfig.getFetchTimeout())
+                .flatMap(json -> Mono.fromCallable(() -> JWKSet.parse(json))
+                        .flatMap(fetched -> update(fetched, "jwk-set-uri")
+                                ? saveLocalCopy(json)
+                                : Mono.empty()));
+    }
+
+    /**
+     * 同一时间窗口内只触发一次刷新，并发请求共用同一次刷新的结果
+     */
+    private Mono<Void> refreshForUnknownKey() {
+        long now = System.nanoTime();
+        long last = lastUnknownKeyRefresh.get();
+        if (now - last >= jwkConfig.getUnknownKeyRefreshInterval().toNanos() && lastUnknownKeyRefresh.compareAndSet(last, now)) {
+            log.info("JWT的kid不在本地公钥中，重新获取JWK");
+            unknownKeyRefresh = refresh()
+                    .onErrorResume(e -> {
+                        refreshFailures.increment();
+                        log.warn("刷新JWK失败:{}", e.getMessage());
+                        return Mono.empty();
+                    })
+                    .cache();
+        }
+        return unknownKeyRefresh;
+    }
+
+    /**
+     * 公钥有变化时替换并通知监听者，返回是否有变化
+     */
+    private synchronized boolean update(JWKSet fetched, String source) {
+        if (fetched.getKeys().isEmpty()) {
+            throw new IllegalStateException("JWK为空:" + source);
+        }
+        JWKSet current = jwkSet;
+        if (current.toString().equals(fetched.toString())) {
+            return false;
+        }
+        jwkSet = fetched;
+        log.info("JWK已更新，来源:{}，公钥数:{}", source, fetched.getKeys().size());
+        if (!current.getKeys().isEmpty()) {
+            keySetListeners.forEach(Runnable::run);
+        }
+        return true;
+    }
+
+    private Mono<Void> saveLocalCopy(String json) {
+        if (StringUtils.isBlank(jwkConfig.getLocalCopy())) {
+            return Mono.empty();
+        }
+        return Mono.<Void>fromRunnable(() -> {
+            try {
+                Path path = Paths.get(jwkConfig.getLocalCopy()).toAbsolutePath();
+                Files.createDirectories(path.getParent());
+                Path temp = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+                Files.write(temp, json.getBytes(StandardCharsets.UTF_8));
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                log.warn("保存JWK本地副本失败:{}", e.getMessage());
+            }
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private void loadLocalCopy() {
+        if (StringUtils.isBlank(jwkConfig.getLocalCopy())) {
+            return;
+        }
+        Path path = Paths.get(jwkConfig.getLocalCopy());
+        if (!Files.exists(path)) {
+            log.warn("JWK本地副本不存在:{}", path.toAbsolutePath());
+            return;
+        }
+        try {
+            update(JWKSet.load(path.toFile()), path.toAbsolutePath().toString());
+        } catch (Exception e) {
+            log.error("读取JWK本地副本失败:{}", path.toAbsolutePath(), e);
+        }
+    }
+}
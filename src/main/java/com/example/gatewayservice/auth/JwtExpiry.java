@@ -0,0 +1,42 @@
+package com.example.gatewayservice.auth;
+
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.Function;
+
+/**
+ * 按JWT过期时间失效的缓存过期策略
+ * 缓存项过期时间取token剩余有效期与配置上限中的较小值，token未设置exp时取配置上限
+ * @author Joetao
+ * @date 2026/10/18
+ */
+class JwtExpiry<K, V> implements Expiry<K, V> {
+    private final long maxTtlNanos;
+    private final Function<V, Instant> expiresAt;
+
+    JwtExpiry(Duration maxTtl, Function<V, Instant> expiresAt) {
+        this.maxTtlNanos = maxTtl.toNanos();
+        this.expiresAt = expiresAt;
+    }
+
+    @Override
+    public long expireAfterCreate(K key, V value, long currentTime) {
+        Instant expires = expiresAt.apply(value);
+        if (expires == null) {
+            return maxTtlNanos;
+        }
+        return Math.max(0, Math.min(maxTtlNanos, Duration.between(Instant.now(), expires).toNanos()));
+    }
+
+    @Override
+    public long expireAfterUpdate(K key, V value, long currentTime, long currentDuration) {
+        return currentDuration;
+    }
+
+    @Override
+    public long expireAfterRead(K key, V value, long currentTime, long currentDuration) {
+        return currentDuration;
+    }
+}
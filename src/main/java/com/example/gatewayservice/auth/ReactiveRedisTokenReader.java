@@ -0,0 +1,40 @@
+package com.example.gatewayservice.auth;
+
+import com.example.gatewayservice.constant.RedisConstant;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * 响应式读取RedisTokenStore中保存的认证信息，避免在Netty事件循环线程上阻塞等待Redis
+ * @author Joetao
+ * @date 2026/10/18
+ */
+@Component
+public class ReactiveRedisTokenReader {
+    private final ReactiveRedisTemplate<String, Object> tokenRedisTemplate;
+
+    public ReactiveRedisTokenReader(@Qualifier("reactiveTokenRedisTemplate") ReactiveRedisTemplate<String, Object> tokenRedisTemplate) {
+        this.tokenRedisTemplate = tokenRedisTemplate;
+    }
+
+    /**
+     * 等价于RedisTokenStore.readAuthentication(token)，token不存在时返回空
+     */
+    public Mono<OAuth2Authentication> readAuthentication(String token) {
+        return tokenRedisTemplate.opsForValue()
+                .get(RedisConstant.TOKEN_AUTH_PREFIX + token)
+                .cast(OAuth2Authentication.class);
+    }
+
+    /**
+     * token在Redis中的剩余有效期，未设置过期时间返回Duration.ZERO，token不存在时返回空
+     */
+    public Mono<Duration> getExpire(String token) {
+        return tokenRedisTemplate.getExpire(RedisConstant.TOKEN_AUTH_PREFIX + token);
+    }
+}
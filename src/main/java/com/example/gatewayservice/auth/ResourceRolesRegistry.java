@@ -0,0 +1,151 @@
+package com.example.gatewayservice.auth;
+
+import cn.hutool.core.convert.Convert;
+import cn.hutool.crypto.digest.DigestUtil;
+import com.example.gatewayservice.common.PathPatternIndex;
+import com.example.gatewayservice.config.ResourceRolesConfig;
+import com.example.gatewayservice.constant.AuthConstant;
+import com.example.gatewayservice.constant.RedisConstant;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.ReactiveSubscription;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * 资源角色映射的本地索引
+ * 启动时从Redis加载AUTH:RESOURCE_ROLES_MAP并编译为PathPatternIndex，请求鉴权时只查本地索引，不再访问Redis；
+ * 通过轮询版本号或Redis键空间通知感知映射变更，后台重建索引后原子替换；
+ * 未设置版本号时每次轮询都要读取映射，按资源数与内容摘要比较，内容未变化时不重建索引
+ * @author Joetao
+ * @date 2026/10/18
+ */
+@Component
+@Slf4j
+public class ResourceRolesRegistry {
+    private static final String NO_VERSION = "";
+    private static final BitSet EMPTY = new BitSet();
+
+    private final ReactiveRedisTemplate<String, Object> reactiveRedisTemplate;
+    private final ReactiveStringRedisTemplate reactiveStringRedisTemplate;
+    private final ResourceRolesConfig resourceRolesConfig;
+    private final AuthorityInterner authorityInterner;
+
+    private volatile PathPatternIndex<BitSet> index = PathPatternIndex.empty();
+    private volatile String loadedVersion;
+    private volatile String loadedFingerprint;
+    private Disposable refreshSubscription;
+
+    public ResourceRolesRegistry(ReactiveRedisTemplate<String, Object> reactiveRedisTemplate,
+                                 ReactiveStringRedisTemplate reactiveStringRedisTemplate,
+                                 ResourceRolesConfig resourceRolesConfig,
+                                 AuthorityInterner authorityInterner) {
+        this.reactiveRedisTemplate = reactiveRedisTemplate;
+        this.reactiveStringRedisTemplate = reactiveStringRedisTemplate;
+        this.resourceRolesConfig = resourceRolesConfig;
+        this.authorityInterner = authorityInterner;
+    }
+
+    @PostConstruct
+    public void start() {
+        try {
+            reload().block(resourceRolesConfig.getInitialLoadTimeout());
+        } catch (Exception e) {
+            log.error("首次加载资源角色映射失败，将在后台重试", e);
+        }
+        Duration interval = resourceRolesConfig.getRefreshInterval();
+        Flux<String> versionChanges = Flux.interval(interval, interval)
+                .concatMap(tick -> currentVersion()
+                        .filter(version -> NO_VERSION.equals(version) || !Objects.equals(version, loadedVersion)));
+        Flux<String> keyspaceChanges = resourceRolesConfig.isKeyspaceNotification()
+                ? reactiveStringRedisTemplate.listenToPattern("__keyspace@*__:" + RedisConstant.RESOURCE_ROLES_MAP)
+                .map(ReactiveSubscription.Message::getMessage)
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1)).maxBackoff(Duration.ofMinutes(1)))
+                : Flux.empty();
+        refreshSubscription = Flux.merge(versionChanges, keyspaceChanges)
+                .onBackpressureLatest()
+                .concatMap(change -> reload()
+                        .onErrorResume(e -> {
+                            log.error("重新加载资源角色映射失败", e);
+                            return Mono.empty();
+                        }), 1)
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (refreshSubscription != null) {
+            refreshSubscription.dispose();
+        }
+    }
+
+    /**
+     * 获取路径可访问的角色集合(按ROLE_前缀角色名编号)，支持/us/users/{id}等模式路径，未配置时返回空集合
+     */
+    public BitSet getAuthorities(String path) {
+        BitSet authorities = index.match(path);
+        return authorities != null ? authorities : EMPTY;
+    }
+
+    /**
+     * 先读取版本号再全量加载映射，避免加载期间发生的变更被遗漏
+     */
+    public Mono<Void> reload() {
+        return currentVersion()
+                .flatMap(version -> resourceEntries()
+                        .collectMap(entry -> String.valueOf(entry.getKey()), entry -> Convert.toList(String.class, entry.getValue()))
+                        .doOnNext(resources -> apply(version, resources)))
+                .then();
+    }
+
+    protected Mono<String> currentVersion() {
+        return reactiveStringRedisTemplate.opsForValue().get(RedisConstant.RESOURCE_ROLES_VERSION)
+                .defaultIfEmpty(NO_VERSION);
+    }
+
+    protected Flux<Map.Entry<Object, Object>> resourceEntries() {
+        return reactiveRedisTemplate.opsForHash().entries(RedisConstant.RESOURCE_ROLES_MAP);
+    }
+
+    private void apply(String version, Map<String, List<String>> resources) {
+        String fingerprint = fingerprint(resources);
+        if (Objects.equals(version, loadedVersion) && fingerprint.equals(loadedFingerprint)) {
+            log.debug("资源角色映射未变化，版本:{}，资源数:{}", version, resources.size());
+            return;
+        }
+        Map<String, BitSet> authorities = new HashMap<>(resources.size() * 2);
+        resources.forEach((path, roles) -> authorities.put(path, toAuthorities(roles)));
+        index = PathPatternIndex.compile(authorities);
+        loadedVersion = version;
+        loadedFingerprint = fingerprint;
+        log.info("资源角色映射已加载，版本:{}，资源数:{}", version, resources.size());
+    }
+
+    /**
+     * 映射内容的摘要，按资源路径排序后计算，与Redis返回的顺序无关
+     */
+    private static String fingerprint(Map<String, List<String>> resources) {
+        return resources.size() + ":" + DigestUtil.sha256Hex(new TreeMap<>(resources).toString());
+    }
+
+    private BitSet toAuthorities(List<String> roles) {
+        return authorityInterner.internAll(roles.stream()
+                .map(i -> AuthConstant.AUTHORITY_PREFIX + i)
+                .collect(Collectors.toList()));
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.gatewayservice.auth;
+
+import cn.hutool.crypto.digest.DigestUtil;
+import com.example.gatewayservice.config.TokenCacheConfig;
+import com.example.gatewayservice.constant.RedisConstant;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+
+/**
+ * token认证信息的本地近端缓存
+ * 缓存以token的SHA-256摘要为key，存活时间不超过token在Redis中的剩余有效期；
+ * token注销时通过Redis频道广播摘要，各网关节点收到后立即失效本地缓存
+ * @author Joetao
+ * @date 2026/10/18
+ */
+@Component
+@Slf4j
+public class TokenAuthenticationCache {
+    private final ReactiveRedisTokenReader redisTokenReader;
+    private final ReactiveStringRedisTemplate reactiveStringRedisTemplate;
+    private final TokenCacheConfig tokenCacheConfig;
+    private final AsyncCache<String, CachedAuthentication> cache;
+    private Disposable revokeSubscription;
+
+    public TokenAuthenticationCache(ReactiveRedisTokenReader redisTokenReader,
+                                    ReactiveStringRedisTemplate reactiveStringRedisTemplate,
+                                    TokenCacheConfig tokenCacheConfig,
+                                    MeterRegistry meterRegistry) {
+        this.redisTokenReader = redisTokenReader;
+        this.reactiveStringRedisTemplate = reactiveStringRedisTemplate;
+        this.tokenCacheConfig = tokenCacheConfig;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(tokenCacheConfig.getMaximumSize())
+                .expireAfter(new TokenExpiry(tokenCacheConfig.getMaxTtl()))
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "gateway.token");
+    }
+
+    @PostConstruct
+    public void subscribeRevoke() {
+        revokeSubscription = reactiveStringRedisTemplate.listenToChannel(RedisConstant.TOKEN_REVOKE_CHANNEL)
+                .doOnNext(message -> {
+                    log.debug("收到token注销广播:{}", message.getMessage());
+                    cache.synchronous().invalidate(message.getMessage());
+                })
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1)).maxBackoff(Duration.ofMinutes(1)))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void unsubscribeRevoke() {
+        if (revokeSubscription != null) {
+            revokeSubscription.dispose();
+        }
+    }
+
+    /**
+     * 读取token对应的认证信息，本地未命中时从Redis加载，并发的相同token只会加载一次
+     */
+    public Mono<CachedAuthentication> readAuthentication(String token) {
+        if (!tokenCacheConfig.isEnabled()) {
+            return load(token);
+        }
+        return Mono.fromFuture(cache.get(digest(token), (key, executor) -> load(token).toFuture()));
+    }
+
+    /**
+     * 注销token：失效本地缓存并通知其他网关节点
+     */
+    public Mono<Long> revoke(String token) {
+        String digest = digest(token);
+        cache.synchronous().invalidate(digest);
+        return reactiveStringRedisTemplate.convertAndSend(RedisConstant.TOKEN_REVOKE_CHANNEL, digest);
+    }
+
+    private Mono<CachedAuthentication> load(String token) {
+        return Mono.zip(redisTokenReader.readAuthentication(token),
+                redisTokenReader.getExpire(token).defaultIfEmpty(Duration.ZERO),
+                CachedAuthentication::new);
+    }
+
+    private static String digest(String token) {
+        return DigestUtil.sha256Hex(token);
+    }
+
+    /**
+     * 缓存项过期时间取token剩余有效期与配置上限中的较小值，Redis中未设置过期时间时取配置上限
+     */
+    private static class TokenExpiry implements Expiry<String, CachedAuthentication> {
+        private final long maxTtlNanos;
+
+        TokenExpiry(Duration maxTtl) {
+            this.maxTtlNanos = maxTtl.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(String key, CachedAuthentication value, long currentTime) {
+            if (value.getTtl().isZero() || value.getTtl().isNegative()) {
+                return maxTtlNanos;
+            }
+            return Math.min(maxTtlNanos, value.getTtl().toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CachedAuthentication value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String key, CachedAuthentication value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.gatewayservice.auth;
+
+import com.example.gatewayservice.common.PathPatternIndex;
+import com.example.gatewayservice.config.IgnoreUrlsConfig;
+import com.example.gatewayservice.constant.AuthConstant;
+import com.example.gatewayservice.trace.Stage;
+import com.example.gatewayservice.trace.StageTimings;
+import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatcher;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 网关白名单匹配器
+ * 启动时把secure.ignore.urls编译为PathPatternIndex，一次查找即可判断是否命中；
+ * 匹配语义与AntPathMatcher一致，不含**的模式区分路径末尾的/，如/actuator/*不匹配/actuator/health/；
+ * 结果记录在exchange属性中，IgnoreUrlsRemoveJwtFilter与安全链共用，每个请求只匹配一次
+ * @author Joetao
+ * @date 2026/10/18
+ */
+@Component
+public class WhitelistMatcher implements ServerWebExchangeMatcher {
+    private static final Mono<MatchResult> MATCH = MatchResult.match();
+    private static final Mono<MatchResult> NOT_MATCH = MatchResult.notMatch();
+
+    private final PathPatternIndex<Boolean> index;
+
+    public WhitelistMatcher(IgnoreUrlsConfig ignoreUrlsConfig) {
+        List<String> urls = ignoreUrlsConfig.getUrls() != null ? ignoreUrlsConfig.getUrls() : Collections.emptyList();
+        Map<String, Boolean> patterns = new HashMap<>(urls.size() * 2);
+        for (String url : urls) {
+            patterns.put(url, Boolean.TRUE);
+        }
+        this.index = PathPatternIndex.compile(patterns);
+    }
+
+    /**
+     * 判断请求是否命中白名单，同一请求只匹配一次
+     */
+    public boolean isWhitelisted(ServerWebExchange exchange) {
+        Boolean whitelisted = exchange.getAttribute(AuthConstant.WHITELISTED_ATTR);
+        if (whitelisted == null) {
+            long start = System.nanoTime();
+            whitelisted = index.match(exchange.getRequest().getPath().pathWithinApplication().value()) != null;
+            exchange.getAttributes().put(AuthConstant.WHITELISTED_ATTR, whitelisted);
+            StageTimings.record(exchange, Stage.WHITELIST, start);
+        }
+        return whitelisted;
+    }
+
+    @Override
+    public Mono<MatchResult> matches(ServerWebExchange exchange) {
+        return isWhitelisted(exchange) ? MATCH : NOT_MATCH;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.gatewayservice.cache;
+
+import lombok.Data;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+/**
+ * 可在多个请求间共享的完整响应，构建后不可修改
+ * @author Joetao
+ * @date 2026/10/18
+ */
+@Data
+public class CachedResponse {
+    private final HttpStatus status;
+    /**上游返回的响应头，不包含网关为单个请求添加的响应头**/
+    private final HttpHeaders headers;
+    private final byte[] body;
+}
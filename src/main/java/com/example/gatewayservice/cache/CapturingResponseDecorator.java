@@ -0,0 +1,65 @@
+package com.example.gatewayservice.cache;
+
+import com.example.gatewayservice.accesslog.BodyCapture;
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * 响应写出给客户端的同时旁路复制一份完整响应
+ * 构造时已存在的响应头视为网关为当前请求添加的，不会被复制；响应头在开始写出响应体时复制，
+ * 此时尚未提交响应，提交前才添加的响应头(如Spring Security默认的Cache-Control: no-store、Pragma)不会被缓存；
+ * 响应体超过上限、流式响应或非200响应不可共享
+ * @author Joetao
+ * @date 2026/10/18
+ */
+public class CapturingResponseDecorator extends ServerHttpResponseDecorator {
+    private final Set<String> ownHeaders = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+    private final BodyCapture capture;
+    private volatile HttpHeaders upstreamHeaders;
+    private volatile boolean completed;
+
+    public CapturingResponseDecorator(ServerHttpResponse delegate, int maxBodyBytes) {
+        super(delegate);
+        this.ownHeaders.addAll(delegate.getHeaders().keySet());
+        this.capture = new BodyCapture(maxBodyBytes);
+    }
+
+    @Override
+    public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+        HttpHeaders headers = new HttpHeaders();
+        for (Map.Entry<String, List<String>> entry : getHeaders().entrySet()) {
+            if (!ownHeaders.contains(entry.getKey())) {
+                headers.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+            }
+        }
+        this.upstreamHeaders = headers;
+        return super.writeWith(Flux.from(body)
+                .doOnNext(capture::append)
+                .doOnComplete(() -> completed = true));
+    }
+
+    /**
+     * 获取复制的响应，不可共享时返回null
+     */
+    public CachedResponse toCachedResponse() {
+        HttpHeaders headers = upstreamHeaders;
+        if (!completed || headers == null || capture.isTruncated() || getStatusCode() != HttpStatus.OK) {
+            return null;
+        }
+        headers.remove(HttpHeaders.TRANSFER_ENCODING);
+        headers.setContentLength(capture.size());
+        return new CachedResponse(HttpStatus.OK, HttpHeaders.readOnlyHttpHeaders(headers), capture.toByteArray());
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.gatewayservice.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 进行中的上游请求登记表
+ * 首个请求成为leader负责转发，相同key的并发请求加入其flight等待同一份响应
+ * @author Joetao
+ * @date 2026/10/18
+ */
+@Component
+public class RequestCoalescer {
+    private final Map<String, Flight> flights = new ConcurrentHashMap<>();
+    private final Counter leaders;
+    private final Counter joined;
+    private final Counter bypassed;
+
+    public RequestCoalescer(MeterRegistry meterRegistry) {
+        this.leaders = Counter.builder("gateway.coalesce.requests").tag("result", "leader").register(meterRegistry);
+        this.joined = Counter.builder("gateway.coalesce.requests").tag("result", "joined").register(meterRegistry);
+        this.bypassed = Counter.builder("gateway.coalesce.requests").tag("result", "bypassed").register(meterRegistry);
+        Gauge.builder("gateway.coalesce.flights", flights, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * 加入或发起一个flight：返回的flight为leader时由调用方转发并在结束时调用complete，
+     * 否则等待其response；等待数已满时返回null，调用方单独转发
+     */
+    public Flight acquire(String key, int maxWaiters) {
+        while (true) {
+            Flight flight = flights.get(key);
+            if (flight == null) {
+                Flight created = new Flight(key, true);
+                flight = flights.putIfAbsent(key, created);
+                if (flight == null) {
+                    leaders.increment();
+                    return created;
+                }
+            }
+            int waiters = flight.waiters.get();
+            if (waiters >= maxWaiters) {
+                bypassed.increment();
+                return null;
+            }
+            if (flight.waiters.compareAndSet(waiters, waiters + 1)) {
+                joined.increment();
+                return flight.follower();
+            }
+        }
+    }
+
+    /**
+     * leader转发结束后调用，response为null表示响应不可共享，等待请求将单独转发
+     */
+    public void complete(Flight flight, CachedResponse response) {
+        flights.remove(flight.key, flight);
+        if (response != null) {
+            flight.processor.onNext(response);
+        } else {
+            flight.processor.onComplete();
+        }
+    }
+
+    public static final class Flight {
+        private final String key;
+        private final boolean leader;
+        private final MonoProcessor<CachedResponse> processor;
+        private final AtomicInteger waiters;
+
+        private Flight(String key, boolean leader) {
+            this.key = key;
+            this.leader = leader;
+            this.processor = MonoProcessor.create();
+            this.waiters = new AtomicInteger();
+        }
+
+        private Flight(Flight leader) {
+            this.key = leader.key;
+            this.leader = false;
+            this.processor = leader.processor;
+            this.waiters = leader.waiters;
+        }
+
+        private Flight follower() {
+            return new Flight(this);
+        }
+
+        public boolean isLeader() {
+            return leader;
+        }
+
+        public Mono<CachedResponse> response() {
+            return processor;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.gatewayservice.cache;
+
+import com.example.gatewayservice.constant.AuthConstant;
+import com.example.gatewayservice.entity.GatewayPrincipal;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.util.List;
+
+/**
+ * 请求合并与响应缓存共用的请求key
+ * 由路由、路径、原始查询串、指定请求头组成，按用户区分时追加用户id与client_id
+ * @author Joetao
+ * @date 2026/10/18
+ */
+public final class RequestKeys {
+
+    private RequestKeys() {
+    }
+
+    public static String build(ServerWebExchange exchange, String routeId, List<String> varyHeaders, boolean perPrincipal) {
+        ServerHttpRequest request = exchange.getRequest();
+        StringBuilder key = new StringBuilder(128).append(routeId).append(' ')
+                .append(request.getPath().pathWithinApplication().value());
+        String query = request.getURI().getRawQuery();
+        if (query != null) {
+            key.append('?').append(query);
+        }
+        HttpHeaders headers = request.getHeaders();
+        for (String name : varyHeaders) {
+            List<String> values = headers.get(name);
+            key.append('\n');
+            if (values != null) {
+                key.append(values);
+            }
+        }
+        if (perPrincipal) {
+            GatewayPrincipal principal = exchange.getAttribute(AuthConstant.GATEWAY_PRINCIPAL_ATTR);
+            key.append('\n').append(principal != null ? principal.getUserId() + "@" + principal.getClientId()
+                    : exchange.getResponse().getHeaders().getFirst("client_id"));
+        }
+        return key.toString();
+    }
+}
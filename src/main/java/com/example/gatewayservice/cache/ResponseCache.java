@@ -0,0 +1,144 @@
+package com.example.gatewayservice.cache;
+
+import cn.hutool.crypto.digest.DigestUtil;
+import com.example.gatewayservice.config.GatewaySwaggerProvider;
+import com.example.gatewayservice.config.ResponseCacheConfig;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 网关响应缓存
+ * 基于Caffeine(W-TinyLFU淘汰策略)按响应体字节数限制容量，缓存时间取上游Cache-Control的s-maxage/max-age，
+ * 未指定时取路由配置的ttl；上游未返回ETag时按响应体生成弱ETag，用于直接响应条件请求
+ * @author Joetao
+ * @date 2026/10/18
+ */
+@Component
+public class ResponseCache {
+    /**缓存项除响应体外的估算开销**/
+    private static final int ENTRY_OVERHEAD = 512;
+
+    private final ResponseCacheConfig responseCacheConfig;
+    private final Cache<String, ResponseCacheEntry> cache;
+
+    public ResponseCache(ResponseCacheConfig responseCacheConfig, MeterRegistry meterRegistry) {
+        this.responseCacheConfig = responseCacheConfig;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(responseCacheConfig.getMaximumSize().toBytes())
+                .weigher((String key, ResponseCacheEntry entry) -> key.length() + entry.size() + ENTRY_OVERHEAD)
+                .expireAfter(new EntryExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "gateway.response");
+    }
+
+    /**
+     * 请求路径的缓存规则，api文档使用单独的规则，避免打开文档页面时每次都请求所有服务
+     */
+    public ResponseCacheConfig.RouteCacheConfig getRouteConfig(String routeId, String path) {
+        ResponseCacheConfig.RouteCacheConfig apiDocs = responseCacheConfig.getApiDocs();
+        if (apiDocs != null && path.endsWith(GatewaySwaggerProvider.API_URI)) {
+            return apiDocs;
+        }
+        return responseCacheConfig.getRoutes().get(routeId);
+    }
+
+    public ResponseCacheEntry get(String key) {
+        return cache.getIfPresent(key);
+    }
+
+    /**
+     * 按响应头判断是否可缓存，可缓存时放入缓存
+     */
+    public void put(String key, CachedResponse response, ResponseCacheConfig.RouteCacheConfig config) {
+        HttpHeaders headers = response.getHeaders();
+        if (headers.containsKey(HttpHeaders.SET_COOKIE) || !isVaryCovered(headers, config)) {
+            return;
+        }
+        long ttlNanos = resolveTtl(headers.getCacheControl(), config);
+        if (ttlNanos <= 0) {
+            return;
+        }
+        HttpHeaders cachedHeaders = headers;
+        if (StringUtils.isEmpty(headers.getETag())) {
+            cachedHeaders = new HttpHeaders();
+            cachedHeaders.putAll(headers);
+            cachedHeaders.setETag("W/\"" + DigestUtil.md5Hex(response.getBody()) + "\"");
+            cachedHeaders = HttpHeaders.readOnlyHttpHeaders(cachedHeaders);
+        }
+        cache.put(key, new ResponseCacheEntry(cachedHeaders, response.getBody(), responseCacheConfig.isOffHeap(), ttlNanos));
+    }
+
+    private long resolveTtl(String cacheControl, ResponseCacheConfig.RouteCacheConfig config) {
+        long routeTtl = config.getTtl() != null ? config.getTtl().toNanos() : 0;
+        if (config.isIgnoreCacheControl() || StringUtils.isEmpty(cacheControl)) {
+            return routeTtl;
+        }
+        long maxAge = -1;
+        long sharedMaxAge = -1;
+        for (String directive : cacheControl.toLowerCase(Locale.ROOT).split(",")) {
+            directive = directive.trim();
+            if ("no-store".equals(directive) || "no-cache".equals(directive)) {
+                return 0;
+            } else if ("private".equals(directive) && !config.isUserScoped()) {
+                return 0;
+            } else if (directive.startsWith("s-maxage=")) {
+                sharedMaxAge = parseSeconds(directive.substring("s-maxage=".length()));
+            } else if (directive.startsWith("max-age=")) {
+                maxAge = parseSeconds(directive.substring("max-age=".length()));
+            }
+        }
+        if (sharedMaxAge >= 0) {
+            return TimeUnit.SECONDS.toNanos(sharedMaxAge);
+        }
+        return maxAge >= 0 ? TimeUnit.SECONDS.toNanos(maxAge) : routeTtl;
+    }
+
+    /**
+     * 上游响应的Vary头必须都在缓存key的请求头范围内
+     */
+    private static boolean isVaryCovered(HttpHeaders headers, ResponseCacheConfig.RouteCacheConfig config) {
+        List<String> vary = headers.getVary();
+        for (String name : vary) {
+            if ("*".equals(name) || config.getVaryHeaders().stream().noneMatch(name::equalsIgnoreCase)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long parseSeconds(String value) {
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static class EntryExpiry implements Expiry<String, ResponseCacheEntry> {
+        @Override
+        public long expireAfterCreate(String key, ResponseCacheEntry value, long currentTime) {
+            return value.getTtlNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, ResponseCacheEntry value, long currentTime, long currentDuration) {
+            return value.getTtlNanos();
+        }
+
+        @Override
+        public long expireAfterRead(String key, ResponseCacheEntry value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.gatewayservice.cache;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.HttpHeaders;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 响应缓存项，响应体存放在堆内数组或堆外ByteBuffer中，构建后不可修改
+ * 堆外内存不主动释放，缓存项被淘汰且不再被读取后随DirectByteBuffer回收，避免与正在写出的请求竞争
+ * @author Joetao
+ * @date 2026/10/18
+ */
+public class ResponseCacheEntry {
+    private final HttpHeaders headers;
+    private final byte[] heapBody;
+    private final ByteBuffer directBody;
+    private final String etag;
+    private final long lastModified;
+    private final long createdAt;
+    private final long ttlNanos;
+
+    public ResponseCacheEntry(HttpHeaders headers, byte[] body, boolean offHeap, long ttlNanos) {
+        this.headers = headers;
+        if (offHeap) {
+            ByteBuffer direct = ByteBuffer.allocateDirect(body.length);
+            direct.put(body).flip();
+            this.directBody = direct.asReadOnlyBuffer();
+            this.heapBody = null;
+        } else {
+            this.heapBody = body;
+            this.directBody = null;
+        }
+        this.etag = headers.getETag();
+        this.lastModified = headers.getLastModified();
+        this.createdAt = System.currentTimeMillis();
+        this.ttlNanos = ttlNanos;
+    }
+
+    public HttpHeaders getHeaders() {
+        return headers;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public long getTtlNanos() {
+        return ttlNanos;
+    }
+
+    public int size() {
+        return heapBody != null ? heapBody.length : directBody.capacity();
+    }
+
+    /**
+     * 包装为DataBuffer，不拷贝响应体
+     */
+    public DataBuffer body(DataBufferFactory bufferFactory) {
+        return heapBody != null ? bufferFactory.wrap(heapBody) : bufferFactory.wrap(directBody.duplicate());
+    }
+}
@@ -0,0 +1,273 @@
+package com.example.gatewayservice.common;
+
+import org.springframework.util.AntPathMatcher;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 编译后的路径模式与值的映射索引，构建后不可变，用于资源角色映射与白名单等按路径查找的场景
+ * 精确路径直接哈希命中；整段的通配符(*、{id}、**)编译为按路径段匹配的前缀树，查找时不产生对象分配；
+ * 段内通配(如 /us/user-*)等其他写法退化为AntPathMatcher逐个匹配
+ * 模式的匹配语义与AntPathMatcher一致：忽略空路径段；不含**的模式区分路径末尾的/；末段为*的模式可匹配以/结尾、缺少末段的路径
+ * 匹配优先级：精确路径 > 字面量段 > 单段变量 > 多段通配 > 其他模式
+ * @author Joetao
+ * @date 2026/10/18
+ */
+public class PathPatternIndex<T> {
+    private static final String SEPARATOR = "/";
+    private static final String MULTI_WILDCARD = "**";
+    private static final String SINGLE_WILDCARD = "*";
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    private final Map<String, T> exactPaths;
+    private final Node<T> root;
+    private final List<PatternEntry<T>> fallbackPatterns;
+
+    private PathPatternIndex(Map<String, T> exactPaths, Node<T> root, List<PatternEntry<T>> fallbackPatterns) {
+        this.exactPaths = exactPaths;
+        this.root = root;
+        this.fallbackPatterns = fallbackPatterns;
+    }
+
+    public static <T> PathPatternIndex<T> empty() {
+        return new PathPatternIndex<>(Collections.emptyMap(), new Node<>(), Collections.emptyList());
+    }
+
+    /**
+     * 根据路径(或路径模式)与值的映射编译索引
+     */
+    public static <T> PathPatternIndex<T> compile(Map<String, T> resources) {
+        Map<String, T> exactPaths = new HashMap<>(resources.size() * 2);
+        NodeBuilder<T> rootBuilder = new NodeBuilder<>();
+        List<PatternEntry<T>> fallbackPatterns = new ArrayList<>();
+        for (Map.Entry<String, T> entry : resources.entrySet()) {
+            String path = entry.getKey();
+            if (!isPattern(path)) {
+                exactPaths.put(path, entry.getValue());
+            } else if (isSegmentPattern(path)) {
+                rootBuilder.insert(path, entry.getValue());
+            } else {
+                fallbackPatterns.add(new PatternEntry<>(path, entry.getValue()));
+            }
+        }
+        // 与具体路径无关的排序：通配符少、路径长的模式优先
+        Comparator<String> specificity = PATH_MATCHER.getPatternComparator("");
+        fallbackPatterns.sort((a, b) -> specificity.compare(a.pattern, b.pattern));
+        return new PathPatternIndex<>(exactPaths, rootBuilder.build(), fallbackPatterns);
+    }
+
+    /**
+     * 查找路径对应的值，未配置时返回null
+     */
+    public T match(String path) {
+        T value = exactPaths.get(path);
+        if (value != null) {
+            return value;
+        }
+        value = matchSegments(path, 0, root, path.endsWith(SEPARATOR));
+        if (value != null || fallbackPatterns.isEmpty()) {
+            return value;
+        }
+        for (PatternEntry<T> entry : fallbackPatterns) {
+            if (PATH_MATCHER.match(entry.pattern, path)) {
+                return entry.value;
+            }
+        }
+        return null;
+    }
+
+    public int size() {
+        return exactPaths.size() + root.count() + fallbackPatterns.size();
+    }
+
+    private static <T> T matchSegments(String path, int pos, Node<T> node, boolean trailingSlash) {
+        int length = path.length();
+        while (pos < length && path.charAt(pos) == '/') {
+            pos++;
+        }
+        if (pos >= length) {
+            T value = node.accept(trailingSlash);
+            if (value != null) {
+                return value;
+            }
+            if (node.multi != null && node.multi.hasValue) {
+                return node.multi.value;
+            }
+            // 与AntPathMatcher一致，/a/*匹配/a/
+            Node<T> variable = node.variable;
+            return trailingSlash && variable != null && variable.hasValue && variable.lastStar && !variable.multiPattern
+                    ? variable.value : null;
+        }
+        int end = path.indexOf('/', pos);
+        if (end < 0) {
+            end = length;
+        }
+        int next = end < length ? end + 1 : length;
+        int segmentLength = end - pos;
+        String[] literals = node.literals;
+        for (int i = 0; i < literals.length; i++) {
+            String literal = literals[i];
+            if (literal.length() == segmentLength && path.regionMatches(pos, literal, 0, segmentLength)) {
+                T value = matchSegments(path, next, node.literalNodes[i], trailingSlash);
+                if (value != null) {
+                    return value;
+                }
+                break;
+            }
+        }
+        if (node.variable != null && segmentLength > 0) {
+            T value = matchSegments(path, next, node.variable, trailingSlash);
+            if (value != null) {
+                return value;
+            }
+        }
+        if (node.multi != null) {
+            // ** 匹配零个或多个路径段
+            int candidate = pos;
+            while (true) {
+                T value = matchSegments(path, candidate, node.multi, trailingSlash);
+                if (value != null) {
+                    return value;
+                }
+                if (candidate >= length) {
+                    break;
+                }
+                int slash = path.indexOf('/', candidate);
+                candidate = slash < 0 ? length : slash + 1;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isPattern(String path) {
+        return path.indexOf('*') >= 0 || path.indexOf('?') >= 0 || path.indexOf('{') >= 0;
+    }
+
+    /**
+     * 每个通配符都独占一个路径段时才能编译进前缀树
+     */
+    private static boolean isSegmentPattern(String path) {
+        for (String segment : path.split(SEPARATOR)) {
+            if (segment.isEmpty() || SINGLE_WILDCARD.equals(segment) || MULTI_WILDCARD.equals(segment) || isVariable(segment)) {
+                continue;
+            }
+            if (isPattern(segment)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isVariable(String segment) {
+        return segment.length() > 2 && segment.charAt(0) == '{' && segment.charAt(segment.length() - 1) == '}'
+                && segment.indexOf('{', 1) < 0 && segment.indexOf(':') < 0;
+    }
+
+    private static final class Node<T> {
+        private String[] literals = new String[0];
+        @SuppressWarnings("unchecked")
+        private Node<T>[] literalNodes = new Node[0];
+        private Node<T> variable;
+        private Node<T> multi;
+        private T value;
+        private boolean hasValue;
+        /**模式以/结尾**/
+        private boolean trailingSlash;
+        /**模式含有**，不区分路径末尾的/**/
+        private boolean multiPattern;
+        /**模式的末段为***/
+        private boolean lastStar;
+
+        private T accept(boolean pathTrailingSlash) {
+            return hasValue && (multiPattern || trailingSlash == pathTrailingSlash) ? value : null;
+        }
+
+        private int count() {
+            int count = hasValue ? 1 : 0;
+            for (Node<T> child : literalNodes) {
+                count += child.count();
+            }
+            if (variable != null) {
+                count += variable.count();
+            }
+            if (multi != null) {
+                count += multi.count();
+            }
+            return count;
+        }
+    }
+
+    private static final class NodeBuilder<T> {
+        private final Map<String, NodeBuilder<T>> literals = new LinkedHashMap<>();
+        private NodeBuilder<T> variable;
+        private NodeBuilder<T> multi;
+        private T value;
+        private boolean trailingSlash;
+        private boolean multiPattern;
+        private boolean lastStar;
+
+        private void insert(String path, T value) {
+            NodeBuilder<T> current = this;
+            boolean multiPattern = false;
+            String last = null;
+            for (String segment : path.split(SEPARATOR)) {
+                if (segment.isEmpty()) {
+                    continue;
+                }
+                last = segment;
+                if (MULTI_WILDCARD.equals(segment)) {
+                    multiPattern = true;
+                    if (current.multi == null) {
+                        current.multi = new NodeBuilder<>();
+                    }
+                    current = current.multi;
+                } else if (SINGLE_WILDCARD.equals(segment) || isVariable(segment)) {
+                    if (current.variable == null) {
+                        current.variable = new NodeBuilder<>();
+                    }
+                    current = current.variable;
+                } else {
+                    current = current.literals.computeIfAbsent(segment, k -> new NodeBuilder<>());
+                }
+            }
+            current.value = value;
+            current.trailingSlash = path.endsWith(SEPARATOR);
+            current.multiPattern = multiPattern;
+            current.lastStar = SINGLE_WILDCARD.equals(last);
+        }
+
+        @SuppressWarnings("unchecked")
+        private Node<T> build() {
+            Node<T> node = new Node<>();
+            node.literals = literals.keySet().toArray(new String[0]);
+            node.literalNodes = new Node[node.literals.length];
+            for (int i = 0; i < node.literals.length; i++) {
+                node.literalNodes[i] = literals.get(node.literals[i]).build();
+            }
+            node.variable = variable != null ? variable.build() : null;
+            node.multi = multi != null ? multi.build() : null;
+            node.value = value;
+            node.hasValue = value != null;
+            node.trailingSlash = trailingSlash;
+            node.multiPattern = multiPattern;
+            node.lastStar = lastStar;
+            return node;
+        }
+    }
+
+    private static final class PatternEntry<T> {
+        private final String pattern;
+        private final T value;
+
+        private PatternEntry(String pattern, T value) {
+            this.pattern = pattern;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.gatewayservice.concurrency;
+
+import com.example.gatewayservice.config.ConcurrencyLimitConfig;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * 按时间窗口失败率熔断
+ * 关闭状态下窗口内失败率超过阈值时打开；打开一段时间后进入半开状态，放行少量探测请求，
+ * 探测全部成功后关闭，任一失败或超过半开时长仍未全部完成时重新打开
+ * 每次状态切换代数加一，放行请求时返回当前代数，请求结束时只有代数相同的结果才计入，
+ * 状态切换前放行的请求不会影响新状态；半开状态下被取消的探测请求归还探测名额
+ * @author Joetao
+ * @date 2026/10/18
+ */
+public class CircuitBreaker {
+    public static final int CLOSED = 0;
+    public static final int OPEN = 1;
+    public static final int HALF_OPEN = 2;
+    /**熔断中拒绝请求**/
+    public static final long REJECTED = -1;
+
+    private final double failureRateThreshold;
+    private final int minimumRequests;
+    private final long windowNanos;
+    private final long openNanos;
+    private final int halfOpenRequests;
+    private final long halfOpenTimeoutNanos;
+    private final LongSupplier nanoClock;
+
+    private final AtomicReference<Phase> phase;
+    private final AtomicLong windowStart;
+    private final AtomicInteger total = new AtomicInteger();
+    private final AtomicInteger failures = new AtomicInteger();
+
+    public CircuitBreaker(ConcurrencyLimitConfig.CircuitBreakerConfig config) {
+        this(config, System::nanoTime);
+    }
+
+    CircuitBreaker(ConcurrencyLimitConfig.CircuitBreakerConfig config, LongSupplier nanoClock) {
+        this.failureRateThreshold = config.getFailureRateThreshold();
+        this.minimumRequests = config.getMinimumRequests();
+        this.windowNanos = config.getWindow().toNanos();
+        this.openNanos = config.getOpenDuration().toNanos();
+        this.halfOpenRequests = config.getHalfOpenRequests();
+        this.halfOpenTimeoutNanos = config.getHalfOpenTimeout().toNanos();
+        this.nanoClock = nanoClock;
+        long now = nanoClock.getAsLong();
+        this.phase = new AtomicReference<>(new Phase(CLOSED, 0, now));
+        this.windowStart = new AtomicLong(now);
+    }
+
+    public int getState() {
+        return phase.get().state;
+    }
+
+    /**
+     * 判断是否放行请求，放行时返回当前代数(非负)，拒绝时返回REJECTED
+     */
+    public long tryAcquire() {
+        while (true) {
+            Phase current = phase.get();
+            if (current.state == CLOSED) {
+                return current.generation;
+            }
+            long now = nanoClock.getAsLong();
+            if (current.state == OPEN) {
+                if (now - current.since < openNanos) {
+                    return REJECTED;
+                }
+                transition(current, HALF_OPEN, now);
+                continue;
+            }
+            if (now - current.since > halfOpenTimeoutNanos) {
+                // 探测请求超时仍未全部完成，视为失败
+                transition(current, OPEN, now);
+                continue;
+            }
+            int used = current.permits.get();
+            if (used >= halfOpenRequests) {
+                return REJECTED;
+            }
+            if (current.permits.compareAndSet(used, used + 1)) {
+                return current.generation;
+            }
+        }
+    }
+
+    public void onSuccess(long generation) {
+        Phase current = phase.get();
+        if (current.generation != generation) {
+            return;
+        }
+        if (current.state == HALF_OPEN) {
+            if (current.successes.incrementAndGet() >= halfOpenRequests) {
+                transition(current, CLOSED, nanoClock.getAsLong());
+            }
+            return;
+        }
+        record(current, false);
+    }
+
+    public void onFailure(long generation) {
+        Phase current = phase.get();
+        if (current.generation != generation) {
+            return;
+        }
+        if (current.state == HALF_OPEN) {
+            transition(current, OPEN, nanoClock.getAsLong());
+            return;
+        }
+        record(current, true);
+    }
+
+    /**
+     * 请求被取消，不计入成功或失败，半开状态下归还探测名额
+     */
+    public void onCancel(long generation) {
+        Phase current = phase.get();
+        if (current.generation == generation && current.state == HALF_OPEN) {
+            current.permits.decrementAndGet();
+        }
+    }
+
+    private void record(Phase current, boolean failed) {
+        long now = nanoClock.getAsLong();
+        long start = windowStart.get();
+        if (now - start > windowNanos && windowStart.compareAndSet(start, now)) {
+            total.set(0);
+            failures.set(0);
+        }
+        int requests = total.incrementAndGet();
+        int failureCount = failed ? failures.incrementAndGet() : failures.get();
+        if (failed && requests >= minimumRequests && failureCount >= requests * failureRateThreshold) {
+            transition(current, OPEN, now);
+        }
+    }
+
+    private void transition(Phase current, int state, long now) {
+        if (phase.compareAndSet(current, new Phase(state, current.generation + 1, now)) && state == CLOSED) {
+            windowStart.set(now);
+            total.set(0);
+            failures.set(0);
+        }
+    }
+
+    /**
+     * 一次状态及其代数，半开状态的探测名额与成功数随状态切换重新计数
+     */
+    private static final class Phase {
+        private final int state;
+        private final long generation;
+        private final long since;
+        private final AtomicInteger permits = new AtomicInteger();
+        private final AtomicInteger successes = new AtomicInteger();
+
+        private Phase(int state, long generation, long since) {
+            this.state = state;
+            this.generation = generation;
+            this.since = since;
+        }
+    }
+}
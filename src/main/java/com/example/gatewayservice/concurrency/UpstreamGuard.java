@@ -0,0 +1,79 @@
+package com.example.gatewayservice.concurrency;
+
+import com.example.gatewayservice.config.ConcurrencyLimitConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 单个路由下单个上游实例的并发限制与熔断
+ * 获取许可时返回的permit低32位为获取后的并发数，高位为熔断器的代数，请求结束时原样传回
+ * @author Joetao
+ * @date 2026/10/18
+ */
+public class UpstreamGuard {
+    /**超过并发上限被拒绝**/
+    public static final int REJECTED_LIMIT = -1;
+    /**熔断中被拒绝**/
+    public static final int REJECTED_CIRCUIT = -2;
+
+    private final VegasLimit limit;
+    private final CircuitBreaker circuitBreaker;
+    private final AtomicInteger inflight = new AtomicInteger();
+    private final Counter limitRejected;
+    private final Counter circuitRejected;
+
+    public UpstreamGuard(String routeId, String instance, ConcurrencyLimitConfig.RouteConcurrencyConfig config, MeterRegistry meterRegistry) {
+        this.limit = new VegasLimit(config);
+        this.circuitBreaker = new CircuitBreaker(config.getCircuitBreaker());
+        Tags tags = Tags.of("route", routeId, "instance", instance);
+        Gauge.builder("gateway.concurrency.limit", limit, VegasLimit::getLimit).tags(tags).register(meterRegistry);
+        Gauge.builder("gateway.concurrency.inflight", inflight, AtomicInteger::get).tags(tags).register(meterRegistry);
+        Gauge.builder("gateway.circuit.state", circuitBreaker, CircuitBreaker::getState).tags(tags).register(meterRegistry);
+        this.limitRejected = Counter.builder("gateway.concurrency.rejected").tags(tags).tag("reason", "limit").register(meterRegistry);
+        this.circuitRejected = Counter.builder("gateway.concurrency.rejected").tags(tags).tag("reason", "circuit").register(meterRegistry);
+    }
+
+    /**
+     * 获取执行许可，成功时返回permit(非负)，失败时返回REJECTED_LIMIT或REJECTED_CIRCUIT
+     */
+    public long tryAcquire() {
+        int current = inflight.incrementAndGet();
+        if (current > limit.getLimit()) {
+            inflight.decrementAndGet();
+            limitRejected.increment();
+            return REJECTED_LIMIT;
+        }
+        long generation = circuitBreaker.tryAcquire();
+        if (generation == CircuitBreaker.REJECTED) {
+            inflight.decrementAndGet();
+            circuitRejected.increment();
+            return REJECTED_CIRCUIT;
+        }
+        return generation << 32 | current;
+    }
+
+    /**
+     * 请求结束时释放许可并记录结果
+     */
+    public void release(long permit, long rttNanos, boolean failed) {
+        inflight.decrementAndGet();
+        limit.onSample(rttNanos, (int) permit, failed);
+        if (failed) {
+            circuitBreaker.onFailure(permit >>> 32);
+        } else {
+            circuitBreaker.onSuccess(permit >>> 32);
+        }
+    }
+
+    /**
+     * 请求被取消时只释放许可，不计入统计，半开状态下归还探测名额
+     */
+    public void cancel(long permit) {
+        inflight.decrementAndGet();
+        circuitBreaker.onCancel(permit >>> 32);
+    }
+}
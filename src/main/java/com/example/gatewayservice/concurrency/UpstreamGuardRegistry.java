@@ -0,0 +1,34 @@
+package com.example.gatewayservice.concurrency;
+
+import com.example.gatewayservice.config.ConcurrencyLimitConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 按路由、上游实例维护UpstreamGuard
+ * @author Joetao
+ * @date 2026/10/18
+ */
+@Component
+public class UpstreamGuardRegistry {
+    private final ConcurrencyLimitConfig concurrencyLimitConfig;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Map<String, UpstreamGuard>> guards = new ConcurrentHashMap<>();
+
+    public UpstreamGuardRegistry(ConcurrencyLimitConfig concurrencyLimitConfig, MeterRegistry meterRegistry) {
+        this.concurrencyLimitConfig = concurrencyLimitConfig;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public ConcurrencyLimitConfig.RouteConcurrencyConfig getRouteConfig(String routeId) {
+        return concurrencyLimitConfig.getRoutes().get(routeId);
+    }
+
+    public UpstreamGuard getGuard(String routeId, String instance, ConcurrencyLimitConfig.RouteConcurrencyConfig config) {
+        return guards.computeIfAbsent(routeId, k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(instance, k -> new UpstreamGuard(routeId, instance, config, meterRegistry));
+    }
+}
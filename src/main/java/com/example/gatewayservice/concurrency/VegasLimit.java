@@ -0,0 +1,79 @@
+package com.example.gatewayservice.concurrency;
+
+import com.example.gatewayservice.config.ConcurrencyLimitConfig;
+
+/**
+ * Vegas算法的自适应并发上限
+ * 以观测到的最小响应时间为无排队基准，按 limit * (1 - rttNoLoad / rtt) 估算上游排队数：
+ * 排队少时增大上限，排队多或请求失败时减小上限；请求数远低于上限时不调整，避免空闲时上限无限增长
+ * 上限估计值保留小数，平滑后的小幅调整可以累积，不会因取整被抵消
+ * @author Joetao
+ * @date 2026/10/18
+ */
+public class VegasLimit {
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final long rttProbeIntervalNanos;
+
+    private volatile int limit;
+    private double estimatedLimit;
+    private long rttNoLoad;
+    private long rttResetAt;
+
+    public VegasLimit(ConcurrencyLimitConfig.RouteConcurrencyConfig config) {
+        this.minLimit = config.getMinLimit();
+        this.maxLimit = config.getMaxLimit();
+        this.smoothing = config.getSmoothing();
+        this.rttProbeIntervalNanos = config.getRttProbeInterval().toNanos();
+        this.limit = Math.max(minLimit, Math.min(maxLimit, config.getInitialLimit()));
+        this.estimatedLimit = limit;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * 记录一次请求结果
+     * @param rtt 响应时间(纳秒)
+     * @param inflight 请求开始时的并发数
+     * @param dropped 请求是否失败(超时、连接失败或上游5xx)
+     */
+    public synchronized void onSample(long rtt, int inflight, boolean dropped) {
+        long now = System.nanoTime();
+        if (rttNoLoad == 0 || now - rttResetAt > rttProbeIntervalNanos) {
+            if (!dropped) {
+                rttNoLoad = rtt;
+                rttResetAt = now;
+            }
+            return;
+        }
+        if (!dropped && rtt > 0 && rtt < rttNoLoad) {
+            rttNoLoad = rtt;
+        }
+        double current = estimatedLimit;
+        double log = Math.max(1, Math.log10(current));
+        double newLimit;
+        if (dropped) {
+            newLimit = current - log;
+        } else if (inflight * 2 < current) {
+            return;
+        } else {
+            double queueSize = current * (1 - (double) rttNoLoad / Math.max(rtt, 1));
+            double alpha = 3 * log;
+            double beta = 6 * log;
+            if (queueSize <= log) {
+                newLimit = current + beta;
+            } else if (queueSize < alpha) {
+                newLimit = current + log;
+            } else if (queueSize > beta) {
+                newLimit = current - log;
+            } else {
+                return;
+            }
+        }
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, current * (1 - smoothing) + newLimit * smoothing));
+        limit = (int) estimatedLimit;
+    }
+}
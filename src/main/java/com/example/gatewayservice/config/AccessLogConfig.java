@@ -0,0 +1,91 @@
+package com.example.gatewayservice.config;
+
+import com.example.gatewayservice.accesslog.AccessLogFormat;
+import com.example.gatewayservice.accesslog.BodyLogMode;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 网关访问日志配置
+ * @author Joetao
+ * @date 2026/10/18
+ */
+@Data
+@EqualsAndHashCode(callSuper = false)
+@Component
+@ConfigurationProperties(prefix="access-log")
+public class AccessLogConfig {
+    /**日志输出格式**/
+    private AccessLogFormat format = AccessLogFormat.JSON;
+    /**二进制格式的段文件配置**/
+    private BinaryLogConfig binary = new BinaryLogConfig();
+    /**异步日志队列容量**/
+    private int queueCapacity = 8192;
+    /**消费线程每批最多写出的日志条数**/
+    private int batchSize = 256;
+    /**队列占用超过该比例时丢弃请求体与响应体，只保留元数据**/
+    private double dropBodiesThreshold = 0.5;
+    /**队列占用超过该比例时按sampleRate采样写入**/
+    private double sampleThreshold = 0.8;
+    /**采样阶段保留的日志比例**/
+    private double sampleRate = 0.1;
+    /**记录请求体、响应体的最大字节数，超出部分截断**/
+    private int maxBodyBytes = 4096;
+    /**报文体记录方式**/
+    private BodyLogMode bodyMode = BodyLogMode.FULL;
+    /**SAMPLED模式下记录报文体的比例**/
+    private double bodySampleRate = 0.1;
+    /**ON_ERROR模式下视为慢请求的响应时间阈值**/
+    private Duration slowThreshold = Duration.ofSeconds(1);
+    /**按路由id覆盖的配置**/
+    private Map<String, RouteLogConfig> routes = new HashMap<>();
+
+    public int getMaxBodyBytes(String routeId) {
+        RouteLogConfig routeLogConfig = routes.get(routeId);
+        return routeLogConfig != null && routeLogConfig.getMaxBodyBytes() != null ? routeLogConfig.getMaxBodyBytes() : maxBodyBytes;
+    }
+
+    public BodyLogMode getBodyMode(String routeId) {
+        RouteLogConfig routeLogConfig = routes.get(routeId);
+        return routeLogConfig != null && routeLogConfig.getBodyMode() != null ? routeLogConfig.getBodyMode() : bodyMode;
+    }
+
+    public double getBodySampleRate(String routeId) {
+        RouteLogConfig routeLogConfig = routes.get(routeId);
+        return routeLogConfig != null && routeLogConfig.getBodySampleRate() != null ? routeLogConfig.getBodySampleRate() : bodySampleRate;
+    }
+
+    public Duration getSlowThreshold(String routeId) {
+        RouteLogConfig routeLogConfig = routes.get(routeId);
+        return routeLogConfig != null && routeLogConfig.getSlowThreshold() != null ? routeLogConfig.getSlowThreshold() : slowThreshold;
+    }
+
+    @Data
+    public static class RouteLogConfig {
+        /**记录报文体的最大字节数**/
+        private Integer maxBodyBytes;
+        /**报文体记录方式**/
+        private BodyLogMode bodyMode;
+        /**SAMPLED模式下记录报文体的比例**/
+        private Double bodySampleRate;
+        /**ON_ERROR模式下视为慢请求的响应时间阈值**/
+        private Duration slowThreshold;
+    }
+
+    @Data
+    public static class BinaryLogConfig {
+        /**段文件目录**/
+        private String directory = "logs/access";
+        /**单个段文件大小**/
+        private DataSize segmentSize = DataSize.ofMegabytes(64);
+        /**保留的段文件数量，超出时删除最旧的段**/
+        private int maxSegments = 32;
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.gatewayservice.config;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 相同GET请求合并配置，只对配置了的路由生效
+ * @author Joetao
+ * @date 2026/10/18
+ */
+@Data
+@EqualsAndHashCode(callSuper = false)
+@Component
+@ConfigurationProperties(prefix="coalesce")
+public class CoalesceConfig {
+    /**按路由id开启请求合并**/
+    private Map<String, RouteCoalesceConfig> routes = new HashMap<>();
+
+    @Data
+    public static class RouteCoalesceConfig {
+        /**同一请求最多合并的等待请求数，超出后单独转发**/
+        private int maxWaiters = 256;
+        /**可共享的最大响应体，超出后等待请求单独转发**/
+        private DataSize maxResponseSize = DataSize.ofMegabytes(1);
+        /**等待首个请求响应的最长时间，超时后单独转发**/
+        private Duration maxWait = Duration.ofSeconds(10);
+        /**参与合并判断的请求头**/
+        private List<String> varyHeaders = new ArrayList<>(Arrays.asList("Accept", "Accept-Encoding", "Accept-Language"));
+        /**是否只合并同一用户(或客户端)的请求，响应内容与用户相关时必须开启**/
+        private boolean perPrincipal = true;
+    }
+}
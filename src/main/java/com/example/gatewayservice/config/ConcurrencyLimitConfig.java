@@ -0,0 +1,56 @@
+package com.example.gatewayservice.config;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 上游并发自适应限制与熔断配置，按路由配置，每个服务实例单独计算
+ * @author Joetao
+ * @date 2026/10/18
+ */
+@Data
+@EqualsAndHashCode(callSuper = false)
+@Component
+@ConfigurationProperties(prefix="concurrency-limit")
+public class ConcurrencyLimitConfig {
+    /**按路由id配置**/
+    private Map<String, RouteConcurrencyConfig> routes = new HashMap<>();
+
+    @Data
+    public static class RouteConcurrencyConfig {
+        /**初始并发上限**/
+        private int initialLimit = 20;
+        /**并发上限的最小值**/
+        private int minLimit = 2;
+        /**并发上限的最大值**/
+        private int maxLimit = 500;
+        /**新上限的平滑系数，取值(0,1]，越小调整越平缓**/
+        private double smoothing = 0.5;
+        /**最小响应时间的重新探测间隔，避免上游长期变慢后基准失效**/
+        private Duration rttProbeInterval = Duration.ofMinutes(1);
+        /**熔断配置**/
+        private CircuitBreakerConfig circuitBreaker = new CircuitBreakerConfig();
+    }
+
+    @Data
+    public static class CircuitBreakerConfig {
+        /**失败率达到该比例时熔断**/
+        private double failureRateThreshold = 0.5;
+        /**统计窗口内至少达到该请求数才计算失败率**/
+        private int minimumRequests = 20;
+        /**失败率统计窗口**/
+        private Duration window = Duration.ofSeconds(10);
+        /**熔断持续时间，之后进入半开状态**/
+        private Duration openDuration = Duration.ofSeconds(30);
+        /**半开状态允许通过的探测请求数**/
+        private int halfOpenRequests = 5;
+        /**半开状态的最长时间，探测请求在此时间内未全部完成时重新熔断**/
+        private Duration halfOpenTimeout = Duration.ofSeconds(10);
+    }
+}
@@ -1,15 +1,22 @@
 package com.example.gatewayservice.config;
 
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.cloud.gateway.config.GatewayProperties;
+import org.springframework.cloud.gateway.event.RefreshRoutesResultEvent;
+import org.springframework.cloud.gateway.route.Route;
 import org.springframework.cloud.gateway.route.RouteLocator;
 import org.springframework.cloud.gateway.support.NameUtils;
+import org.springframework.context.ApplicationListener;
 import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Component;
 import springfox.documentation.swagger.web.SwaggerResource;
 import springfox.documentation.swagger.web.SwaggerResourcesProvider;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * @author Joetao
@@ -17,10 +24,12 @@ import java.util.List;
  */
 @Component
 @Primary
-public class GatewaySwaggerProvider implements SwaggerResourcesProvider {
+@Slf4j
+public class GatewaySwaggerProvider implements SwaggerResourcesProvider, ApplicationListener<RefreshRoutesResultEvent> {
     public static final String API_URI = "/v3/api-docs";
     private final RouteLocator routeLocator;
     private final GatewayProperties gatewayProperties;
+    private volatile List<SwaggerResource> resources = Collections.emptyList();
 
     public GatewaySwaggerProvider(RouteLocator routeLocator, GatewayProperties gatewayProperties) {
         this.routeLocator = routeLocator;
@@ -31,22 +40,42 @@ public class GatewaySwaggerProvider implements SwaggerResourcesProvider {
      * 这个类是核心，这个类封装的是SwaggerResource，即在swagger-ui.html页面中顶部的选择框，选择服务的swagger页面内容。
      * RouteLocator：获取spring cloud gateway中注册的路由
      * RouteDefinitionLocator：获取spring cloud gateway路由的详细信息
-     * RestTemplate：获取各个配置有swagger的服务的swagger-resources
+     * 资源列表在路由刷新后预先生成，这里直接返回
      */
     @Override
     public List<SwaggerResource> get() {
+        return resources;
+    }
+
+    /**
+     * 路由刷新完成后(包括启动时的首次加载)重新生成资源列表
+     */
+    @Override
+    public void onApplicationEvent(RefreshRoutesResultEvent event) {
+        if (!event.isSuccess()) {
+            return;
+        }
+        routeLocator.getRoutes()
+                .map(Route::getId)
+                .collect(Collectors.toSet())
+                .subscribe(routeIds -> {
+                    resources = buildResources(routeIds);
+                    log.debug("swagger资源列表已更新，服务数:{}", resources.size());
+                }, e -> log.warn("更新swagger资源列表失败", e));
+    }
+
+    /**
+     * 结合配置的route-路径(Path)，和route过滤，只获取有效的route节点
+     */
+    private List<SwaggerResource> buildResources(Set<String> routeIds) {
         List<SwaggerResource> resources = new ArrayList<>();
-        List<String> routes = new ArrayList<>();
-        //取出gateway的route
-        routeLocator.getRoutes().subscribe(route -> routes.add(route.getId()));
-        //结合配置的route-路径(Path)，和route过滤，只获取有效的route节点
-        gatewayProperties.getRoutes().stream().filter(routeDefinition -> routes.contains(routeDefinition.getId()))
+        gatewayProperties.getRoutes().stream().filter(routeDefinition -> routeIds.contains(routeDefinition.getId()))
                 .forEach(routeDefinition -> routeDefinition.getPredicates().stream()
                         .filter(predicateDefinition -> ("Path").equalsIgnoreCase(predicateDefinition.getName()))
-                        .forEach(predicateDefinition -> resources.add(swaggerResource(routeDefinition.getId(),
-                                predicateDefinition.getArgs().get(NameUtils.GENERATED_NAME_PREFIX + "0")
-                                        .replace("/**", API_URI)))));
-        return resources;
+                        .map(predicateDefinition -> predicateDefinition.getArgs().get(NameUtils.GENERATED_NAME_PREFIX + "0"))
+                        .filter(path -> path != null && path.endsWith("/**"))
+                        .forEach(path -> resources.add(swaggerResource(routeDefinition.getId(), path.replace("/**", API_URI)))));
+        return Collections.unmodifiableList(resources);
     }
 
     private SwaggerResource swaggerResource(String name, String url) {
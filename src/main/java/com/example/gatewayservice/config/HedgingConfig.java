@@ -0,0 +1,39 @@
+package com.example.gatewayservice.config;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 对冲请求配置，只对配置了的lb路由的GET请求生效
+ * @author Joetao
+ * @date 2026/10/18
+ */
+@Data
+@EqualsAndHashCode(callSuper = false)
+@Component
+@ConfigurationProperties(prefix="hedging")
+public class HedgingConfig {
+    /**按路由id配置的对冲规则**/
+    private Map<String, RouteHedgingConfig> routes = new HashMap<>();
+
+    @Data
+    public static class RouteHedgingConfig {
+        /**固定的对冲延迟，为空时取路由延迟的percentile分位数**/
+        private Duration delay;
+        /**按路由延迟分位数计算对冲延迟，可选0.5、0.95、0.99**/
+        private double percentile = 0.95;
+        /**对冲延迟的下限与上限，路由尚无延迟数据时取上限**/
+        private Duration minDelay = Duration.ofMillis(10);
+        private Duration maxDelay = Duration.ofSeconds(1);
+        /**对冲请求数占请求总数的最大百分比**/
+        private double budgetPercent = 5;
+        /**预算最多累积的对冲请求数，限制突发**/
+        private int budgetBurst = 10;
+    }
+}
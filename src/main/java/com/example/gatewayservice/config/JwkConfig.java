@@ -0,0 +1,45 @@
+package com.example.gatewayservice.config;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * JWK本地缓存与已验签token缓存配置
+ * @author Joetao
+ * @date 2026/10/18
+ */
+@Data
+@EqualsAndHashCode(callSuper = false)
+@Component
+@ConfigurationProperties(prefix="secure.jwk")
+public class JwkConfig {
+    /**后台刷新JWK的间隔**/
+    private Duration refreshInterval = Duration.ofMinutes(5);
+    /**启动时首次获取JWK的最长等待时间，超时后使用本地副本**/
+    private Duration initialLoadTimeout = Duration.ofSeconds(10);
+    /**单次请求jwk-set-uri的超时时间**/
+    private Duration fetchTimeout = Duration.ofSeconds(5);
+    /**刷新失败后的重试间隔，按指数退避从最小值增长到最大值**/
+    private Duration retryMinBackoff = Duration.ofSeconds(1);
+    private Duration retryMaxBackoff = Duration.ofMinutes(1);
+    /**遇到未知kid时触发刷新的最小间隔，避免伪造的token频繁请求认证服务**/
+    private Duration unknownKeyRefreshInterval = Duration.ofSeconds(30);
+    /**JWK本地副本路径，为空时不保存**/
+    private String localCopy = "cache/jwks.json";
+    /**已验签token缓存**/
+    private VerifiedCacheConfig verifiedCache = new VerifiedCacheConfig();
+
+    @Data
+    public static class VerifiedCacheConfig {
+        /**是否启用，关闭后每个请求都校验签名**/
+        private boolean enabled = true;
+        /**最大缓存token数量**/
+        private long maximumSize = 10000;
+        /**单个缓存项最长存活时间，实际存活时间不超过token的剩余有效期**/
+        private Duration maxTtl = Duration.ofMinutes(30);
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.gatewayservice.config;
+
+import com.example.gatewayservice.loadbalance.InstanceStatsRegistry;
+import com.example.gatewayservice.loadbalance.LatencyAwareRule;
+import com.netflix.client.config.IClientConfig;
+import com.netflix.loadbalancer.DynamicServerListLoadBalancer;
+import com.netflix.loadbalancer.ILoadBalancer;
+import com.netflix.loadbalancer.IPing;
+import com.netflix.loadbalancer.IRule;
+import com.netflix.loadbalancer.Server;
+import com.netflix.loadbalancer.ServerList;
+import com.netflix.loadbalancer.ServerListFilter;
+import com.netflix.loadbalancer.ServerListUpdater;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * 每个服务的Ribbon子容器中的负载均衡配置，由RibbonRuleConfig注册
+ * 不加@Configuration也不作为其他配置类的内部类，避免在主容器中注册后所有服务共用同一个IRule；
+ * 默认的ZoneAwareLoadBalancer按区域拆分实例时通过无参构造函数复制IRule，LatencyAwareRule依赖实例统计无法复制，
+ * 因此改用不区分区域的DynamicServerListLoadBalancer
+ * @author Joetao
+ * @date 2026/10/18
+ */
+public class LatencyAwareRibbonConfiguration {
+
+    @Bean
+    public IRule ribbonRule(InstanceStatsRegistry instanceStatsRegistry) {
+        return new LatencyAwareRule(instanceStatsRegistry);
+    }
+
+    @Bean
+    public ILoadBalancer ribbonLoadBalancer(IClientConfig config, ServerList<Server> serverList, ServerListFilter<Server> serverListFilter,
+                                            IRule rule, IPing ping, ServerListUpdater serverListUpdater) {
+        return new DynamicServerListLoadBalancer<>(config, rule, ping, serverList, serverListFilter, serverListUpdater);
+    }
+}
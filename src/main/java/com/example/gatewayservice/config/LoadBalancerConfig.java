@@ -0,0 +1,30 @@
+package com.example.gatewayservice.config;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * lb路由的负载均衡配置
+ * @author Joetao
+ * @date 2026/10/18
+ */
+@Data
+@EqualsAndHashCode(callSuper = false)
+@Component
+@ConfigurationProperties(prefix="load-balancer")
+public class LoadBalancerConfig {
+    /**是否按实例延迟与并发请求数选择实例，关闭时使用Ribbon默认的轮询**/
+    private boolean latencyAware = true;
+    /**延迟指数加权平均的时间常数，越小对延迟变化越敏感**/
+    private Duration decay = Duration.ofSeconds(10);
+    /**每个未完成请求附加的代价，限制新实例在首个响应前接收的请求数**/
+    private Duration inflightPenalty = Duration.ofMillis(5);
+    /**请求失败(连接异常或5xx)时按不低于该值的延迟计入，避免快速失败的实例吸引更多流量**/
+    private Duration errorPenalty = Duration.ofSeconds(1);
+    /**实例统计在多久未使用后清除**/
+    private Duration statsIdleTimeout = Duration.ofMinutes(10);
+}
@@ -0,0 +1,52 @@
+package com.example.gatewayservice.config;
+
+import com.example.gatewayservice.ratelimit.RateLimitKey;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 网关限流配置
+ * @author Joetao
+ * @date 2026/10/18
+ */
+@Data
+@EqualsAndHashCode(callSuper = false)
+@Component
+@ConfigurationProperties(prefix="rate-limit")
+public class RateLimitConfig {
+    /**是否启用限流，默认关闭，按路由配置好规则后再开启**/
+    private boolean enabled = false;
+    /**每条规则最多保留的令牌桶数量**/
+    private long maximumKeys = 100000;
+    /**令牌桶闲置超过该时间后回收**/
+    private Duration idleTimeout = Duration.ofMinutes(10);
+    /**跨节点对账配置**/
+    private RedisSyncConfig redisSync = new RedisSyncConfig();
+    /**按路由id配置的限流规则，一个路由可同时配置多条规则**/
+    private Map<String, List<RateLimitRule>> routes = new HashMap<>();
+
+    @Data
+    public static class RateLimitRule {
+        /**限流维度**/
+        private RateLimitKey key;
+        /**每秒允许的请求数**/
+        private double rate;
+        /**允许的突发请求数**/
+        private int burst = 1;
+    }
+
+    @Data
+    public static class RedisSyncConfig {
+        /**是否通过Redis批量对账各节点的请求数**/
+        private boolean enabled = false;
+        /**对账间隔**/
+        private Duration interval = Duration.ofSeconds(1);
+    }
+}
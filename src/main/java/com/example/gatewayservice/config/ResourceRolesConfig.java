@@ -0,0 +1,26 @@
+package com.example.gatewayservice.config;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 资源角色本地索引配置
+ * @author Joetao
+ * @date 2026/10/18
+ */
+@Data
+@EqualsAndHashCode(callSuper = false)
+@Component
+@ConfigurationProperties(prefix="secure.resource-roles")
+public class ResourceRolesConfig {
+    /**检查版本号的间隔，未设置版本号时按此间隔全量重新加载**/
+    private Duration refreshInterval = Duration.ofSeconds(30);
+    /**启动时首次加载的最长等待时间**/
+    private Duration initialLoadTimeout = Duration.ofSeconds(10);
+    /**是否订阅Redis键空间通知(需Redis开启notify-keyspace-events Kh)**/
+    private boolean keyspaceNotification = true;
+}
@@ -1,12 +1,19 @@
 package com.example.gatewayservice.config;
 
-import cn.hutool.core.util.ArrayUtil;
 import com.example.gatewayservice.auth.AuthorizationManager;
+import com.example.gatewayservice.auth.CachingReactiveJwtDecoder;
+import com.example.gatewayservice.auth.GatewayJwtAuthenticationConverter;
+import com.example.gatewayservice.auth.JwkManager;
 import com.example.gatewayservice.auth.RestAuthenticationEntryPoint;
 import com.example.gatewayservice.auth.RestfulAccessDeniedHandler;
+import com.example.gatewayservice.auth.WhitelistMatcher;
 import com.example.gatewayservice.constant.AuthConstant;
 import com.example.gatewayservice.filter.IgnoreUrlsRemoveJwtFilter;
+import com.example.gatewayservice.trace.Stage;
+import com.example.gatewayservice.trace.StageTimings;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.security.oauth2.resource.OAuth2ResourceServerProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.convert.converter.Converter;
@@ -14,10 +21,11 @@ import org.springframework.security.authentication.AbstractAuthenticationToken;
 import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
 import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
 import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
 import org.springframework.security.oauth2.jwt.Jwt;
-import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.jwt.NimbusReactiveJwtDecoder;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
 import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
-import org.springframework.security.oauth2.server.resource.authentication.ReactiveJwtAuthenticationConverterAdapter;
 import org.springframework.security.web.server.SecurityWebFilterChain;
 import reactor.core.publisher.Mono;
 
@@ -30,10 +38,11 @@ import reactor.core.publisher.Mono;
 @EnableWebFluxSecurity
 public class ResourceServerConfig {
     private final AuthorizationManager authorizationManager;
-    private final IgnoreUrlsConfig ignoreUrlsConfig;
+    private final WhitelistMatcher whitelistMatcher;
     private final RestfulAccessDeniedHandler restfulAccessDeniedHandler;
     private final RestAuthenticationEntryPoint restAuthenticationEntryPoint;
     private final IgnoreUrlsRemoveJwtFilter ignoreUrlsRemoveJwtFilter;
+    private final TokenCacheConfig tokenCacheConfig;
 
     @Bean
     public SecurityWebFilterChain springSecurityFilterChain(ServerHttpSecurity http) {
@@ -44,7 +53,7 @@ public class ResourceServerConfig {
         //对白名单路径，直接移除JWT请求头
         http.addFilterBefore(ignoreUrlsRemoveJwtFilter, SecurityWebFiltersOrder.AUTHENTICATION);
         http.authorizeExchange()
-                .pathMatchers(ArrayUtil.toArray(ignoreUrlsConfig.getUrls(),String.class)).permitAll()//白名单配置
+                .matchers(whitelistMatcher).permitAll()//白名单配置
                 .anyExchange().access(authorizationManager)//鉴权管理器配置
                 .and().exceptionHandling()
                 .authenticationEntryPoint(restAuthenticationEntryPoint)//处理未认证
@@ -53,13 +62,25 @@ public class ResourceServerConfig {
         return http.build();
     }
 
+    /**
+     * JWT解码器，公钥取自JwkManager的本地缓存，已验签的token直接命中缓存，额外记录JWT校验耗时
+     */
+    @Bean
+    public ReactiveJwtDecoder jwtDecoder(OAuth2ResourceServerProperties properties, JwkManager jwkManager,
+                                         JwkConfig jwkConfig, MeterRegistry meterRegistry) {
+        NimbusReactiveJwtDecoder nimbusDecoder = NimbusReactiveJwtDecoder.withJwkSource(jwkManager::select)
+                .jwsAlgorithm(SignatureAlgorithm.from(properties.getJwt().getJwsAlgorithm()))
+                .build();
+        CachingReactiveJwtDecoder decoder = new CachingReactiveJwtDecoder(nimbusDecoder, jwkConfig.getVerifiedCache(), meterRegistry);
+        jwkManager.addKeySetListener(decoder::invalidateAll);
+        return token -> StageTimings.timed(Stage.JWT, decoder.decode(token));
+    }
+
     @Bean
     public Converter<Jwt, ? extends Mono<? extends AbstractAuthenticationToken>> jwtAuthenticationConverter() {
         JwtGrantedAuthoritiesConverter jwtGrantedAuthoritiesConverter = new JwtGrantedAuthoritiesConverter();
         jwtGrantedAuthoritiesConverter.setAuthorityPrefix(AuthConstant.AUTHORITY_PREFIX);
         jwtGrantedAuthoritiesConverter.setAuthoritiesClaimName(AuthConstant.AUTHORITY_CLAIM_NAME);
-        JwtAuthenticationConverter jwtAuthenticationConverter = new JwtAuthenticationConverter();
-        jwtAuthenticationConverter.setJwtGrantedAuthoritiesConverter(jwtGrantedAuthoritiesConverter);
-        return new ReactiveJwtAuthenticationConverterAdapter(jwtAuthenticationConverter);
+        return new GatewayJwtAuthenticationConverter(jwtGrantedAuthoritiesConverter, tokenCacheConfig);
     }
 }
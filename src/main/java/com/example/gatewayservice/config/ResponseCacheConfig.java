@@ -0,0 +1,48 @@
+package com.example.gatewayservice.config;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 网关响应缓存配置，只缓存配置了的路由
+ * @author Joetao
+ * @date 2026/10/18
+ */
+@Data
+@EqualsAndHashCode(callSuper = false)
+@Component
+@ConfigurationProperties(prefix="response-cache")
+public class ResponseCacheConfig {
+    /**缓存总容量，按响应体字节数计算**/
+    private DataSize maximumSize = DataSize.ofMegabytes(64);
+    /**响应体是否存放在堆外内存，堆外内存总量受-XX:MaxDirectMemorySize限制**/
+    private boolean offHeap = false;
+    /**按路由id配置的缓存规则**/
+    private Map<String, RouteCacheConfig> routes = new HashMap<>();
+    /**各路由/v3/api-docs文档的缓存规则，优先于路由的缓存规则，为空时不缓存**/
+    private RouteCacheConfig apiDocs;
+
+    @Data
+    public static class RouteCacheConfig {
+        /**上游未通过Cache-Control指定有效期时使用的缓存时间，为空时不缓存**/
+        private Duration ttl;
+        /**是否忽略上游的Cache-Control，始终按ttl缓存**/
+        private boolean ignoreCacheControl = false;
+        /**响应内容是否与用户相关，开启时缓存key包含当前用户**/
+        private boolean userScoped = true;
+        /**单个响应体的最大缓存大小**/
+        private DataSize maxEntrySize = DataSize.ofKilobytes(256);
+        /**参与缓存key的请求头**/
+        private List<String> varyHeaders = new ArrayList<>(Arrays.asList("Accept", "Accept-Encoding", "Accept-Language"));
+    }
+}
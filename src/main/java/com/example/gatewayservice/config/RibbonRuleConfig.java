@@ -0,0 +1,16 @@
+package com.example.gatewayservice.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.netflix.ribbon.RibbonClients;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * lb路由使用LatencyAwareRule选择实例
+ * @author Joetao
+ * @date 2026/10/18
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "load-balancer", name = "latency-aware", havingValue = "true", matchIfMissing = true)
+@RibbonClients(defaultConfiguration = LatencyAwareRibbonConfiguration.class)
+public class RibbonRuleConfig {
+}
@@ -0,0 +1,26 @@
+package com.example.gatewayservice.config;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 网关本地token认证信息缓存配置
+ * @author Joetao
+ * @date 2026/10/18
+ */
+@Data
+@EqualsAndHashCode(callSuper = false)
+@Component
+@ConfigurationProperties(prefix="secure.token-cache")
+public class TokenCacheConfig {
+    /**是否启用本地缓存**/
+    private boolean enabled = true;
+    /**最大缓存token数量**/
+    private long maximumSize = 10000;
+    /**单个缓存项最长存活时间，实际存活时间不超过token自身的剩余有效期**/
+    private Duration maxTtl = Duration.ofMinutes(5);
+}
@@ -0,0 +1,44 @@
+package com.example.gatewayservice.config;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 按路由独立的上游连接池配置，未配置的路由使用spring.cloud.gateway.httpclient的共享连接池
+ * @author Joetao
+ * @date 2026/10/18
+ */
+@Data
+@EqualsAndHashCode(callSuper = false)
+@Component
+@ConfigurationProperties(prefix="upstream-pool")
+public class UpstreamPoolConfig {
+    /**按路由id配置的连接池**/
+    private Map<String, RoutePoolConfig> routes = new HashMap<>();
+
+    @Data
+    public static class RoutePoolConfig {
+        /**每个上游实例的最大连接数**/
+        private int maxConnections = 200;
+        /**等待获取连接的最大请求数，超出时直接失败**/
+        private int pendingAcquireMaxCount = 1000;
+        /**等待获取连接的超时时间**/
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(5);
+        /**连接最大空闲时间，需小于上游的keep-alive超时**/
+        private Duration maxIdleTime = Duration.ofSeconds(30);
+        /**连接最长存活时间，为空时不限制**/
+        private Duration maxLifeTime;
+        /**后台清理空闲连接的间隔，为空时只在获取连接时清理**/
+        private Duration evictInterval = Duration.ofSeconds(30);
+        /**是否复用连接(HTTP keep-alive)**/
+        private boolean keepAlive = true;
+        /**是否以h2c(HTTP/2明文，prior knowledge)连接上游，多个请求复用同一连接，上游需支持h2c**/
+        private boolean h2c = false;
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.gatewayservice.config;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 启动预热配置，预热完成后网关才报告就绪
+ * @author Joetao
+ * @date 2026/10/18
+ */
+@Data
+@EqualsAndHashCode(callSuper = false)
+@Component
+@ConfigurationProperties(prefix="warmup")
+public class WarmupConfig {
+    /**是否启用预热**/
+    private boolean enabled = true;
+    /**预热总时长上限，超时后放弃剩余步骤直接就绪**/
+    private Duration timeout = Duration.ofSeconds(60);
+    /**Redis连接预热时的PING次数**/
+    private int redisPings = 10;
+    /**每个上游实例预先建立的连接数**/
+    private int connectionsPerInstance = 2;
+    /**校验上游连接时请求的路径，只要求收到HTTP响应，不检查状态码**/
+    private String upstreamPath = "/";
+    /**单次上游连接校验的超时时间**/
+    private Duration upstreamTimeout = Duration.ofSeconds(3);
+    /**经过网关自身过滤器链的模拟请求路径**/
+    private List<String> paths = new ArrayList<>();
+    /**模拟请求携带的token，为空时受保护路径的请求以未认证身份被拒绝，不会读取token认证信息**/
+    private String token;
+    /**每个模拟请求路径的请求次数**/
+    private int iterations = 200;
+    /**模拟请求的并发数**/
+    private int concurrency = 4;
+}
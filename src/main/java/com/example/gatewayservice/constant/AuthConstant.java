@@ -8,4 +8,14 @@ public class AuthConstant {
     public static final String AUTHORITY_PREFIX = "ROLE_";
 
     public static final String AUTHORITY_CLAIM_NAME = "authorities";
+
+    public static final String LOGOUT_PATH = "/oauth2/logout";
+
+    public static final String ACCESS_TOKEN_PARAM = "access_token";
+
+    /**exchange属性：当前请求的GatewayPrincipal**/
+    public static final String GATEWAY_PRINCIPAL_ATTR = "gatewayPrincipal";
+
+    /**exchange属性：当前请求是否命中白名单**/
+    public static final String WHITELISTED_ATTR = "gatewayWhitelisted";
 }
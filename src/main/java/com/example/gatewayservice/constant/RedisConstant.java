@@ -6,4 +6,16 @@ package com.example.gatewayservice.constant;
  */
 public class RedisConstant {
     public static final String RESOURCE_ROLES_MAP = "AUTH:RESOURCE_ROLES_MAP";
+
+    /**资源角色映射版本号，修改RESOURCE_ROLES_MAP后递增，网关据此重建本地索引**/
+    public static final String RESOURCE_ROLES_VERSION = "AUTH:RESOURCE_ROLES_VERSION";
+
+    /**RedisTokenStore中access_token对应OAuth2Authentication的key前缀**/
+    public static final String TOKEN_AUTH_PREFIX = "auth:";
+
+    /**token注销广播频道，消息内容为token的SHA-256摘要**/
+    public static final String TOKEN_REVOKE_CHANNEL = "AUTH:TOKEN_REVOKE";
+
+    /**网关限流跨节点对账计数的key前缀**/
+    public static final String RATE_LIMIT_PREFIX = "GATEWAY:RATE_LIMIT:";
 }
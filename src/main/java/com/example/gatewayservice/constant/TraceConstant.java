@@ -0,0 +1,19 @@
+package com.example.gatewayservice.constant;
+
+/**
+ * @author Joetao
+ * @date 2026/10/18
+ */
+public class TraceConstant {
+    /**W3C Trace Context请求头**/
+    public static final String TRACEPARENT_HEADER = "traceparent";
+
+    /**响应头：本次请求的traceId，沿用原有的requestId响应头**/
+    public static final String REQUEST_ID_HEADER = "requestId";
+
+    /**exchange属性：当前请求的TraceContext**/
+    public static final String TRACE_CONTEXT_ATTR = "gatewayTraceContext";
+
+    /**exchange属性：当前请求的StageTimings**/
+    public static final String STAGE_TIMINGS_ATTR = "gatewayStageTimings";
+}
@@ -3,6 +3,7 @@ package com.example.gatewayservice.entity;
 import lombok.Data;
 
 import java.util.Date;
+import java.util.Map;
 
 @Data
 public class GatewayLog {
@@ -14,8 +15,10 @@ public class GatewayLog {
     private String requestPath;
     /**请求方法*/
     private String requestMethod;
-    /**请求id**/
+    /**请求id，即W3C traceId**/
     private String requestId;
+    /**网关span id**/
+    private String spanId;
     /**协议 */
     private String schema;
     /**用户id**/
@@ -38,4 +41,6 @@ public class GatewayLog {
     private long executeTime;
     /**客户端标识**/
     private String clientId;
+    /**各阶段耗时(微秒)，key为阶段名称**/
+    private Map<String, Long> stageTimes;
 }
@@ -0,0 +1,22 @@
+package com.example.gatewayservice.entity;
+
+import lombok.Data;
+
+/**
+ * 已校验JWT中的用户信息，同一token只解析一次，通过exchange属性在过滤器之间共享
+ * @author Joetao
+ * @date 2026/10/18
+ */
+@Data
+public class GatewayPrincipal {
+    /**用户id，客户端模式token为0**/
+    private final Long userId;
+    /**用户账号，客户端模式token为空字符串**/
+    private final String username;
+    /**客户端标识**/
+    private final String clientId;
+    /**JWT载荷原文**/
+    private final String payload;
+    /**URL编码后的JWT载荷，作为user请求头传递给下游服务**/
+    private final String encodedPayload;
+}
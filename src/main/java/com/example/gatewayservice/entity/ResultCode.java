@@ -17,7 +17,9 @@ public enum ResultCode {
     REFRESH_TOKEN_EXPIRED(401, "refreshToken过期"),
     VALID_TOKEN(407, "无效的token"),
     CONFLICT(409, "资源已存在"),
+    TOO_MANY_REQUESTS(429, "请求过于频繁"),
     SERVER_ERROR(500, "未知错误"),
+    SERVICE_UNAVAILABLE(503, "服务繁忙，请稍后重试"),
 
     ;
     private final int code;
@@ -1,60 +1,57 @@
 package com.example.gatewayservice.filter;
 
 import cn.hutool.core.util.ObjectUtil;
-import cn.hutool.core.util.StrUtil;
-import com.alibaba.fastjson.JSON;
-import com.alibaba.fastjson.JSONObject;
-import com.alibaba.fastjson.serializer.SerializerFeature;
+import com.example.gatewayservice.accesslog.AccessLogSink;
+import com.example.gatewayservice.accesslog.BodyCapture;
+import com.example.gatewayservice.accesslog.BodyLogMode;
 import com.example.gatewayservice.common.IpUtils;
+import com.example.gatewayservice.config.AccessLogConfig;
+import com.example.gatewayservice.constant.AuthConstant;
+import com.example.gatewayservice.constant.TraceConstant;
 import com.example.gatewayservice.entity.GatewayLog;
-import com.nimbusds.jose.JWSObject;
+import com.example.gatewayservice.entity.GatewayPrincipal;
+import com.example.gatewayservice.trace.Stage;
+import com.example.gatewayservice.trace.StageTimings;
+import com.example.gatewayservice.trace.TraceContext;
+import com.example.gatewayservice.warmup.WarmupRequests;
 import io.netty.util.internal.StringUtil;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang.StringUtils;
-import org.apache.commons.lang3.RandomStringUtils;
 import org.reactivestreams.Publisher;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
-import org.springframework.cloud.gateway.filter.factory.rewrite.CachedBodyOutputMessage;
 import org.springframework.cloud.gateway.route.Route;
-import org.springframework.cloud.gateway.support.BodyInserterContext;
 import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
 import org.springframework.core.Ordered;
 import org.springframework.core.io.buffer.DataBuffer;
-import org.springframework.core.io.buffer.DataBufferFactory;
-import org.springframework.core.io.buffer.DataBufferUtils;
-import org.springframework.core.io.buffer.DefaultDataBufferFactory;
-import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
-import org.springframework.http.codec.HttpMessageReader;
 import org.springframework.http.server.reactive.ServerHttpRequest;
-import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
 import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
 import org.springframework.stereotype.Component;
 import org.springframework.util.MultiValueMap;
-import org.springframework.web.reactive.function.BodyInserter;
-import org.springframework.web.reactive.function.BodyInserters;
-import org.springframework.web.reactive.function.server.HandlerStrategies;
-import org.springframework.web.reactive.function.server.ServerRequest;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import java.io.UnsupportedEncodingException;
-import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
-import java.text.ParseException;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Slf4j
 @Component
 public class AccessLogFilter implements GlobalFilter, Ordered {
-    private final List<HttpMessageReader<?>> messageReaders = HandlerStrategies.withDefaults().messageReaders();
+    private final AccessLogSink accessLogSink;
+    private final AccessLogConfig accessLogConfig;
+
+    public AccessLogFilter(AccessLogSink accessLogSink, AccessLogConfig accessLogConfig) {
+        this.accessLogSink = accessLogSink;
+        this.accessLogConfig = accessLogConfig;
+    }
 
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
@@ -69,53 +66,52 @@ public class AccessLogFilter implements GlobalFilter, Ordered {
         }
         Route route = getGatewayRoute(exchange);
 
-        String ipAddress = IpUtils.getRealIpAddress(request);
-        String requestId = RandomStringUtils.random(9, true, true);
-        ServerHttpResponse response = exchange.getResponse();
-        response.getHeaders().set("requestId", requestId);
+        // 请求id即traceId，由TraceContextWebFilter生成并写入requestId响应头
+        TraceContext traceContext = exchange.getAttribute(TraceConstant.TRACE_CONTEXT_ATTR);
+        if (traceContext == null) {
+            traceContext = TraceContext.continueOrCreate(null);
+        }
 
         String clientType = exchange.getResponse().getHeaders().getFirst("client_type");
         String clientId = exchange.getResponse().getHeaders().getFirst("client_id");
 
+        //鉴权阶段已解析的用户信息，不再重复解析JWT
+        GatewayPrincipal principal = exchange.getAttribute(AuthConstant.GATEWAY_PRINCIPAL_ATTR);
+        if (principal != null) {
+            log.debug("AccessLogFilter.filter() user:{}", principal.getPayload());
+            request = request.mutate().header("user", principal.getEncodedPayload()).header("client_id", clientId).build();
+            exchange = exchange.mutate().request(request).build();
+        }
+
+        // 按路由的日志策略决定是否记录以及是否缓存报文体
+        BodyLogMode mode = resolveBodyLogMode(route.getId());
+        if (mode == BodyLogMode.OFF) {
+            return chain.filter(exchange);
+        }
+
         GatewayLog gatewayLog = new GatewayLog();
         gatewayLog.setSchema(request.getURI().getScheme());
         gatewayLog.setRequestMethod(request.getMethodValue());
         gatewayLog.setRequestPath(requestPath);
         gatewayLog.setTargetServer(route.getId());
         gatewayLog.setRequestTime(new Date());
-        gatewayLog.setIp(ipAddress);
+        gatewayLog.setIp(IpUtils.getRealIpAddress(request));
         gatewayLog.setClientType(clientType);
         gatewayLog.setClientId(clientId);
-        gatewayLog.setRequestId(requestId);
-
-        String token = exchange.getRequest().getHeaders().getFirst("Authorization");
-        if (!StrUtil.isEmpty(token)) {
-            try {
-                //从token中解析用户信息并设置到Header中去
-                String realToken = token.replace("Bearer ", "");
-                JWSObject jwsObject = JWSObject.parse(realToken);
-                String userStr = jwsObject.getPayload().toString();
-                JSONObject jsonObj = JSONObject.parseObject(userStr);
-                Long userId = jsonObj.getLong("id");
-                String username = jsonObj.getString("user_name");
-                gatewayLog.setUsername(username == null ? "" : username);
-                gatewayLog.setUserId(userId == null ? 0 : userId);
-                log.info("AuthGlobalFilter.filter() user:{}", userStr);
-                request = request.mutate().header("user", URLEncoder.encode(userStr, "UTF-8")).header("client_id", clientId).build();
-                exchange = exchange.mutate().request(request).build();
-            } catch (ParseException e) {
-                e.printStackTrace();
-            } catch (UnsupportedEncodingException e) {
-                throw new RuntimeException(e);
-            }
+        gatewayLog.setRequestId(traceContext.getTraceId());
+        gatewayLog.setSpanId(traceContext.getSpanId());
+        if (principal != null) {
+            gatewayLog.setUsername(principal.getUsername());
+            gatewayLog.setUserId(principal.getUserId());
         }
 
         MediaType mediaType = request.getHeaders().getContentType();
 
-        if(MediaType.APPLICATION_FORM_URLENCODED.isCompatibleWith(mediaType) || MediaType.APPLICATION_JSON.isCompatibleWith(mediaType)){
-            return writeBodyLog(exchange, chain, gatewayLog);
+        if (mode != BodyLogMode.METADATA
+                && (MediaType.APPLICATION_FORM_URLENCODED.isCompatibleWith(mediaType) || MediaType.APPLICATION_JSON.isCompatibleWith(mediaType))) {
+            return writeBodyLog(exchange, chain, gatewayLog, mode);
         }else{
-            return writeBasicLog(exchange, chain, gatewayLog);
+            return writeBasicLog(exchange, chain, gatewayLog, mode);
         }
     }
 
@@ -124,7 +120,7 @@ public class AccessLogFilter implements GlobalFilter, Ordered {
         return -100;
     }
 
-    private Mono<Void> writeBasicLog(ServerWebExchange exchange, GatewayFilterChain chain, GatewayLog accessLog) {
+    private Mono<Void> writeBasicLog(ServerWebExchange exchange, GatewayFilterChain chain, GatewayLog accessLog, BodyLogMode mode) {
         StringBuilder builder = new StringBuilder();
         MultiValueMap<String, String> queryParams = exchange.getRequest().getQueryParams();
         for (Map.Entry<String, List<String>> entry : queryParams.entrySet()) {
@@ -133,86 +129,80 @@ public class AccessLogFilter implements GlobalFilter, Ordered {
         accessLog.setRequestBody(builder.toString());
 
         //获取响应体
-        ServerHttpResponseDecorator decoratedResponse = recordResponseLog(exchange, accessLog);
+        ServerHttpResponseDecorator decoratedResponse = recordResponseLog(exchange, accessLog, mode);
 
         return chain.filter(exchange.mutate().response(decoratedResponse).build())
                 .then(Mono.fromRunnable(() -> {
                     // 打印日志
-                    writeAccessLog(accessLog);
+                    writeAccessLog(exchange, accessLog, mode);
                 }));
     }
 
-    private Mono writeBodyLog(ServerWebExchange exchange, GatewayFilterChain chain, GatewayLog gatewayLog) {
-        ServerRequest serverRequest = ServerRequest.create(exchange,messageReaders);
-
-        Mono<String> modifiedBody = serverRequest.bodyToMono(String.class)
-                .flatMap(body ->{
-                    gatewayLog.setRequestBody(body);
-                    return Mono.just(body);
-                });
-
-        // 通过 BodyInserter 插入 body(支持修改body), 避免 request body 只能获取一次
-        BodyInserter bodyInserter = BodyInserters.fromPublisher(modifiedBody, String.class);
-        HttpHeaders headers = new HttpHeaders();
-        headers.putAll(exchange.getRequest().getHeaders());
-
-        headers.remove(HttpHeaders.CONTENT_LENGTH);
-
-        CachedBodyOutputMessage outputMessage = new CachedBodyOutputMessage(exchange, headers);
-
-        return bodyInserter.insert(outputMessage,new BodyInserterContext())
-                .then(Mono.defer(() -> {
-                    // 重新封装请求
-                    ServerHttpRequest decoratedRequest = requestDecorate(exchange, headers, outputMessage);
+    private Mono<Void> writeBodyLog(ServerWebExchange exchange, GatewayFilterChain chain, GatewayLog gatewayLog, BodyLogMode mode) {
+        int maxBodyBytes = accessLogConfig.getMaxBodyBytes(gatewayLog.getTargetServer());
+        // 缓存原始DataBuffer(Netty下合并为CompositeByteBuf，不拷贝)，转发时重放同一份数据并保留原Content-Length，
+        // 只解码前N个字节用于日志；缓存的body由RemoveCachedBodyFilter在请求结束时释放
+        long captureStart = System.nanoTime();
+        return ServerWebExchangeUtils.cacheRequestBody(exchange, cachedRequest -> {
+            DataBuffer cachedBody = exchange.getAttribute(ServerWebExchangeUtils.CACHED_REQUEST_BODY_ATTR);
+            if (cachedBody != null) {
+                BodyCapture capture = new BodyCapture(maxBodyBytes);
+                capture.append(cachedBody);
+                gatewayLog.setRequestBody(capture.toString(StandardCharsets.UTF_8));
+            }
+            StageTimings.record(exchange, Stage.BODY_CAPTURE, captureStart);
 
-                    // 记录响应日志
-                    ServerHttpResponseDecorator decoratedResponse = recordResponseLog(exchange, gatewayLog);
+            // 记录响应日志
+            ServerHttpResponseDecorator decoratedResponse = recordResponseLog(exchange, gatewayLog, mode);
 
-                    // 记录普通的
-                    return chain.filter(exchange.mutate().request(decoratedRequest).response(decoratedResponse).build())
-                            .then(Mono.fromRunnable(() -> {
-                                // 打印日志
-                                writeAccessLog(gatewayLog);
-                            }));
-                }));
+            return chain.filter(exchange.mutate().request(cachedRequest).response(decoratedResponse).build())
+                    .then(Mono.fromRunnable(() -> {
+                        // 打印日志
+                        writeAccessLog(exchange, gatewayLog, mode);
+                    }));
+        });
     }
-    private void writeAccessLog(GatewayLog gatewayLog) {
-        String logInfo = JSON.toJSONString(gatewayLog, SerializerFeature.WriteMapNullValue, SerializerFeature.DisableCircularReferenceDetect, SerializerFeature.WriteDateUseDateFormat);
-        log.warn("==access== {}",logInfo);
+    private void writeAccessLog(ServerWebExchange exchange, GatewayLog gatewayLog, BodyLogMode mode) {
+        StageTimings stageTimings = StageTimings.from(exchange);
+        if (stageTimings != null) {
+            gatewayLog.setStageTimes(stageTimings.toMicros());
+        }
+        // ON_ERROR模式下正常且不慢的请求不保留报文体
+        if (mode == BodyLogMode.ON_ERROR && !isErrorOrSlow(gatewayLog)) {
+            gatewayLog.setRequestBody(null);
+            gatewayLog.setResponseData(null);
+        }
+        // 预热请求只为执行日志代码，不写出
+        if (WarmupRequests.isWarmup(exchange)) {
+            return;
+        }
+        // 交给异步日志管道序列化与写出，不占用事件循环线程
+        accessLogSink.publish(gatewayLog);
     }
 
-    private Route getGatewayRoute(ServerWebExchange exchange) {
-        return exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+    /**
+     * SAMPLED在请求开始时确定是否采中，未采中的请求按METADATA处理，不缓存报文体
+     */
+    private BodyLogMode resolveBodyLogMode(String routeId) {
+        BodyLogMode mode = accessLogConfig.getBodyMode(routeId);
+        if (mode == BodyLogMode.SAMPLED) {
+            return ThreadLocalRandom.current().nextDouble() < accessLogConfig.getBodySampleRate(routeId) ? BodyLogMode.FULL : BodyLogMode.METADATA;
+        }
+        return mode;
     }
 
-    private ServerHttpRequestDecorator requestDecorate(ServerWebExchange exchange, HttpHeaders headers,
-                                                       CachedBodyOutputMessage outputMessage) {
-        return new ServerHttpRequestDecorator(exchange.getRequest()) {
-            @Override
-            public HttpHeaders getHeaders() {
-                long contentLength = headers.getContentLength();
-                HttpHeaders httpHeaders = new HttpHeaders();
-                httpHeaders.putAll(super.getHeaders());
-                if (contentLength > 0) {
-                    httpHeaders.setContentLength(contentLength);
-                } else {
-                    // TODO: this causes a 'HTTP/1.1 411 Length Required' // on
-                    // httpbin.org
-                    httpHeaders.set(HttpHeaders.TRANSFER_ENCODING, "chunked");
-                }
-                return httpHeaders;
-            }
+    private boolean isErrorOrSlow(GatewayLog gatewayLog) {
+        Integer status = gatewayLog.getStatus();
+        return (status != null && status >= HttpStatus.BAD_REQUEST.value())
+                || gatewayLog.getExecuteTime() >= accessLogConfig.getSlowThreshold(gatewayLog.getTargetServer()).toMillis();
+    }
 
-            @Override
-            public Flux<DataBuffer> getBody() {
-                return outputMessage.getBody();
-            }
-        };
+    private Route getGatewayRoute(ServerWebExchange exchange) {
+        return exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
     }
 
-    private ServerHttpResponseDecorator recordResponseLog(ServerWebExchange exchange, GatewayLog gatewayLog) {
+    private ServerHttpResponseDecorator recordResponseLog(ServerWebExchange exchange, GatewayLog gatewayLog, BodyLogMode mode) {
         ServerHttpResponse response = exchange.getResponse();
-        DataBufferFactory bufferFactory = response.bufferFactory();
 
         return new ServerHttpResponseDecorator(response) {
             @Override
@@ -229,26 +219,17 @@ public class AccessLogFilter implements GlobalFilter, Ordered {
                     String originalResponseContentType = exchange.getAttribute(ServerWebExchangeUtils.ORIGINAL_RESPONSE_CONTENT_TYPE_ATTR);
                     gatewayLog.setStatus(Objects.requireNonNull(this.getStatusCode()).value());
 
-                    if (ObjectUtil.equal(this.getStatusCode(), HttpStatus.OK)
+                    // METADATA模式不截取响应体；ON_ERROR模式需要截取错误响应，不限制状态码
+                    if (mode != BodyLogMode.METADATA
+                            && (mode == BodyLogMode.ON_ERROR || ObjectUtil.equal(this.getStatusCode(), HttpStatus.OK))
                             && !StringUtil.isNullOrEmpty(originalResponseContentType)
                             && originalResponseContentType.contains("application/json")) {
 
-                        Flux<? extends DataBuffer> fluxBody = Flux.from(body);
-                        return super.writeWith(fluxBody.buffer().map(dataBuffers -> {
-
-                            // 合并多个流集合，解决返回体分段传输
-                            DataBufferFactory dataBufferFactory = new DefaultDataBufferFactory();
-                            DataBuffer join = dataBufferFactory.join(dataBuffers);
-                            byte[] content = new byte[join.readableByteCount()];
-                            join.read(content);
-
-                            // 释放掉内存
-                            DataBufferUtils.release(join);
-                            String responseResult = new String(content, StandardCharsets.UTF_8);
-                            gatewayLog.setResponseData(responseResult);
-
-                            return bufferFactory.wrap(content);
-                        }));
+                        // 旁路截取响应体前N个字节，原始缓冲区不做合并与拷贝，直接透传给客户端
+                        BodyCapture capture = new BodyCapture(accessLogConfig.getMaxBodyBytes(gatewayLog.getTargetServer()));
+                        return super.writeWith(Flux.from(body)
+                                .doOnNext(capture::append)
+                                .doOnTerminate(() -> gatewayLog.setResponseData(capture.toString(StandardCharsets.UTF_8))));
                     }
                 }
                 return super.writeWith(body);
@@ -0,0 +1,77 @@
+package com.example.gatewayservice.filter;
+
+import com.example.gatewayservice.cache.CachedResponse;
+import com.example.gatewayservice.cache.CapturingResponseDecorator;
+import com.example.gatewayservice.cache.RequestCoalescer;
+import com.example.gatewayservice.cache.RequestKeys;
+import com.example.gatewayservice.config.CoalesceConfig;
+import com.example.gatewayservice.warmup.WarmupRequests;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * 合并并发的相同GET请求，只转发一次上游请求，响应复制给所有等待的请求
+ * 安全过滤链在GlobalFilter之前执行，每个请求都已单独完成鉴权后才会加入合并；
+ * 在访问日志之后执行，合并的请求仍各自记录访问日志
+ * @author Joetao
+ * @date 2026/10/18
+ */
+@Component
+public class CoalescingFilter implements GlobalFilter, Ordered {
+    private final CoalesceConfig coalesceConfig;
+    private final RequestCoalescer requestCoalescer;
+
+    public CoalescingFilter(CoalesceConfig coalesceConfig, RequestCoalescer requestCoalescer) {
+        this.coalesceConfig = coalesceConfig;
+        this.requestCoalescer = requestCoalescer;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        CoalesceConfig.RouteCoalesceConfig config = route != null ? coalesceConfig.getRoutes().get(route.getId()) : null;
+        if (config == null || request.getMethod() != HttpMethod.GET || request.getHeaders().containsKey(HttpHeaders.RANGE)
+                || WarmupRequests.isWarmup(exchange)) {
+            return chain.filter(exchange);
+        }
+        RequestCoalescer.Flight flight = requestCoalescer.acquire(
+                RequestKeys.build(exchange, route.getId(), config.getVaryHeaders(), config.isPerPrincipal()), config.getMaxWaiters());
+        if (flight == null) {
+            return chain.filter(exchange);
+        }
+        if (flight.isLeader()) {
+            CapturingResponseDecorator response = new CapturingResponseDecorator(exchange.getResponse(), (int) config.getMaxResponseSize().toBytes());
+            return chain.filter(exchange.mutate().response(response).build())
+                    .doFinally(signal -> requestCoalescer.complete(flight, response.toCachedResponse()));
+        }
+        return flight.response()
+                .timeout(config.getMaxWait())
+                .onErrorResume(e -> Mono.empty())
+                .flatMap(cached -> write(exchange, cached).thenReturn(Boolean.TRUE))
+                .switchIfEmpty(Mono.defer(() -> chain.filter(exchange).thenReturn(Boolean.TRUE)))
+                .then();
+    }
+
+    @Override
+    public int getOrder() {
+        return -40;
+    }
+
+    private Mono<Void> write(ServerWebExchange exchange, CachedResponse cached) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(cached.getStatus());
+        response.getHeaders().putAll(cached.getHeaders());
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.getBody())));
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.gatewayservice.filter;
+
+import cn.hutool.json.JSONUtil;
+import com.example.gatewayservice.concurrency.UpstreamGuard;
+import com.example.gatewayservice.concurrency.UpstreamGuardRegistry;
+import com.example.gatewayservice.config.ConcurrencyLimitConfig;
+import com.example.gatewayservice.entity.ResultCode;
+import com.example.gatewayservice.entity.ResultJson;
+import com.example.gatewayservice.warmup.WarmupRequests;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 按路由、上游实例限制并发请求数并熔断
+ * 在负载均衡选定实例之后执行(LoadBalancerClientFilter的order为10100)，超限或熔断时直接返回，不再转发
+ * @author Joetao
+ * @date 2026/10/18
+ */
+@Slf4j
+@Component
+public class ConcurrencyLimitFilter implements GlobalFilter, Ordered {
+    private static final byte[] SERVICE_UNAVAILABLE = JSONUtil.toJsonStr(ResultJson.failure(ResultCode.SERVICE_UNAVAILABLE))
+            .getBytes(StandardCharsets.UTF_8);
+
+    private final UpstreamGuardRegistry upstreamGuardRegistry;
+
+    public ConcurrencyLimitFilter(UpstreamGuardRegistry upstreamGuardRegistry) {
+        this.upstreamGuardRegistry = upstreamGuardRegistry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        URI requestUrl = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR);
+        ConcurrencyLimitConfig.RouteConcurrencyConfig config = route != null ? upstreamGuardRegistry.getRouteConfig(route.getId()) : null;
+        // 预热请求的耗时包含建连与JIT编译，不作为并发限制和熔断的样本
+        if (config == null || requestUrl == null || WarmupRequests.isWarmup(exchange)) {
+            return chain.filter(exchange);
+        }
+        UpstreamGuard guard = upstreamGuardRegistry.getGuard(route.getId(), requestUrl.getAuthority(), config);
+        long permit = guard.tryAcquire();
+        if (permit < 0) {
+            log.debug("上游{}拒绝请求，原因:{}", requestUrl.getAuthority(), permit == UpstreamGuard.REJECTED_LIMIT ? "并发超限" : "熔断");
+            return reject(exchange);
+        }
+        long start = System.nanoTime();
+        return chain.filter(exchange)
+                // 对冲请求胜出时首次请求记到胜出为止，对冲请求的结果由HedgingFilter记录
+                .doOnSuccess(v -> guard.release(permit, System.nanoTime() - start, HedgingFilter.isPrimaryFailed(exchange)))
+                .doOnError(e -> guard.release(permit, System.nanoTime() - start, true))
+                .doOnCancel(() -> guard.cancel(permit));
+    }
+
+    @Override
+    public int getOrder() {
+        return 10150;
+    }
+
+    private Mono<Void> reject(ServerWebExchange exchange) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.OK);
+        response.getHeaders().add(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+        DataBuffer buffer = response.bufferFactory().wrap(SERVICE_UNAVAILABLE);
+        return response.writeWith(Mono.just(buffer));
+    }
+}
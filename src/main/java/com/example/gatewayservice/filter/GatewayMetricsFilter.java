@@ -0,0 +1,111 @@
+package com.example.gatewayservice.filter;
+
+import com.example.gatewayservice.metrics.GatewayMetrics;
+import com.example.gatewayservice.metrics.RouteMetrics;
+import com.example.gatewayservice.trace.StageTimings;
+import com.example.gatewayservice.warmup.WarmupRequests;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.reactivestreams.Publisher;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * 记录每个路由的请求数、延迟分布、请求与响应字节数及并发请求数
+ * 最先执行的GlobalFilter，被限流、熔断或直接由缓存返回的请求同样计入；
+ * 字节数按实际读取与写出的DataBuffer统计，分块传输的请求与响应同样计入
+ * @author Joetao
+ * @date 2026/10/18
+ */
+@Component
+public class GatewayMetricsFilter implements GlobalFilter, Ordered {
+    private final GatewayMetrics gatewayMetrics;
+
+    public GatewayMetricsFilter(GatewayMetrics gatewayMetrics) {
+        this.gatewayMetrics = gatewayMetrics;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (route == null || WarmupRequests.isWarmup(exchange)) {
+            return chain.filter(exchange);
+        }
+        RouteMetrics metrics = gatewayMetrics.route(route.getId());
+        metrics.started();
+        long start = System.nanoTime();
+        CountingRequest request = new CountingRequest(exchange.getRequest());
+        CountingResponse response = new CountingResponse(exchange.getResponse());
+        return chain.filter(exchange.mutate().request(request).response(response).build())
+                .doFinally(signal -> record(exchange, metrics, signal, request.bytes, response.bytes, System.nanoTime() - start));
+    }
+
+    @Override
+    public int getOrder() {
+        return -300;
+    }
+
+    private static void record(ServerWebExchange exchange, RouteMetrics metrics, SignalType signal,
+                               long requestBytes, long responseBytes, long elapsedNanos) {
+        ServerHttpResponse response = exchange.getResponse();
+        int statusClass = signal == SignalType.CANCEL ? RouteMetrics.STATUS_CANCELLED : RouteMetrics.statusClass(response.getRawStatusCode());
+        metrics.completed(exchange.getRequest().getMethod(), statusClass, response.getHeaders().getFirst("client_type"),
+                requestBytes, responseBytes, elapsedNanos);
+        StageTimings stageTimings = StageTimings.from(exchange);
+        if (stageTimings != null) {
+            metrics.recordStages(stageTimings);
+        }
+    }
+
+    /**
+     * 统计读取的请求体字节数，同一请求体的onNext串行执行
+     */
+    private static final class CountingRequest extends ServerHttpRequestDecorator {
+        private volatile long bytes;
+
+        private CountingRequest(ServerHttpRequest delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public Flux<DataBuffer> getBody() {
+            return super.getBody().doOnNext(buffer -> bytes += buffer.readableByteCount());
+        }
+    }
+
+    /**
+     * 统计写出的响应体字节数，同一响应体的onNext串行执行
+     */
+    private static final class CountingResponse extends ServerHttpResponseDecorator {
+        private volatile long bytes;
+
+        private CountingResponse(ServerHttpResponse delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            return super.writeWith(Flux.from(body).doOnNext(this::count));
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            return super.writeAndFlushWith(Flux.from(body).map(chunk -> Flux.from(chunk).doOnNext(this::count)));
+        }
+
+        private void count(DataBuffer buffer) {
+            bytes += buffer.readableByteCount();
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package com.example.gatewayservice.filter;
+
+import com.example.gatewayservice.concurrency.UpstreamGuard;
+import com.example.gatewayservice.concurrency.UpstreamGuardRegistry;
+import com.example.gatewayservice.config.ConcurrencyLimitConfig;
+import com.example.gatewayservice.hedge.HedgeAttemptExchange;
+import com.example.gatewayservice.hedge.HedgingRegistry;
+import com.example.gatewayservice.hedge.RouteHedging;
+import com.example.gatewayservice.loadbalance.InstanceStats;
+import com.example.gatewayservice.loadbalance.InstanceStatsRegistry;
+import com.example.gatewayservice.trace.StageTimings;
+import com.example.gatewayservice.warmup.WarmupRequests;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 对冲请求：配置了对冲的lb路由的GET请求，上游超过对冲延迟仍未返回响应头时，向另一个实例再发一次请求，
+ * 使用先返回的响应并取消另一个
+ * 在负载均衡、并发限制与上游计时之后执行，对冲请求的实例统计与并发限制在这里单独记录，落败的对冲请求不计成功或失败；
+ * 对冲请求胜出时通过HEDGE_WON_ATTR通知前面的过滤器，首次请求到胜出为止的耗时是其延迟的下限，仍作为样本记录，
+ * 胜出前首次请求已失败时记为失败；
+ * 对冲请求数受预算限制，两次请求都失败时才返回错误
+ * @author Joetao
+ * @date 2026/10/18
+ */
+@Slf4j
+@Component
+public class HedgingFilter implements GlobalFilter, Ordered {
+    /**exchange属性：对冲请求胜出，首次请求已取消**/
+    public static final String HEDGE_WON_ATTR = "gatewayHedgeWon";
+    /**exchange属性：对冲请求胜出前首次请求已失败**/
+    public static final String HEDGE_PRIMARY_FAILED_ATTR = "gatewayHedgePrimaryFailed";
+    private static final String LB_SCHEME = "lb";
+    /**选择另一个实例的最多尝试次数**/
+    private static final int CHOOSE_ATTEMPTS = 3;
+
+    private final HedgingRegistry hedgingRegistry;
+    private final LoadBalancerClient loadBalancerClient;
+    private final InstanceStatsRegistry instanceStatsRegistry;
+    private final UpstreamGuardRegistry upstreamGuardRegistry;
+    private final long errorPenaltyNanos;
+
+    public HedgingFilter(HedgingRegistry hedgingRegistry, LoadBalancerClient loadBalancerClient,
+                         InstanceStatsRegistry instanceStatsRegistry, UpstreamGuardRegistry upstreamGuardRegistry) {
+        this.hedgingRegistry = hedgingRegistry;
+        this.loadBalancerClient = loadBalancerClient;
+        this.instanceStatsRegistry = instanceStatsRegistry;
+        this.upstreamGuardRegistry = upstreamGuardRegistry;
+        this.errorPenaltyNanos = instanceStatsRegistry.getConfig().getErrorPenalty().toNanos();
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        URI requestUrl = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR);
+        RouteHedging hedging = route != null ? hedgingRegistry.get(route.getId()) : null;
+        if (hedging == null || requestUrl == null || !LB_SCHEME.equals(route.getUri().getScheme())
+                || !hedgeable(exchange.getRequest()) || WarmupRequests.isWarmup(exchange)) {
+            return chain.filter(exchange);
+        }
+        hedging.onRequest();
+        AtomicInteger running = new AtomicInteger(1);
+        AtomicReference<HedgeAttemptExchange> hedgeRef = new AtomicReference<>();
+        HedgeAttemptExchange primary = new HedgeAttemptExchange(exchange, null);
+        Mono<Void> primaryForward = forward(chain, primary)
+                .doOnError(e -> exchange.getAttributes().put(HEDGE_PRIMARY_FAILED_ATTR, Boolean.TRUE));
+        Mono<HedgeAttemptExchange> primaryAttempt = settle(primaryForward, primary, running);
+        Mono<HedgeAttemptExchange> hedgeAttempt = Mono.delay(Duration.ofNanos(hedging.delayNanos()))
+                .flatMap(tick -> hedge(exchange, chain, route, requestUrl, hedging, running, hedgeRef));
+        return Mono.first(primaryAttempt, hedgeAttempt)
+                .doOnNext(winner -> {
+                    // 两次尝试几乎同时完成时，落败的一次不会再收到取消信号，在这里关闭其上游连接
+                    HedgeAttemptExchange loser = winner == primary ? hedgeRef.get() : primary;
+                    if (loser != null) {
+                        loser.abandon();
+                    }
+                    if (winner != primary) {
+                        hedging.onWon();
+                        exchange.getAttributes().put(HEDGE_WON_ATTR, Boolean.TRUE);
+                    }
+                    winner.copyTo(exchange);
+                })
+                .then();
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE - 5;
+    }
+
+    /**
+     * 首次请求是否失败：对冲请求胜出时取胜出前首次请求是否已失败，否则按响应状态码判断
+     */
+    public static boolean isPrimaryFailed(ServerWebExchange exchange) {
+        if (Boolean.TRUE.equals(exchange.getAttribute(HEDGE_WON_ATTR))) {
+            return Boolean.TRUE.equals(exchange.getAttribute(HEDGE_PRIMARY_FAILED_ATTR));
+        }
+        HttpStatus status = exchange.getResponse().getStatusCode();
+        return status != null && status.is5xxServerError();
+    }
+
+    /**
+     * 只对冲没有请求体的GET请求，排除WebSocket等协议升级请求
+     */
+    private static boolean hedgeable(ServerHttpRequest request) {
+        HttpHeaders headers = request.getHeaders();
+        return HttpMethod.GET.equals(request.getMethod()) && headers.getContentLength() <= 0
+                && !headers.containsKey(HttpHeaders.TRANSFER_ENCODING) && !headers.containsKey(HttpHeaders.UPGRADE);
+    }
+
+    /**
+     * 转发一次尝试，阶段耗时记录到该尝试自己的StageTimings
+     */
+    private static Mono<Void> forward(GatewayFilterChain chain, HedgeAttemptExchange attempt) {
+        StageTimings stageTimings = StageTimings.from(attempt);
+        Mono<Void> forward = chain.filter(attempt);
+        return stageTimings != null ? forward.subscriberContext(context -> context.put(StageTimings.class, stageTimings)) : forward;
+    }
+
+    /**
+     * 一次尝试失败时，如果另一次尝试仍在进行则等待另一次的结果
+     */
+    private static Mono<HedgeAttemptExchange> settle(Mono<Void> forward, HedgeAttemptExchange attempt, AtomicInteger running) {
+        return forward
+                .thenReturn(attempt)
+                .onErrorResume(e -> running.decrementAndGet() > 0 ? Mono.never() : Mono.error(e))
+                .doOnCancel(attempt::abandon);
+    }
+
+    private Mono<HedgeAttemptExchange> hedge(ServerWebExchange exchange, GatewayFilterChain chain, Route route, URI primaryUrl,
+                                             RouteHedging hedging, AtomicInteger running,
+                                             AtomicReference<HedgeAttemptExchange> hedgeRef) {
+        URI hedgeUrl = chooseOther(route.getUri().getHost(), primaryUrl);
+        if (hedgeUrl == null) {
+            return Mono.never();
+        }
+        String instance = hedgeUrl.getAuthority();
+        ConcurrencyLimitConfig.RouteConcurrencyConfig config = upstreamGuardRegistry.getRouteConfig(route.getId());
+        UpstreamGuard guard = config != null ? upstreamGuardRegistry.getGuard(route.getId(), instance, config) : null;
+        long permit = guard != null ? guard.tryAcquire() : 0;
+        if (permit < 0) {
+            return Mono.never();
+        }
+        if (!hedging.tryAcquireBudget()) {
+            if (guard != null) {
+                guard.cancel(permit);
+            }
+            return Mono.never();
+        }
+        log.debug("上游{}超过对冲延迟未响应，对冲请求发往{}", primaryUrl.getAuthority(), instance);
+        hedging.onSent();
+        running.incrementAndGet();
+        HedgeAttemptExchange attempt = new HedgeAttemptExchange(exchange, hedgeUrl);
+        InstanceStats stats = instanceStatsRegistry.get(instance);
+        stats.start();
+        long start = System.nanoTime();
+        // 完成、失败与落败只记录先发生的一个
+        AtomicBoolean recorded = new AtomicBoolean();
+        attempt.onAbandon(() -> {
+            if (recorded.compareAndSet(false, true)) {
+                stats.cancel();
+                if (guard != null) {
+                    guard.cancel(permit);
+                }
+            }
+        });
+        hedgeRef.set(attempt);
+        Mono<Void> forward = forward(chain, attempt)
+                .doOnSuccess(v -> {
+                    if (!recorded.compareAndSet(false, true)) {
+                        return;
+                    }
+                    HttpStatus status = attempt.getResponse().getStatusCode();
+                    boolean failed = status != null && status.is5xxServerError();
+                    long elapsed = System.nanoTime() - start;
+                    stats.complete(failed ? Math.max(elapsed, errorPenaltyNanos) : elapsed);
+                    if (guard != null) {
+                        guard.release(permit, elapsed, failed);
+                    }
+                })
+                .doOnError(e -> {
+                    if (!recorded.compareAndSet(false, true)) {
+                        return;
+                    }
+                    long elapsed = System.nanoTime() - start;
+                    stats.complete(Math.max(elapsed, errorPenaltyNanos));
+                    if (guard != null) {
+                        guard.release(permit, elapsed, true);
+                    }
+                });
+        return settle(forward, attempt, running);
+    }
+
+    /**
+     * 通过负载均衡选择与首次请求不同的实例，只有一个可用实例时返回null
+     */
+    private URI chooseOther(String serviceId, URI primaryUrl) {
+        for (int i = 0; i < CHOOSE_ATTEMPTS; i++) {
+            ServiceInstance instance = loadBalancerClient.choose(serviceId);
+            if (instance == null) {
+                return null;
+            }
+            if (!instance.getHost().equals(primaryUrl.getHost()) || instance.getPort() != primaryUrl.getPort()) {
+                return UriComponentsBuilder.fromUri(primaryUrl)
+                        .host(instance.getHost())
+                        .port(instance.getPort())
+                        .build(true)
+                        .toUri();
+            }
+        }
+        return null;
+    }
+}
@@ -1,43 +1,31 @@
 package com.example.gatewayservice.filter;
 
-import com.example.gatewayservice.config.IgnoreUrlsConfig;
+import com.example.gatewayservice.auth.WhitelistMatcher;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.stereotype.Component;
-import org.springframework.util.AntPathMatcher;
-import org.springframework.util.PathMatcher;
 import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.server.WebFilter;
 import org.springframework.web.server.WebFilterChain;
 import reactor.core.publisher.Mono;
 
-import java.net.URI;
-import java.util.List;
-
 /**
  * @author Joetao
  * @date 2022/5/25
  */
 @Component
 public class IgnoreUrlsRemoveJwtFilter implements WebFilter {
-    private final IgnoreUrlsConfig ignoreUrlsConfig;
+    private final WhitelistMatcher whitelistMatcher;
 
-    public IgnoreUrlsRemoveJwtFilter(IgnoreUrlsConfig ignoreUrlsConfig) {
-        this.ignoreUrlsConfig = ignoreUrlsConfig;
+    public IgnoreUrlsRemoveJwtFilter(WhitelistMatcher whitelistMatcher) {
+        this.whitelistMatcher = whitelistMatcher;
     }
 
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
-        ServerHttpRequest request = exchange.getRequest();
-        URI uri = request.getURI();
-        PathMatcher pathMatcher = new AntPathMatcher();
         //白名单路径移除JWT请求头
-        List<String> ignoreUrls = ignoreUrlsConfig.getUrls();
-        for (String ignoreUrl : ignoreUrls) {
-            if (pathMatcher.match(ignoreUrl, uri.getPath())) {
-                request = exchange.getRequest().mutate().header("Authorization", "").build();
-                exchange = exchange.mutate().request(request).build();
-                return chain.filter(exchange);
-            }
+        if (whitelistMatcher.isWhitelisted(exchange)) {
+            ServerHttpRequest request = exchange.getRequest().mutate().header("Authorization", "").build();
+            exchange = exchange.mutate().request(request).build();
         }
         return chain.filter(exchange);
     }
@@ -0,0 +1,59 @@
+package com.example.gatewayservice.filter;
+
+import com.example.gatewayservice.loadbalance.InstanceStats;
+import com.example.gatewayservice.loadbalance.InstanceStatsRegistry;
+import com.example.gatewayservice.warmup.WarmupRequests;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+
+/**
+ * 记录lb路由选中实例的并发请求数与响应延迟，供LatencyAwareRule选择实例
+ * 在负载均衡与并发限制之后执行，被限流拒绝的请求不计入；延迟统计到收到上游响应头为止
+ * @author Joetao
+ * @date 2026/10/18
+ */
+@Component
+public class LoadBalancerStatsFilter implements GlobalFilter, Ordered {
+    private static final String LB_SCHEME = "lb";
+
+    private final InstanceStatsRegistry instanceStatsRegistry;
+    private final long errorPenaltyNanos;
+
+    public LoadBalancerStatsFilter(InstanceStatsRegistry instanceStatsRegistry) {
+        this.instanceStatsRegistry = instanceStatsRegistry;
+        this.errorPenaltyNanos = instanceStatsRegistry.getConfig().getErrorPenalty().toNanos();
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        URI requestUrl = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR);
+        if (route == null || requestUrl == null || !LB_SCHEME.equals(route.getUri().getScheme()) || WarmupRequests.isWarmup(exchange)) {
+            return chain.filter(exchange);
+        }
+        InstanceStats stats = instanceStatsRegistry.get(requestUrl.getAuthority());
+        stats.start();
+        long start = System.nanoTime();
+        return chain.filter(exchange)
+                .doOnSuccess(v -> {
+                    // 对冲请求胜出时首次请求记到胜出为止，对冲请求的结果由HedgingFilter记录
+                    long elapsed = System.nanoTime() - start;
+                    stats.complete(HedgingFilter.isPrimaryFailed(exchange) ? Math.max(elapsed, errorPenaltyNanos) : elapsed);
+                })
+                .doOnError(e -> stats.complete(Math.max(System.nanoTime() - start, errorPenaltyNanos)))
+                .doOnCancel(stats::cancel);
+    }
+
+    @Override
+    public int getOrder() {
+        return 10200;
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.gatewayservice.filter;
+
+import cn.hutool.json.JSONUtil;
+import com.example.gatewayservice.common.IpUtils;
+import com.example.gatewayservice.constant.AuthConstant;
+import com.example.gatewayservice.entity.GatewayPrincipal;
+import com.example.gatewayservice.entity.ResultCode;
+import com.example.gatewayservice.entity.ResultJson;
+import com.example.gatewayservice.ratelimit.RateLimitBucket;
+import com.example.gatewayservice.ratelimit.RateLimitKey;
+import com.example.gatewayservice.ratelimit.RateLimiter;
+import com.example.gatewayservice.ratelimit.RateLimiterRegistry;
+import com.example.gatewayservice.warmup.WarmupRequests;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 按client_id、用户、IP限流
+ * 在访问日志与报文缓存之前执行，超限请求直接返回，不进入后续过滤器
+ * @author Joetao
+ * @date 2026/10/18
+ */
+@Component
+public class RateLimitFilter implements GlobalFilter, Ordered {
+    private static final byte[] TOO_MANY_REQUESTS = JSONUtil.toJsonStr(ResultJson.failure(ResultCode.TOO_MANY_REQUESTS))
+            .getBytes(StandardCharsets.UTF_8);
+
+    private final RateLimiterRegistry rateLimiterRegistry;
+
+    public RateLimitFilter(RateLimiterRegistry rateLimiterRegistry) {
+        this.rateLimiterRegistry = rateLimiterRegistry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        RateLimiter[] limiters = route != null ? rateLimiterRegistry.getLimiters(route.getId()) : null;
+        // 预热请求不消耗调用方的令牌
+        if (limiters == null || WarmupRequests.isWarmup(exchange)) {
+            return chain.filter(exchange);
+        }
+        RateLimitBucket[] acquired = new RateLimitBucket[limiters.length];
+        for (int i = 0; i < limiters.length; i++) {
+            String identity = resolveIdentity(exchange, limiters[i].getKey());
+            if (StringUtils.isEmpty(identity)) {
+                continue;
+            }
+            RateLimitBucket bucket = limiters[i].bucket(identity);
+            long wait = limiters[i].tryAcquire(bucket);
+            if (wait > 0) {
+                // 前面规则已扣除的令牌归还
+                for (int j = 0; j < i; j++) {
+                    if (acquired[j] != null) {
+                        limiters[j].release(acquired[j]);
+                    }
+                }
+                return reject(exchange, wait);
+            }
+            acquired[i] = bucket;
+        }
+        return chain.filter(exchange);
+    }
+
+    @Override
+    public int getOrder() {
+        return -200;
+    }
+
+    private String resolveIdentity(ServerWebExchange exchange, RateLimitKey key) {
+        switch (key) {
+            case CLIENT_ID:
+                // 由AuthorizationManager鉴权时写入
+                return exchange.getResponse().getHeaders().getFirst("client_id");
+            case USER:
+                GatewayPrincipal principal = exchange.getAttribute(AuthConstant.GATEWAY_PRINCIPAL_ATTR);
+                return principal != null && principal.getUserId() != null ? String.valueOf(principal.getUserId()) : null;
+            case IP:
+                return IpUtils.getRealIpAddress(exchange.getRequest());
+            default:
+                return null;
+        }
+    }
+
+    private Mono<Void> reject(ServerWebExchange exchange, long waitNanos) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.OK);
+        response.getHeaders().add(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+        response.getHeaders().add(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1))));
+        DataBuffer buffer = response.bufferFactory().wrap(TOO_MANY_REQUESTS);
+        return response.writeWith(Mono.just(buffer));
+    }
+}
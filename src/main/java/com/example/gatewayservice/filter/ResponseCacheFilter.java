@@ -0,0 +1,113 @@
+package com.example.gatewayservice.filter;
+
+import com.example.gatewayservice.cache.CachedResponse;
+import com.example.gatewayservice.cache.CapturingResponseDecorator;
+import com.example.gatewayservice.cache.RequestKeys;
+import com.example.gatewayservice.cache.ResponseCache;
+import com.example.gatewayservice.cache.ResponseCacheEntry;
+import com.example.gatewayservice.config.ResponseCacheConfig;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * 缓存配置路由的GET响应，命中时由网关直接返回，条件请求命中时返回304
+ * 在访问日志之后、请求合并之前执行，命中缓存的请求照常记录访问日志，未命中的请求仍可合并
+ * @author Joetao
+ * @date 2026/10/18
+ */
+@Component
+public class ResponseCacheFilter implements GlobalFilter, Ordered {
+    private static final String NO_CACHE = "no-cache";
+    private static final String NO_STORE = "no-store";
+
+    private final ResponseCache responseCache;
+
+    public ResponseCacheFilter(ResponseCache responseCache) {
+        this.responseCache = responseCache;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        ResponseCacheConfig.RouteCacheConfig config = route != null ? responseCache.getRouteConfig(route.getId(), request.getPath().value()) : null;
+        if (config == null || request.getMethod() != HttpMethod.GET || request.getHeaders().containsKey(HttpHeaders.RANGE)) {
+            return chain.filter(exchange);
+        }
+        String key = RequestKeys.build(exchange, route.getId(), config.getVaryHeaders(), config.isUserScoped());
+        String cacheControl = request.getHeaders().getCacheControl();
+        if (!StringUtils.containsAny(cacheControl, NO_CACHE, NO_STORE)) {
+            ResponseCacheEntry entry = responseCache.get(key);
+            if (entry != null) {
+                return writeCached(exchange, entry);
+            }
+        }
+        CapturingResponseDecorator response = new CapturingResponseDecorator(exchange.getResponse(), (int) config.getMaxEntrySize().toBytes());
+        return chain.filter(exchange.mutate().response(response).build())
+                .doOnSuccess(v -> {
+                    CachedResponse cached = response.toCachedResponse();
+                    if (cached != null && !StringUtils.contains(cacheControl, NO_STORE)) {
+                        responseCache.put(key, cached, config);
+                    }
+                });
+    }
+
+    @Override
+    public int getOrder() {
+        return -50;
+    }
+
+    private Mono<Void> writeCached(ServerWebExchange exchange, ResponseCacheEntry entry) {
+        ServerHttpResponse response = exchange.getResponse();
+        HttpHeaders headers = response.getHeaders();
+        headers.set(HttpHeaders.AGE, String.valueOf(Math.max(0, (System.currentTimeMillis() - entry.getCreatedAt()) / 1000)));
+        if (isNotModified(exchange.getRequest().getHeaders(), entry)) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            headers.setETag(entry.getEtag());
+            if (entry.getLastModified() > 0) {
+                headers.setLastModified(entry.getLastModified());
+            }
+            String cacheControl = entry.getHeaders().getCacheControl();
+            if (cacheControl != null) {
+                headers.setCacheControl(cacheControl);
+            }
+            return response.setComplete();
+        }
+        response.setStatusCode(HttpStatus.OK);
+        headers.putAll(entry.getHeaders());
+        return response.writeWith(Mono.just(entry.body(response.bufferFactory())));
+    }
+
+    private static boolean isNotModified(HttpHeaders requestHeaders, ResponseCacheEntry entry) {
+        List<String> ifNoneMatch = requestHeaders.getIfNoneMatch();
+        if (!ifNoneMatch.isEmpty()) {
+            String etag = stripWeak(entry.getEtag());
+            for (String candidate : ifNoneMatch) {
+                if ("*".equals(candidate) || stripWeak(candidate).equals(etag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        long ifModifiedSince = requestHeaders.getIfModifiedSince();
+        return ifModifiedSince > 0 && entry.getLastModified() > 0 && entry.getLastModified() / 1000 <= ifModifiedSince / 1000;
+    }
+
+    private static String stripWeak(String etag) {
+        return etag != null && etag.startsWith("W/") ? etag.substring(2) : String.valueOf(etag);
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.gatewayservice.filter;
+
+import cn.hutool.core.convert.Convert;
+import com.example.gatewayservice.upstream.UpstreamClientRegistry;
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+
+import java.util.List;
+
+import static org.springframework.cloud.gateway.support.RouteMetadataUtils.CONNECT_TIMEOUT_ATTR;
+
+/**
+ * 按路由选择上游连接池的转发过滤器
+ * 代替默认的NettyRoutingFilter(配置中已关闭)，顺序与默认实现相同，排在WebsocketRoutingFilter之后；未配置独立连接池的路由使用共享连接池
+ * @author Joetao
+ * @date 2026/10/18
+ */
+@Component
+public class RouteNettyRoutingFilter extends NettyRoutingFilter {
+    private final UpstreamClientRegistry upstreamClientRegistry;
+
+    public RouteNettyRoutingFilter(HttpClient httpClient, ObjectProvider<List<HttpHeadersFilter>> headersFiltersProvider,
+                                   HttpClientProperties properties, UpstreamClientRegistry upstreamClientRegistry) {
+        super(httpClient, headersFiltersProvider, properties);
+        this.upstreamClientRegistry = upstreamClientRegistry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        return super.filter(exchange, chain)
+                .subscriberContext(context -> context.put(UpstreamClientRegistry.ACQUIRE_START, System.nanoTime()));
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE;
+    }
+
+    /**
+     * 与默认实现一致，路由元数据中的connect-timeout优先
+     */
+    @Override
+    protected HttpClient getHttpClient(Route route, ServerWebExchange exchange) {
+        HttpClient client = upstreamClientRegistry.get(route.getId());
+        if (client == null) {
+            return super.getHttpClient(route, exchange);
+        }
+        Object connectTimeout = route.getMetadata().get(CONNECT_TIMEOUT_ATTR);
+        if (connectTimeout != null) {
+            Integer connectTimeoutMillis = Convert.toInt(connectTimeout);
+            return client.tcpConfiguration(tcp -> tcp.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMillis));
+        }
+        return client;
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.gatewayservice.filter;
+
+import com.example.gatewayservice.auth.TokenAuthenticationCache;
+import com.example.gatewayservice.constant.AuthConstant;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * 注销成功后失效本地token缓存并广播给其他网关节点
+ * 需在安全过滤链之前执行，白名单过滤器会清空注销请求的Authorization请求头
+ * @author Joetao
+ * @date 2026/10/18
+ */
+@Component
+@Slf4j
+public class TokenRevokeFilter implements WebFilter, Ordered {
+    private final TokenAuthenticationCache tokenAuthenticationCache;
+
+    public TokenRevokeFilter(TokenAuthenticationCache tokenAuthenticationCache) {
+        this.tokenAuthenticationCache = tokenAuthenticationCache;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (!AuthConstant.LOGOUT_PATH.equals(request.getURI().getPath())) {
+            return chain.filter(exchange);
+        }
+        String token = resolveToken(request);
+        if (StringUtils.isBlank(token)) {
+            return chain.filter(exchange);
+        }
+        return chain.filter(exchange)
+                .then(Mono.defer(() -> {
+                    HttpStatus status = exchange.getResponse().getStatusCode();
+                    if (status != null && !status.is2xxSuccessful()) {
+                        return Mono.empty();
+                    }
+                    return tokenAuthenticationCache.revoke(token)
+                            .doOnError(e -> log.error("广播token注销消息失败", e))
+                            .onErrorResume(e -> Mono.empty())
+                            .then();
+                }));
+    }
+
+    @Override
+    public int getOrder() {
+        return -200;
+    }
+
+    private String resolveToken(ServerHttpRequest request) {
+        String authorization = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (StringUtils.isNotBlank(authorization)) {
+            return authorization.replace(OAuth2AccessToken.BEARER_TYPE + " ", "");
+        }
+        return request.getQueryParams().getFirst(AuthConstant.ACCESS_TOKEN_PARAM);
+    }
+}
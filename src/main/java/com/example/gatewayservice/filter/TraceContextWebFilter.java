@@ -0,0 +1,42 @@
+package com.example.gatewayservice.filter;
+
+import com.example.gatewayservice.constant.TraceConstant;
+import com.example.gatewayservice.trace.StageTimings;
+import com.example.gatewayservice.trace.TraceContext;
+import org.springframework.core.Ordered;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * 延续或开始W3C trace，并为请求创建阶段耗时记录
+ * 最先执行的WebFilter，改写后的traceparent随请求头转发给上游，traceId通过requestId响应头返回给调用方
+ * @author Joetao
+ * @date 2026/10/18
+ */
+@Component
+public class TraceContextWebFilter implements WebFilter, Ordered {
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        TraceContext traceContext = TraceContext.continueOrCreate(request.getHeaders().getFirst(TraceConstant.TRACEPARENT_HEADER));
+        StageTimings stageTimings = new StageTimings();
+        exchange.getAttributes().put(TraceConstant.TRACE_CONTEXT_ATTR, traceContext);
+        exchange.getAttributes().put(TraceConstant.STAGE_TIMINGS_ATTR, stageTimings);
+        exchange.getResponse().getHeaders().set(TraceConstant.REQUEST_ID_HEADER, traceContext.getTraceId());
+        ServerHttpRequest tracedRequest = request.mutate()
+                .header(TraceConstant.TRACEPARENT_HEADER, traceContext.toTraceparent())
+                .build();
+        return chain.filter(exchange.mutate().request(tracedRequest).build())
+                .subscriberContext(context -> context.put(StageTimings.class, stageTimings));
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.gatewayservice.filter;
+
+import com.example.gatewayservice.trace.Stage;
+import com.example.gatewayservice.trace.StageTimings;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * 记录上游调用耗时：从路由转发开始到收到上游响应头为止，响应体的写出不计入
+ * 由缓存或请求合并直接返回的请求不会执行到这里
+ * @author Joetao
+ * @date 2026/10/18
+ */
+@Component
+public class UpstreamTimingFilter implements GlobalFilter, Ordered {
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        long start = System.nanoTime();
+        return chain.filter(exchange)
+                .doFinally(signal -> StageTimings.record(exchange, Stage.UPSTREAM, start));
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE - 10;
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.gatewayservice.hedge;
+
+import com.example.gatewayservice.constant.TraceConstant;
+import com.example.gatewayservice.trace.StageTimings;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.ServerWebExchangeDecorator;
+import reactor.core.publisher.Flux;
+import reactor.netty.Connection;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 一次转发尝试使用的exchange
+ * 属性、阶段耗时、响应状态码与响应头都是独立的副本，两次尝试互不影响；胜出的尝试通过copyTo写回原exchange，
+ * 之后由NettyWriteResponseFilter按原exchange中的上游连接写出响应体，落败的尝试通过abandon关闭上游连接
+ * 只用于没有请求体的请求，请求体固定为空，避免两次尝试重复订阅客户端连接的输入
+ * @author Joetao
+ * @date 2026/10/18
+ */
+public class HedgeAttemptExchange extends ServerWebExchangeDecorator {
+    private final Map<String, Object> attributes;
+    private final ServerHttpRequest request;
+    private final AttemptResponse response;
+    private volatile Runnable abandonHook;
+
+    public HedgeAttemptExchange(ServerWebExchange delegate, URI requestUrl) {
+        super(delegate);
+        this.attributes = new ConcurrentHashMap<>(delegate.getAttributes());
+        if (requestUrl != null) {
+            this.attributes.put(ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR, requestUrl);
+        }
+        if (attributes.containsKey(TraceConstant.STAGE_TIMINGS_ATTR)) {
+            this.attributes.put(TraceConstant.STAGE_TIMINGS_ATTR, new StageTimings());
+        }
+        this.request = new ServerHttpRequestDecorator(delegate.getRequest()) {
+            @Override
+            public Flux<DataBuffer> getBody() {
+                return Flux.empty();
+            }
+        };
+        this.response = new AttemptResponse(delegate.getResponse());
+    }
+
+    @Override
+    public ServerHttpRequest getRequest() {
+        return request;
+    }
+
+    @Override
+    public ServerHttpResponse getResponse() {
+        return response;
+    }
+
+    @Override
+    public Map<String, Object> getAttributes() {
+        return attributes;
+    }
+
+    /**
+     * 将上游响应的状态码、响应头与转发过程中写入的属性写回原exchange，阶段耗时累加到原exchange的StageTimings
+     */
+    public void copyTo(ServerWebExchange exchange) {
+        ServerHttpResponse original = exchange.getResponse();
+        if (response.status != null) {
+            original.setStatusCode(response.status);
+        }
+        original.getHeaders().putAll(response.headers);
+        StageTimings stageTimings = StageTimings.from(exchange);
+        StageTimings attemptTimings = StageTimings.from(this);
+        if (stageTimings != null && attemptTimings != null) {
+            stageTimings.add(attemptTimings);
+        }
+        attributes.forEach((name, value) -> {
+            if (!TraceConstant.STAGE_TIMINGS_ATTR.equals(name)) {
+                exchange.getAttributes().put(name, value);
+            }
+        });
+    }
+
+    /**
+     * 登记放弃本次尝试时执行的操作，用于把落败的尝试记为既不成功也不失败
+     */
+    public void onAbandon(Runnable hook) {
+        this.abandonHook = hook;
+    }
+
+    /**
+     * 放弃本次尝试：关闭已建立的上游连接并执行登记的操作，可重复调用，登记的操作需自行保证只生效一次
+     */
+    public void abandon() {
+        disposeConnection();
+        Runnable hook = abandonHook;
+        if (hook != null) {
+            hook.run();
+        }
+    }
+
+    private void disposeConnection() {
+        Connection connection = (Connection) attributes.get(ServerWebExchangeUtils.CLIENT_RESPONSE_CONN_ATTR);
+        if (connection != null) {
+            connection.dispose();
+        }
+    }
+
+    private static class AttemptResponse extends ServerHttpResponseDecorator {
+        private final HttpHeaders headers = new HttpHeaders();
+        private volatile HttpStatus status;
+
+        AttemptResponse(ServerHttpResponse delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public boolean setStatusCode(HttpStatus status) {
+            this.status = status;
+            return true;
+        }
+
+        @Override
+        public HttpStatus getStatusCode() {
+            return status;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
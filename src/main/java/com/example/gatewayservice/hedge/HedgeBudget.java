@@ -0,0 +1,45 @@
+package com.example.gatewayservice.hedge;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 对冲请求预算
+ * 每个请求存入percent%个对冲额度，发出对冲请求时取出一个，额度最多累积burst个，
+ * 长期来看对冲请求数不超过请求总数的percent%
+ * @author Joetao
+ * @date 2026/10/18
+ */
+public class HedgeBudget {
+    /**一个对冲请求的额度，按千分之一计算，保留百分比的一位小数**/
+    private static final long UNIT = 1000;
+
+    private final long deposit;
+    private final long capacity;
+    private final AtomicLong balance = new AtomicLong();
+
+    public HedgeBudget(double percent, int burst) {
+        this.deposit = Math.round(percent * UNIT / 100);
+        this.capacity = Math.max(1, burst) * UNIT;
+    }
+
+    public void deposit() {
+        long current;
+        do {
+            current = balance.get();
+            if (current >= capacity) {
+                return;
+            }
+        } while (!balance.compareAndSet(current, Math.min(capacity, current + deposit)));
+    }
+
+    public boolean tryWithdraw() {
+        long current;
+        do {
+            current = balance.get();
+            if (current < UNIT) {
+                return false;
+            }
+        } while (!balance.compareAndSet(current, current - UNIT));
+        return true;
+    }
+}
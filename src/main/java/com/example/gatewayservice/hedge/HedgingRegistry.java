@@ -0,0 +1,30 @@
+package com.example.gatewayservice.hedge;
+
+import com.example.gatewayservice.config.HedgingConfig;
+import com.example.gatewayservice.metrics.GatewayMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 按路由维护RouteHedging，启动时按配置创建并校验，未配置对冲的路由返回null
+ * @author Joetao
+ * @date 2026/10/18
+ */
+@Component
+public class HedgingRegistry {
+    private final Map<String, RouteHedging> routes = new HashMap<>();
+
+    public HedgingRegistry(HedgingConfig hedgingConfig, GatewayMetrics gatewayMetrics, MeterRegistry meterRegistry) {
+        for (Map.Entry<String, HedgingConfig.RouteHedgingConfig> entry : hedgingConfig.getRoutes().entrySet()) {
+            String routeId = entry.getKey();
+            routes.put(routeId, new RouteHedging(routeId, entry.getValue(), gatewayMetrics.route(routeId), meterRegistry));
+        }
+    }
+
+    public RouteHedging get(String routeId) {
+        return routes.get(routeId);
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.gatewayservice.hedge;
+
+import com.example.gatewayservice.config.HedgingConfig;
+import com.example.gatewayservice.metrics.RouteMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 单个路由的对冲规则：对冲延迟、预算与指标
+ * 对冲延迟按路由延迟分位数计算时，每秒最多重新计算一次，分位数需是路由延迟已发布的分位数之一
+ * @author Joetao
+ * @date 2026/10/18
+ */
+public class RouteHedging {
+    private static final long DELAY_REFRESH_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final HedgingConfig.RouteHedgingConfig config;
+    private final RouteMetrics routeMetrics;
+    private final HedgeBudget budget;
+    private final long minDelayNanos;
+    private final long maxDelayNanos;
+    private final Counter sent;
+    private final Counter won;
+    private final Counter budgetExhausted;
+    private volatile long delayNanos;
+    private volatile long delayComputedAt;
+
+    RouteHedging(String routeId, HedgingConfig.RouteHedgingConfig config, RouteMetrics routeMetrics, MeterRegistry meterRegistry) {
+        if (config.getDelay() == null && Arrays.stream(RouteMetrics.LATENCY_PERCENTILES).noneMatch(p -> p == config.getPercentile())) {
+            throw new IllegalArgumentException("路由" + routeId + "的对冲分位数配置错误:" + config.getPercentile()
+                    + "，可选" + Arrays.toString(RouteMetrics.LATENCY_PERCENTILES));
+        }
+        if (config.getMinDelay().compareTo(config.getMaxDelay()) > 0) {
+            throw new IllegalArgumentException("路由" + routeId + "的对冲延迟下限大于上限:" + config);
+        }
+        this.config = config;
+        this.routeMetrics = routeMetrics;
+        this.budget = new HedgeBudget(config.getBudgetPercent(), config.getBudgetBurst());
+        this.minDelayNanos = config.getMinDelay().toNanos();
+        this.maxDelayNanos = config.getMaxDelay().toNanos();
+        this.sent = counter(meterRegistry, routeId, "sent");
+        this.won = counter(meterRegistry, routeId, "won");
+        this.budgetExhausted = counter(meterRegistry, routeId, "budget_exhausted");
+        this.delayNanos = config.getDelay() != null ? config.getDelay().toNanos() : maxDelayNanos;
+        this.delayComputedAt = System.nanoTime();
+    }
+
+    public long delayNanos() {
+        if (config.getDelay() != null) {
+            return delayNanos;
+        }
+        long now = System.nanoTime();
+        if (now - delayComputedAt >= DELAY_REFRESH_NANOS) {
+            delayComputedAt = now;
+            delayNanos = computeDelay();
+        }
+        return delayNanos;
+    }
+
+    /**
+     * 每个符合对冲条件的请求都向预算存入额度
+     */
+    public void onRequest() {
+        budget.deposit();
+    }
+
+    /**
+     * 取出一个对冲请求的额度，预算不足时计入budget_exhausted
+     */
+    public boolean tryAcquireBudget() {
+        if (budget.tryWithdraw()) {
+            return true;
+        }
+        budgetExhausted.increment();
+        return false;
+    }
+
+    public void onSent() {
+        sent.increment();
+    }
+
+    public void onWon() {
+        won.increment();
+    }
+
+    private long computeDelay() {
+        for (ValueAtPercentile value : routeMetrics.getLatency().takeSnapshot().percentileValues()) {
+            if (value.percentile() == config.getPercentile()) {
+                long nanos = (long) value.value(TimeUnit.NANOSECONDS);
+                return nanos > 0 ? Math.min(maxDelayNanos, Math.max(minDelayNanos, nanos)) : maxDelayNanos;
+            }
+        }
+        return maxDelayNanos;
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String routeId, String outcome) {
+        return Counter.builder("gateway.hedge").tag("route", routeId).tag("outcome", outcome).register(meterRegistry);
+    }
+}
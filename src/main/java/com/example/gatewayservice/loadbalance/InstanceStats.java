@@ -0,0 +1,57 @@
+package com.example.gatewayservice.loadbalance;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 单个上游实例的并发请求数与延迟峰值指数加权平均(peak EWMA)
+ * 新样本高于平均值时直接取新样本，实例变慢后立即少分流量，变快后按时间逐步恢复；
+ * 衰减按两次响应的时间间隔计算，流量少时旧样本的权重同样随时间下降
+ * @author Joetao
+ * @date 2026/10/18
+ */
+public class InstanceStats {
+    private final AtomicInteger inflight = new AtomicInteger();
+    private final double decayNanos;
+    private double ewmaNanos;
+    private long lastUpdateNanos;
+
+    InstanceStats(long decayNanos) {
+        this.decayNanos = decayNanos;
+        this.lastUpdateNanos = System.nanoTime();
+    }
+
+    public void start() {
+        inflight.incrementAndGet();
+    }
+
+    public synchronized void complete(long rttNanos) {
+        inflight.decrementAndGet();
+        long now = System.nanoTime();
+        if (ewmaNanos == 0 || rttNanos > ewmaNanos) {
+            ewmaNanos = rttNanos;
+        } else {
+            double weight = Math.exp(-(now - lastUpdateNanos) / decayNanos);
+            ewmaNanos = ewmaNanos * weight + rttNanos * (1 - weight);
+        }
+        lastUpdateNanos = now;
+    }
+
+    public void cancel() {
+        inflight.decrementAndGet();
+    }
+
+    public int getInflight() {
+        return inflight.get();
+    }
+
+    /**
+     * 选择实例时的代价：延迟估计×(并发请求数+1)+每个并发请求的固定惩罚
+     * 没有新样本时延迟估计随时间衰减，长时间未被选中的慢实例会重新被选中一次以更新统计；
+     * 新实例没有延迟样本，由并发请求惩罚限制其在首个响应前接收的请求数
+     */
+    public synchronized double cost(long inflightPenaltyNanos) {
+        int current = inflight.get();
+        double latency = ewmaNanos * Math.exp(-(System.nanoTime() - lastUpdateNanos) / decayNanos);
+        return latency * (current + 1) + (double) inflightPenaltyNanos * current;
+    }
+}
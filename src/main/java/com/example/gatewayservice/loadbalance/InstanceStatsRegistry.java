@@ -0,0 +1,33 @@
+package com.example.gatewayservice.loadbalance;
+
+import com.example.gatewayservice.config.LoadBalancerConfig;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+
+/**
+ * 上游实例统计，按实例地址(host:port)保存
+ * 与Ribbon的实例列表分开维护，列表刷新时统计不会丢失；下线实例的统计在空闲超时后清除
+ * @author Joetao
+ * @date 2026/10/18
+ */
+@Component
+public class InstanceStatsRegistry {
+    private final LoadBalancerConfig loadBalancerConfig;
+    private final Cache<String, InstanceStats> stats;
+
+    public InstanceStatsRegistry(LoadBalancerConfig loadBalancerConfig) {
+        this.loadBalancerConfig = loadBalancerConfig;
+        this.stats = Caffeine.newBuilder()
+                .expireAfterAccess(loadBalancerConfig.getStatsIdleTimeout())
+                .build();
+    }
+
+    public InstanceStats get(String hostPort) {
+        return stats.get(hostPort, key -> new InstanceStats(loadBalancerConfig.getDecay().toNanos()));
+    }
+
+    public LoadBalancerConfig getConfig() {
+        return loadBalancerConfig;
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.gatewayservice.loadbalance;
+
+import com.alibaba.cloud.nacos.ribbon.NacosServer;
+import com.alibaba.nacos.api.naming.pojo.Instance;
+import com.netflix.client.config.IClientConfig;
+import com.netflix.loadbalancer.AbstractLoadBalancerRule;
+import com.netflix.loadbalancer.ILoadBalancer;
+import com.netflix.loadbalancer.Server;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 按延迟与并发请求数选择实例(power of two choices)
+ * 从可用实例中随机取两个，选择代价(延迟EWMA×(并发请求数+1)+并发请求惩罚，再除以Nacos权重)较小的一个；
+ * 每次选择都读取实例当前的健康状态、上下线状态与权重，Nacos推送变更后无需重建实例统计
+ * @author Joetao
+ * @date 2026/10/18
+ */
+public class LatencyAwareRule extends AbstractLoadBalancerRule {
+    private final InstanceStatsRegistry instanceStatsRegistry;
+    private final long inflightPenaltyNanos;
+
+    public LatencyAwareRule(InstanceStatsRegistry instanceStatsRegistry) {
+        this.instanceStatsRegistry = instanceStatsRegistry;
+        this.inflightPenaltyNanos = instanceStatsRegistry.getConfig().getInflightPenalty().toNanos();
+    }
+
+    @Override
+    public void initWithNiwsConfig(IClientConfig clientConfig) {
+    }
+
+    @Override
+    public Server choose(Object key) {
+        ILoadBalancer loadBalancer = getLoadBalancer();
+        if (loadBalancer == null) {
+            return null;
+        }
+        List<Server> candidates = available(loadBalancer.getReachableServers());
+        if (candidates.isEmpty()) {
+            return null;
+        }
+        if (candidates.size() == 1) {
+            return candidates.get(0);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(candidates.size());
+        int second = random.nextInt(candidates.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+        Server a = candidates.get(first);
+        Server b = candidates.get(second);
+        return cost(a) <= cost(b) ? a : b;
+    }
+
+    private double cost(Server server) {
+        return instanceStatsRegistry.get(server.getHostPort()).cost(inflightPenaltyNanos) / weight(server);
+    }
+
+    /**
+     * 排除不健康、已下线或权重为0的实例
+     */
+    private static List<Server> available(List<Server> servers) {
+        List<Server> available = new ArrayList<>(servers.size());
+        for (Server server : servers) {
+            if (!server.isAlive()) {
+                continue;
+            }
+            if (server instanceof NacosServer) {
+                Instance instance = ((NacosServer) server).getInstance();
+                if (!instance.isHealthy() || !instance.isEnabled() || instance.getWeight() <= 0) {
+                    continue;
+                }
+            }
+            available.add(server);
+        }
+        return available;
+    }
+
+    private static double weight(Server server) {
+        return server instanceof NacosServer ? ((NacosServer) server).getInstance().getWeight() : 1;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.gatewayservice.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 网关请求指标，按路由维护RouteMetrics
+ * @author Joetao
+ * @date 2026/10/18
+ */
+@Component
+public class GatewayMetrics {
+    private final MeterRegistry meterRegistry;
+    private final Map<String, RouteMetrics> routes = new ConcurrentHashMap<>();
+
+    public GatewayMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public RouteMetrics route(String routeId) {
+        RouteMetrics metrics = routes.get(routeId);
+        if (metrics == null) {
+            metrics = routes.computeIfAbsent(routeId, id -> new RouteMetrics(id, meterRegistry));
+        }
+        return metrics;
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.gatewayservice.metrics;
+
+import com.example.gatewayservice.trace.Stage;
+import com.example.gatewayservice.trace.StageTimings;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpMethod;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 单个路由的请求指标，包括各处理阶段的耗时分布
+ * 按请求方法、状态码类别、client_type划分的Timer预先按下标存放在数组中，首次使用时注册，
+ * 之后记录时只做数组访问与Timer记录，不产生对象分配
+ * @author Joetao
+ * @date 2026/10/18
+ */
+public class RouteMetrics {
+    static final String NO_CLIENT_TYPE = "none";
+    private static final HttpMethod[] METHODS = HttpMethod.values();
+    private static final Stage[] STAGES = Stage.values();
+    private static final String OTHER_METHOD = "OTHER";
+    /**状态码类别：1xx-5xx、未知、客户端取消**/
+    private static final String[] STATUS_CLASSES = {"1xx", "2xx", "3xx", "4xx", "5xx", "unknown", "cancelled"};
+    public static final int STATUS_UNKNOWN = 5;
+    public static final int STATUS_CANCELLED = 6;
+    /**路由整体延迟发布的分位数**/
+    public static final double[] LATENCY_PERCENTILES = {0.5, 0.95, 0.99};
+
+    private final String routeId;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer[]> timers = new ConcurrentHashMap<>();
+    private final AtomicInteger inflight = new AtomicInteger();
+    private final Counter requestBytes;
+    private final Counter responseBytes;
+    private final Timer latency;
+    private final Timer[] stages;
+
+    RouteMetrics(String routeId, MeterRegistry meterRegistry) {
+        this.routeId = routeId;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("gateway.requests.inflight", inflight, AtomicInteger::get).tag("route", routeId).register(meterRegistry);
+        this.requestBytes = Counter.builder("gateway.request.bytes").baseUnit("bytes").tag("route", routeId).register(meterRegistry);
+        this.responseBytes = Counter.builder("gateway.response.bytes").baseUnit("bytes").tag("route", routeId).register(meterRegistry);
+        // 路由整体延迟的分位数在网关内计算，供对冲请求等按路由延迟决策的功能使用
+        this.latency = Timer.builder("gateway.route.latency")
+                .tag("route", routeId)
+                .publishPercentiles(LATENCY_PERCENTILES)
+                .distributionStatisticExpiry(Duration.ofMinutes(1))
+                .register(meterRegistry);
+        this.stages = new Timer[STAGES.length];
+        for (Stage stage : STAGES) {
+            stages[stage.ordinal()] = Timer.builder("gateway.stage")
+                    .tag("route", routeId)
+                    .tag("stage", stage.getTag())
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+        }
+    }
+
+    public void started() {
+        inflight.incrementAndGet();
+    }
+
+    public void completed(HttpMethod method, int statusClass, String clientType, long requestBytes, long responseBytes, long elapsedNanos) {
+        inflight.decrementAndGet();
+        if (requestBytes > 0) {
+            this.requestBytes.increment(requestBytes);
+        }
+        if (responseBytes > 0) {
+            this.responseBytes.increment(responseBytes);
+        }
+        latency.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        Timer[] clientTimers = timers.get(clientType != null ? clientType : NO_CLIENT_TYPE);
+        if (clientTimers == null) {
+            clientTimers = timers.computeIfAbsent(clientType != null ? clientType : NO_CLIENT_TYPE, k -> new Timer[(METHODS.length + 1) * STATUS_CLASSES.length]);
+        }
+        int methodIndex = method != null ? method.ordinal() : METHODS.length;
+        int index = methodIndex * STATUS_CLASSES.length + statusClass;
+        Timer timer = clientTimers[index];
+        if (timer == null) {
+            timer = register(methodIndex, statusClass, clientType != null ? clientType : NO_CLIENT_TYPE);
+            clientTimers[index] = timer;
+        }
+        timer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 记录请求已执行各阶段的耗时，未执行的阶段不计入
+     */
+    public void recordStages(StageTimings stageTimings) {
+        for (int i = 0; i < stages.length; i++) {
+            long nanos = stageTimings.getNanos(STAGES[i]);
+            if (nanos > 0) {
+                stages[i].record(nanos, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    public Timer getLatency() {
+        return latency;
+    }
+
+    public static int statusClass(Integer status) {
+        if (status == null || status < 100 || status >= 600) {
+            return STATUS_UNKNOWN;
+        }
+        return status / 100 - 1;
+    }
+
+    private Timer register(int methodIndex, int statusClass, String clientType) {
+        return Timer.builder("gateway.requests")
+                .tag("route", routeId)
+                .tag("method", methodIndex < METHODS.length ? METHODS[methodIndex].name() : OTHER_METHOD)
+                .tag("status", STATUS_CLASSES[statusClass])
+                .tag("client_type", clientType)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
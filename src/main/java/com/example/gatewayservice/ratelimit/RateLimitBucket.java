@@ -0,0 +1,81 @@
+package com.example.gatewayservice.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 基于GCRA(通用信元速率算法)的令牌桶
+ * 只保存理论到达时间(TAT)一个状态，通过CAS无锁更新
+ * @author Joetao
+ * @date 2026/10/18
+ */
+public class RateLimitBucket {
+    private final AtomicLong tat = new AtomicLong(Long.MIN_VALUE);
+    /**本节点自上次对账以来放行的请求数**/
+    private final LongAdder pending = new LongAdder();
+    /**上次对账时Redis中的全局计数，-1表示尚未对账**/
+    private long syncedTotal = -1;
+    /**上次对账的周期序号**/
+    private long syncedTick = -1;
+
+    /**
+     * 尝试获取一个令牌，成功返回0，失败返回需要等待的纳秒数
+     * @param now 当前时间(System.nanoTime)
+     * @param emissionInterval 令牌产生间隔
+     * @param tolerance 允许的突发量对应的时间
+     */
+    public long tryAcquire(long now, long emissionInterval, long tolerance) {
+        while (true) {
+            long current = tat.get();
+            long newTat = Math.max(current, now) + emissionInterval;
+            long wait = newTat - now - tolerance;
+            if (wait > 0) {
+                return wait;
+            }
+            if (tat.compareAndSet(current, newTat)) {
+                pending.increment();
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * 归还一个令牌，同一请求的后续规则未通过时调用
+     */
+    public void release(long emissionInterval) {
+        tat.addAndGet(-emissionInterval);
+        pending.decrement();
+    }
+
+    /**
+     * 扣除其他节点消耗的令牌
+     */
+    public void consume(long now, long permits, long emissionInterval) {
+        while (true) {
+            long current = tat.get();
+            if (tat.compareAndSet(current, Math.max(current, now) + permits * emissionInterval)) {
+                return;
+            }
+        }
+    }
+
+    long drainPending() {
+        return pending.sumThenReset();
+    }
+
+    long getSyncedTotal() {
+        return syncedTotal;
+    }
+
+    void setSyncedTotal(long syncedTotal) {
+        this.syncedTotal = syncedTotal;
+    }
+
+    long getSyncedTick() {
+        return syncedTick;
+    }
+
+    void setSyncedTick(long syncedTick) {
+        this.syncedTick = syncedTick;
+    }
+}
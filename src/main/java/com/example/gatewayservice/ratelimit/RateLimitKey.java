@@ -0,0 +1,15 @@
+package com.example.gatewayservice.ratelimit;
+
+/**
+ * 限流维度
+ * @author Joetao
+ * @date 2026/10/18
+ */
+public enum RateLimitKey {
+    /**按客户端client_id限流**/
+    CLIENT_ID,
+    /**按用户id限流，未登录请求不受该规则限制**/
+    USER,
+    /**按请求真实IP限流**/
+    IP
+}
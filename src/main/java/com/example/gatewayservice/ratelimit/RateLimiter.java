@@ -0,0 +1,78 @@
+package com.example.gatewayservice.ratelimit;
+
+import com.example.gatewayservice.config.RateLimitConfig;
+import com.example.gatewayservice.constant.RedisConstant;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 单条限流规则，按限流维度的取值维护各自的令牌桶
+ * @author Joetao
+ * @date 2026/10/18
+ */
+public class RateLimiter {
+    private final RateLimitKey key;
+    private final long emissionInterval;
+    private final long tolerance;
+    private final String redisKeyPrefix;
+    private final Cache<String, RateLimitBucket> buckets;
+    private final Counter rejected;
+
+    public RateLimiter(String routeId, RateLimitConfig.RateLimitRule rule, RateLimitConfig rateLimitConfig, MeterRegistry meterRegistry) {
+        if (rule.getKey() == null || rule.getRate() <= 0 || rule.getBurst() < 1) {
+            throw new IllegalArgumentException("路由" + routeId + "的限流规则配置错误:" + rule);
+        }
+        this.key = rule.getKey();
+        this.emissionInterval = (long) (TimeUnit.SECONDS.toNanos(1) / rule.getRate());
+        this.tolerance = emissionInterval * rule.getBurst();
+        this.redisKeyPrefix = RedisConstant.RATE_LIMIT_PREFIX + routeId + ":" + key.name() + ":";
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(rateLimitConfig.getMaximumKeys())
+                .expireAfterAccess(rateLimitConfig.getIdleTimeout())
+                .build();
+        this.rejected = Counter.builder("gateway.rate.limit.rejected")
+                .tag("route", routeId)
+                .tag("key", key.name())
+                .register(meterRegistry);
+    }
+
+    public RateLimitKey getKey() {
+        return key;
+    }
+
+    public RateLimitBucket bucket(String identity) {
+        return buckets.get(identity, k -> new RateLimitBucket());
+    }
+
+    /**
+     * 成功返回0，失败返回需要等待的纳秒数
+     */
+    public long tryAcquire(RateLimitBucket bucket) {
+        long wait = bucket.tryAcquire(System.nanoTime(), emissionInterval, tolerance);
+        if (wait > 0) {
+            rejected.increment();
+        }
+        return wait;
+    }
+
+    public void release(RateLimitBucket bucket) {
+        bucket.release(emissionInterval);
+    }
+
+    long getEmissionInterval() {
+        return emissionInterval;
+    }
+
+    String redisKey(String identity) {
+        return redisKeyPrefix + identity;
+    }
+
+    Map<String, RateLimitBucket> buckets() {
+        return buckets.asMap();
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.gatewayservice.ratelimit;
+
+import com.example.gatewayservice.config.RateLimitConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 按路由组织的限流规则
+ * 限流判断只访问本地令牌桶；开启跨节点对账时，定时把各桶新放行的请求数批量累加到Redis，
+ * 再把其他节点在同一周期内消耗的令牌从本地桶中扣除，使各节点合计不超过配置的速率
+ * @author Joetao
+ * @date 2026/10/18
+ */
+@Component
+@Slf4j
+public class RateLimiterRegistry {
+    private static final RedisScript<Long> INCREMENT_SCRIPT = new DefaultRedisScript<>(
+            "local total = redis.call('INCRBY', KEYS[1], ARGV[1]) redis.call('PEXPIRE', KEYS[1], ARGV[2]) return total", Long.class);
+    private static final int SYNC_CONCURRENCY = 256;
+
+    private final RateLimitConfig rateLimitConfig;
+    private final ReactiveStringRedisTemplate reactiveStringRedisTemplate;
+    private final Map<String, RateLimiter[]> limiters = new HashMap<>();
+    private Disposable syncSubscription;
+
+    public RateLimiterRegistry(RateLimitConfig rateLimitConfig,
+                               ReactiveStringRedisTemplate reactiveStringRedisTemplate,
+                               MeterRegistry meterRegistry) {
+        this.rateLimitConfig = rateLimitConfig;
+        this.reactiveStringRedisTemplate = reactiveStringRedisTemplate;
+        if (rateLimitConfig.isEnabled()) {
+            for (Map.Entry<String, List<RateLimitConfig.RateLimitRule>> entry : rateLimitConfig.getRoutes().entrySet()) {
+                List<RateLimiter> routeLimiters = new ArrayList<>();
+                for (RateLimitConfig.RateLimitRule rule : entry.getValue()) {
+                    routeLimiters.add(new RateLimiter(entry.getKey(), rule, rateLimitConfig, meterRegistry));
+                }
+                limiters.put(entry.getKey(), routeLimiters.toArray(new RateLimiter[0]));
+            }
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        if (limiters.isEmpty() || !rateLimitConfig.getRedisSync().isEnabled()) {
+            return;
+        }
+        Duration interval = rateLimitConfig.getRedisSync().getInterval();
+        syncSubscription = Flux.interval(interval, interval)
+                .onBackpressureDrop()
+                .concatMap(tick -> sync(tick)
+                        .onErrorResume(e -> {
+                            log.error("限流计数对账失败", e);
+                            return Mono.empty();
+                        }), 1)
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (syncSubscription != null) {
+            syncSubscription.dispose();
+        }
+    }
+
+    /**
+     * 获取路由的限流规则，未配置时返回null
+     */
+    public RateLimiter[] getLimiters(String routeId) {
+        return limiters.get(routeId);
+    }
+
+    private Mono<Void> sync(long tick) {
+        String ttl = String.valueOf(rateLimitConfig.getIdleTimeout().toMillis());
+        return Flux.fromIterable(limiters.values())
+                .flatMapIterable(Arrays::asList)
+                .flatMap(limiter -> Flux.fromIterable(limiter.buckets().entrySet())
+                        .flatMap(entry -> {
+                            RateLimitBucket bucket = entry.getValue();
+                            long delta = bucket.drainPending();
+                            if (delta <= 0) {
+                                return Mono.empty();
+                            }
+                            return reactiveStringRedisTemplate.execute(INCREMENT_SCRIPT,
+                                    Collections.singletonList(limiter.redisKey(entry.getKey())),
+                                    Arrays.asList(String.valueOf(delta), ttl))
+                                    .next()
+                                    .doOnNext(total -> reconcile(limiter, bucket, delta, total, tick));
+                        }, SYNC_CONCURRENCY))
+                .then();
+    }
+
+    /**
+     * 只扣除上一周期以来其他节点的消耗；闲置后重新活跃的桶只记录计数，避免把历史消耗一次性扣除
+     */
+    private void reconcile(RateLimiter limiter, RateLimitBucket bucket, long delta, long total, long tick) {
+        long previous = bucket.getSyncedTotal();
+        if (previous >= 0 && bucket.getSyncedTick() == tick - 1) {
+            long others = total - previous - delta;
+            if (others > 0) {
+                bucket.consume(System.nanoTime(), others, limiter.getEmissionInterval());
+            }
+        }
+        bucket.setSyncedTotal(total);
+        bucket.setSyncedTick(tick);
+    }
+}
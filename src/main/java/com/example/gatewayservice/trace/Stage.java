@@ -0,0 +1,29 @@
+package com.example.gatewayservice.trace;
+
+/**
+ * 网关处理请求的各阶段，名称用作指标的stage标签与访问日志中的字段名
+ * @author Joetao
+ * @date 2026/10/18
+ */
+public enum Stage {
+    /**白名单匹配**/
+    WHITELIST("whitelist"),
+    /**JWT签名与有效期校验**/
+    JWT("jwt"),
+    /**AuthorizationManager读取token认证信息(本地缓存或Redis)**/
+    AUTHORIZATION("authorization"),
+    /**缓存请求体用于访问日志**/
+    BODY_CAPTURE("body_capture"),
+    /**转发到上游直至收到响应头**/
+    UPSTREAM("upstream");
+
+    private final String tag;
+
+    Stage(String tag) {
+        this.tag = tag;
+    }
+
+    public String getTag() {
+        return tag;
+    }
+}
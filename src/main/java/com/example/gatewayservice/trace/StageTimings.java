@@ -0,0 +1,81 @@
+package com.example.gatewayservice.trace;
+
+import com.example.gatewayservice.constant.TraceConstant;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 单个请求各阶段的耗时，同一阶段多次执行时累加
+ * 由TraceContextWebFilter创建，同时放入exchange属性与Reactor上下文，
+ * 拿不到exchange的位置(如JWT解码器)通过上下文记录
+ * @author Joetao
+ * @date 2026/10/18
+ */
+public final class StageTimings {
+    private static final Stage[] STAGES = Stage.values();
+
+    private final long[] nanos = new long[STAGES.length];
+
+    public void record(Stage stage, long elapsedNanos) {
+        nanos[stage.ordinal()] += elapsedNanos;
+    }
+
+    /**
+     * 累加另一个StageTimings的耗时，用于合并对冲请求中胜出一次尝试的耗时
+     */
+    public void add(StageTimings other) {
+        for (int i = 0; i < nanos.length; i++) {
+            nanos[i] += other.nanos[i];
+        }
+    }
+
+    public long getNanos(Stage stage) {
+        return nanos[stage.ordinal()];
+    }
+
+    /**
+     * 已执行阶段的耗时(微秒)，用于访问日志
+     */
+    public Map<String, Long> toMicros() {
+        Map<String, Long> micros = new LinkedHashMap<>();
+        for (Stage stage : STAGES) {
+            long value = nanos[stage.ordinal()];
+            if (value > 0) {
+                micros.put(stage.getTag(), TimeUnit.NANOSECONDS.toMicros(value));
+            }
+        }
+        return micros;
+    }
+
+    public static StageTimings from(ServerWebExchange exchange) {
+        return exchange.getAttribute(TraceConstant.STAGE_TIMINGS_ATTR);
+    }
+
+    /**
+     * 记录从startNanos到当前的耗时，请求未经过TraceContextWebFilter时忽略
+     */
+    public static void record(ServerWebExchange exchange, Stage stage, long startNanos) {
+        StageTimings timings = from(exchange);
+        if (timings != null) {
+            timings.record(stage, System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * 记录source从订阅到结束的耗时，StageTimings从Reactor上下文中获取
+     */
+    public static <T> Mono<T> timed(Stage stage, Mono<T> source) {
+        return Mono.subscriberContext().flatMap(context -> {
+            StageTimings timings = context.getOrDefault(StageTimings.class, null);
+            if (timings == null) {
+                return source;
+            }
+            long start = System.nanoTime();
+            return source.doFinally(signal -> timings.record(stage, System.nanoTime() - start));
+        });
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.gatewayservice.trace;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * W3C Trace Context(traceparent)的解析与生成
+ * 格式：version-traceId(32位十六进制)-parentId(16位十六进制)-flags，网关作为一个span，
+ * 继承调用方的traceId与采样标记，向上游传递时以网关的spanId作为parentId；
+ * id由ThreadLocalRandom生成，无锁竞争，格式化只分配结果字符串
+ * @author Joetao
+ * @date 2026/10/18
+ */
+public final class TraceContext {
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final int TRACEPARENT_LENGTH = 55;
+    private static final int TRACE_ID_OFFSET = 3;
+    private static final int PARENT_ID_OFFSET = 36;
+    private static final int FLAGS_OFFSET = 53;
+    private static final int FLAG_SAMPLED = 0x01;
+
+    private final String traceId;
+    private final String spanId;
+    private final String parentSpanId;
+    private final int flags;
+
+    private TraceContext(String traceId, String spanId, String parentSpanId, int flags) {
+        this.traceId = traceId;
+        this.spanId = spanId;
+        this.parentSpanId = parentSpanId;
+        this.flags = flags;
+    }
+
+    /**
+     * 延续调用方传入的traceparent，格式不合法或为空时开始新的trace
+     */
+    public static TraceContext continueOrCreate(String traceparent) {
+        if (isValid(traceparent)) {
+            return new TraceContext(traceparent.substring(TRACE_ID_OFFSET, TRACE_ID_OFFSET + 32), newSpanId(),
+                    traceparent.substring(PARENT_ID_OFFSET, PARENT_ID_OFFSET + 16),
+                    Character.digit(traceparent.charAt(FLAGS_OFFSET), 16) << 4 | Character.digit(traceparent.charAt(FLAGS_OFFSET + 1), 16));
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long high = random.nextLong();
+        long low = random.nextLong();
+        if (high == 0 && low == 0) {
+            low = 1;
+        }
+        char[] traceId = new char[32];
+        writeHex(traceId, 0, high);
+        writeHex(traceId, 16, low);
+        return new TraceContext(new String(traceId), newSpanId(), null, FLAG_SAMPLED);
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    public String getSpanId() {
+        return spanId;
+    }
+
+    /**
+     * 调用方的spanId，由网关开始的trace返回null
+     */
+    public String getParentSpanId() {
+        return parentSpanId;
+    }
+
+    public boolean isSampled() {
+        return (flags & FLAG_SAMPLED) != 0;
+    }
+
+    /**
+     * 传给上游的traceparent，parentId为网关的spanId
+     */
+    public String toTraceparent() {
+        char[] chars = new char[TRACEPARENT_LENGTH];
+        chars[0] = '0';
+        chars[1] = '0';
+        chars[2] = '-';
+        traceId.getChars(0, 32, chars, TRACE_ID_OFFSET);
+        chars[35] = '-';
+        spanId.getChars(0, 16, chars, PARENT_ID_OFFSET);
+        chars[52] = '-';
+        chars[FLAGS_OFFSET] = HEX[(flags >> 4) & 0xF];
+        chars[FLAGS_OFFSET + 1] = HEX[flags & 0xF];
+        return new String(chars);
+    }
+
+    private static String newSpanId() {
+        long id = ThreadLocalRandom.current().nextLong();
+        char[] chars = new char[16];
+        writeHex(chars, 0, id != 0 ? id : 1);
+        return new String(chars);
+    }
+
+    private static void writeHex(char[] target, int offset, long value) {
+        for (int i = 15; i >= 0; i--) {
+            target[offset + i] = HEX[(int) (value & 0xF)];
+            value >>>= 4;
+        }
+    }
+
+    /**
+     * 按规范校验：版本不为ff，00版本长度固定，traceId与parentId为小写十六进制且不全为0
+     */
+    private static boolean isValid(String traceparent) {
+        if (traceparent == null || traceparent.length() < TRACEPARENT_LENGTH) {
+            return false;
+        }
+        if (traceparent.charAt(2) != '-' || traceparent.charAt(35) != '-' || traceparent.charAt(52) != '-') {
+            return false;
+        }
+        if (!isHex(traceparent, 0, 2) || traceparent.startsWith("ff")) {
+            return false;
+        }
+        if (traceparent.startsWith("00") && traceparent.length() != TRACEPARENT_LENGTH) {
+            return false;
+        }
+        if (traceparent.length() > TRACEPARENT_LENGTH && traceparent.charAt(TRACEPARENT_LENGTH) != '-') {
+            return false;
+        }
+        return isHex(traceparent, TRACE_ID_OFFSET, 32) && !isZero(traceparent, TRACE_ID_OFFSET, 32)
+                && isHex(traceparent, PARENT_ID_OFFSET, 16) && !isZero(traceparent, PARENT_ID_OFFSET, 16)
+                && isHex(traceparent, FLAGS_OFFSET, 2);
+    }
+
+    private static boolean isHex(String value, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            char c = value.charAt(i);
+            if (!(c >= '0' && c <= '9' || c >= 'a' && c <= 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isZero(String value, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            if (value.charAt(i) != '0') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
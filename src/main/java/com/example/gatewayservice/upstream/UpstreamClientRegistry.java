@@ -0,0 +1,127 @@
+package com.example.gatewayservice.upstream;
+
+import com.example.gatewayservice.config.UpstreamPoolConfig;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.netty.channel.ChannelOption;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.stereotype.Component;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionPoolMetrics;
+import reactor.netty.resources.ConnectionProvider;
+
+import javax.annotation.PreDestroy;
+import java.net.SocketAddress;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 按路由独立的上游HttpClient
+ * 每个配置的路由使用单独的ConnectionProvider，连接数与等待队列互不影响；连接超时、响应头大小、压缩等
+ * 沿用spring.cloud.gateway.httpclient的配置
+ * 指标：gateway.upstream.pool.connections(state=active/idle/total)、gateway.upstream.pool.pending按路由与上游地址统计，
+ * gateway.upstream.pool.acquire为请求从开始转发到拿到连接的耗时(新建连接时包括TCP连接耗时)
+ * @author Joetao
+ * @date 2026/10/18
+ */
+@Component
+@Slf4j
+public class UpstreamClientRegistry {
+    /**转发开始时间在Reactor上下文中的key，由RouteNettyRoutingFilter写入**/
+    public static final String ACQUIRE_START = UpstreamClientRegistry.class.getName() + ".acquireStart";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, ConnectionProvider> providers = new HashMap<>();
+    private final Map<String, HttpClient> clients = new HashMap<>();
+
+    public UpstreamClientRegistry(UpstreamPoolConfig upstreamPoolConfig, HttpClientProperties httpClientProperties,
+                                  MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        upstreamPoolConfig.getRoutes().forEach((routeId, config) -> {
+            ConnectionProvider provider = connectionProvider(routeId, config);
+            providers.put(routeId, provider);
+            clients.put(routeId, httpClient(routeId, provider, config, httpClientProperties));
+            log.info("路由{}使用独立连接池，最大连接数:{}，h2c:{}", routeId, config.getMaxConnections(), config.isH2c());
+        });
+    }
+
+    /**
+     * 路由的HttpClient，未配置独立连接池时返回null
+     */
+    public HttpClient get(String routeId) {
+        return clients.get(routeId);
+    }
+
+    @PreDestroy
+    public void close() {
+        providers.values().forEach(ConnectionProvider::dispose);
+    }
+
+    private ConnectionProvider connectionProvider(String routeId, UpstreamPoolConfig.RoutePoolConfig config) {
+        ConnectionProvider.Builder builder = ConnectionProvider.builder("gateway-" + routeId)
+                .maxConnections(config.getMaxConnections())
+                .pendingAcquireMaxCount(config.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(config.getPendingAcquireTimeout())
+                .metrics(true, () -> (poolName, id, remoteAddress, metrics) -> registerPoolMetrics(routeId, remoteAddress, metrics));
+        if (config.getMaxIdleTime() != null) {
+            builder.maxIdleTime(config.getMaxIdleTime());
+        }
+        if (config.getMaxLifeTime() != null) {
+            builder.maxLifeTime(config.getMaxLifeTime());
+        }
+        if (config.getEvictInterval() != null) {
+            builder.evictInBackground(config.getEvictInterval());
+        }
+        return builder.build();
+    }
+
+    private HttpClient httpClient(String routeId, ConnectionProvider provider, UpstreamPoolConfig.RoutePoolConfig config,
+                                  HttpClientProperties properties) {
+        Timer acquire = Timer.builder("gateway.upstream.pool.acquire")
+                .tag("route", routeId)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        HttpClient client = HttpClient.create(provider)
+                .httpResponseDecoder(spec -> {
+                    if (properties.getMaxHeaderSize() != null) {
+                        spec.maxHeaderSize((int) properties.getMaxHeaderSize().toBytes());
+                    }
+                    if (properties.getMaxInitialLineLength() != null) {
+                        spec.maxInitialLineLength((int) properties.getMaxInitialLineLength().toBytes());
+                    }
+                    return spec;
+                })
+                .keepAlive(config.isKeepAlive())
+                .compress(properties.isCompression())
+                .wiretap(properties.isWiretap())
+                .doOnRequest((request, connection) -> {
+                    Long start = request.currentContext().getOrDefault(ACQUIRE_START, null);
+                    if (start != null) {
+                        acquire.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    }
+                });
+        if (properties.getConnectTimeout() != null) {
+            client = client.tcpConfiguration(tcp -> tcp.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, properties.getConnectTimeout()));
+        }
+        if (config.isH2c()) {
+            client = client.protocol(HttpProtocol.H2C);
+        }
+        return client;
+    }
+
+    private void registerPoolMetrics(String routeId, SocketAddress remoteAddress, ConnectionPoolMetrics metrics) {
+        String remote = String.valueOf(remoteAddress);
+        Gauge.builder("gateway.upstream.pool.connections", metrics, ConnectionPoolMetrics::acquiredSize)
+                .tags("route", routeId, "remote", remote, "state", "active").register(meterRegistry);
+        Gauge.builder("gateway.upstream.pool.connections", metrics, ConnectionPoolMetrics::idleSize)
+                .tags("route", routeId, "remote", remote, "state", "idle").register(meterRegistry);
+        Gauge.builder("gateway.upstream.pool.connections", metrics, ConnectionPoolMetrics::allocatedSize)
+                .tags("route", routeId, "remote", remote, "state", "total").register(meterRegistry);
+        Gauge.builder("gateway.upstream.pool.pending", metrics, ConnectionPoolMetrics::pendingAcquireSize)
+                .tags("route", routeId, "remote", remote).register(meterRegistry);
+    }
+}
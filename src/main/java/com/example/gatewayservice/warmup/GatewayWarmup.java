@@ -0,0 +1,209 @@
+package com.example.gatewayservice.warmup;
+
+import com.example.gatewayservice.config.WarmupConfig;
+import com.example.gatewayservice.upstream.UpstreamClientRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.core.env.Environment;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.http.CacheControl;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.http.client.HttpClient;
+import reactor.util.function.Tuples;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 启动预热，在网关报告就绪(ReadinessState.ACCEPTING_TRAFFIC)之前执行
+ * 依次建立Redis连接、初始化Ribbon负载均衡器并为Nacos发现的每个上游实例预先建立连接、
+ * 向网关自身发送模拟请求使白名单、鉴权、访问日志等过滤器代码完成JIT编译；JWK已由JwkManager在启动时预先获取
+ * 每个步骤的失败只记录日志，超过总时长上限后直接就绪，预热耗时通过gateway.warmup.duration指标暴露
+ * @author Joetao
+ * @date 2026/10/18
+ */
+@Component
+@Slf4j
+public class GatewayWarmup implements ApplicationRunner {
+    private static final String[] HTTP_SCHEMES = {"http", "https"};
+
+    private final WarmupConfig warmupConfig;
+    private final ReactiveStringRedisTemplate reactiveStringRedisTemplate;
+    private final RouteLocator routeLocator;
+    private final LoadBalancerClient loadBalancerClient;
+    private final DiscoveryClient discoveryClient;
+    private final HttpClient httpClient;
+    private final UpstreamClientRegistry upstreamClientRegistry;
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, AtomicLong> durations = new ConcurrentHashMap<>();
+
+    public GatewayWarmup(WarmupConfig warmupConfig, ReactiveStringRedisTemplate reactiveStringRedisTemplate,
+                         RouteLocator routeLocator, LoadBalancerClient loadBalancerClient, DiscoveryClient discoveryClient,
+                         HttpClient httpClient, UpstreamClientRegistry upstreamClientRegistry, Environment environment,
+                         MeterRegistry meterRegistry) {
+        this.warmupConfig = warmupConfig;
+        this.reactiveStringRedisTemplate = reactiveStringRedisTemplate;
+        this.routeLocator = routeLocator;
+        this.loadBalancerClient = loadBalancerClient;
+        this.discoveryClient = discoveryClient;
+        this.httpClient = httpClient;
+        this.upstreamClientRegistry = upstreamClientRegistry;
+        this.environment = environment;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!warmupConfig.isEnabled()) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            step("redis", warmRedis())
+                    .then(step("upstream", warmUpstreams()))
+                    .then(step("requests", warmRequests()))
+                    .block(warmupConfig.getTimeout());
+        } catch (RuntimeException e) {
+            log.warn("预热未在{}内完成，跳过剩余步骤:{}", warmupConfig.getTimeout(), e.getMessage());
+        }
+        long elapsed = System.nanoTime() - start;
+        recordDuration("total", elapsed);
+        log.info("预热完成，耗时{}ms", TimeUnit.NANOSECONDS.toMillis(elapsed));
+    }
+
+    /**
+     * 记录单个步骤的耗时，步骤失败不影响后续步骤
+     */
+    private Mono<Void> step(String name, Mono<Void> warmup) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return warmup
+                    .onErrorResume(e -> {
+                        log.warn("预热步骤{}失败:{}", name, e.getMessage());
+                        return Mono.empty();
+                    })
+                    .doOnTerminate(() -> {
+                        long elapsed = System.nanoTime() - start;
+                        recordDuration(name, elapsed);
+                        log.info("预热步骤{}完成，耗时{}ms", name, TimeUnit.NANOSECONDS.toMillis(elapsed));
+                    });
+        });
+    }
+
+    private Mono<Void> warmRedis() {
+        return Flux.range(0, warmupConfig.getRedisPings())
+                .concatMap(i -> reactiveStringRedisTemplate.execute(connection -> connection.ping()))
+                .then();
+    }
+
+    /**
+     * 按路由地址解析上游实例，lb路由通过Ribbon初始化负载均衡器后取Nacos发现的全部实例
+     */
+    private Mono<Void> warmUpstreams() {
+        AtomicInteger opened = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        return routeLocator.getRoutes()
+                .flatMap(route -> resolveInstances(route.getUri()).map(instance -> Tuples.of(route.getId(), instance)))
+                .distinct()
+                .flatMap(target -> Flux.range(0, warmupConfig.getConnectionsPerInstance())
+                        .flatMap(i -> probe(target.getT1(), target.getT2())
+                                .doOnSuccess(status -> opened.incrementAndGet())
+                                .onErrorResume(e -> {
+                                    failed.incrementAndGet();
+                                    log.warn("上游实例{}连接失败:{}", target.getT2(), e.getMessage());
+                                    return Mono.empty();
+                                })))
+                .then(Mono.fromRunnable(() -> log.info("上游连接预热，成功:{}，失败:{}", opened.get(), failed.get())));
+    }
+
+    private Flux<URI> resolveInstances(URI routeUri) {
+        if ("lb".equalsIgnoreCase(routeUri.getScheme())) {
+            String serviceId = routeUri.getHost();
+            return Mono.fromCallable(() -> {
+                        loadBalancerClient.choose(serviceId);
+                        return discoveryClient.getInstances(serviceId);
+                    })
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .flatMapIterable((List<ServiceInstance> instances) -> instances)
+                    .map(ServiceInstance::getUri);
+        }
+        if (StringUtils.equalsAnyIgnoreCase(routeUri.getScheme(), HTTP_SCHEMES)) {
+            return Flux.just(routeUri);
+        }
+        return Flux.empty();
+    }
+
+    /**
+     * 通过转发使用的HttpClient(路由配置了独立连接池时为该路由的HttpClient)发送请求，收到响应后连接回到连接池
+     */
+    private Mono<Integer> probe(String routeId, URI instance) {
+        URI uri = UriComponentsBuilder.fromUri(instance).replacePath(warmupConfig.getUpstreamPath()).build(true).toUri();
+        HttpClient routeClient = upstreamClientRegistry.get(routeId);
+        return (routeClient != null ? routeClient : httpClient).head()
+                .uri(uri.toString())
+                .responseSingle((response, body) -> body.then(Mono.just(response.status().code())))
+                .timeout(warmupConfig.getUpstreamTimeout());
+    }
+
+    /**
+     * 向网关自身发送带预热标记的请求，不经过响应缓存，不写访问日志也不计入路由指标
+     */
+    private Mono<Void> warmRequests() {
+        Integer port = environment.getProperty("local.server.port", Integer.class);
+        if (port == null || warmupConfig.getPaths().isEmpty()) {
+            return Mono.empty();
+        }
+        WebClient client = WebClient.create("http://127.0.0.1:" + port);
+        AtomicInteger completed = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        return Flux.fromIterable(warmupConfig.getPaths())
+                .concatMap(path -> Flux.range(0, warmupConfig.getIterations())
+                        .flatMap(i -> client.get()
+                                .uri(path)
+                                .headers(headers -> {
+                                    WarmupRequests.mark(headers);
+                                    headers.setCacheControl(CacheControl.noStore());
+                                    if (StringUtils.isNotBlank(warmupConfig.getToken())) {
+                                        headers.setBearerAuth(warmupConfig.getToken());
+                                    }
+                                })
+                                .exchange()
+                                .flatMap(ClientResponse::releaseBody)
+                                .doOnSuccess(v -> completed.incrementAndGet())
+                                .onErrorResume(e -> {
+                                    failed.incrementAndGet();
+                                    return Mono.empty();
+                                }), warmupConfig.getConcurrency()))
+                .then(Mono.fromRunnable(() -> log.info("模拟请求预热，完成:{}，失败:{}", completed.get(), failed.get())));
+    }
+
+    private void recordDuration(String step, long nanos) {
+        durations.computeIfAbsent(step, key -> {
+            AtomicLong duration = new AtomicLong();
+            TimeGauge.builder("gateway.warmup.duration", duration, TimeUnit.NANOSECONDS, AtomicLong::get)
+                    .tag("step", key)
+                    .register(meterRegistry);
+            return duration;
+        }).set(nanos);
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.gatewayservice.warmup;
+
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+/**
+ * 转发给上游前移除预热标记请求头，避免标记值泄露给上游
+ * @author Joetao
+ * @date 2026/10/18
+ */
+@Component
+public class WarmupHeadersFilter implements HttpHeadersFilter {
+
+    @Override
+    public HttpHeaders filter(HttpHeaders input, ServerWebExchange exchange) {
+        if (!input.containsKey(WarmupRequests.HEADER)) {
+            return input;
+        }
+        HttpHeaders filtered = new HttpHeaders();
+        input.forEach((name, values) -> {
+            if (!WarmupRequests.HEADER.equalsIgnoreCase(name)) {
+                filtered.put(name, values);
+            }
+        });
+        return filtered;
+    }
+}
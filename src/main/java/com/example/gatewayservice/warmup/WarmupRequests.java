@@ -0,0 +1,28 @@
+package com.example.gatewayservice.warmup;
+
+import cn.hutool.core.util.IdUtil;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.server.ServerWebExchange;
+
+/**
+ * 预热模拟请求的标记
+ * 标记值每次启动随机生成，外部请求无法伪造；带标记的请求照常经过过滤器链，但不写访问日志、不计入路由指标，
+ * 不消耗限流令牌，不参与请求合并、对冲、并发限制与熔断统计及负载均衡的实例统计；转发给上游前移除标记请求头
+ * @author Joetao
+ * @date 2026/10/18
+ */
+public final class WarmupRequests {
+    public static final String HEADER = "X-Gateway-Warmup";
+    private static final String KEY = IdUtil.fastSimpleUUID();
+
+    private WarmupRequests() {
+    }
+
+    public static void mark(HttpHeaders headers) {
+        headers.set(HEADER, KEY);
+    }
+
+    public static boolean isWarmup(ServerWebExchange exchange) {
+        return KEY.equals(exchange.getRequest().getHeaders().getFirst(HEADER));
+    }
+}
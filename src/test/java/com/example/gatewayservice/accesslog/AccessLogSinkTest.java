@@ -0,0 +1,41 @@
+package com.example.gatewayservice.accesslog;
+
+import cn.hutool.core.util.StrUtil;
+import com.example.gatewayservice.config.AccessLogConfig;
+import com.example.gatewayservice.entity.GatewayLog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AccessLogSinkTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void countsRejectedLogsAsDropped() throws Exception {
+        AccessLogConfig config = new AccessLogConfig();
+        config.setFormat(AccessLogFormat.BINARY);
+        config.getBinary().setDirectory(directory.toString());
+        config.getBinary().setSegmentSize(DataSize.ofBytes(1024));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AccessLogSink sink = new AccessLogSink(config, meterRegistry);
+        sink.start();
+
+        // 去掉报文体后仍超过段文件容量，写出时被拒绝
+        GatewayLog rejected = BinaryLogCodecTest.fullLog("r1", "user-service");
+        rejected.setRequestPath("/" + StrUtil.repeat('p', 1024));
+        sink.publish(rejected);
+        sink.publish(BinaryLogCodecTest.fullLog("r2", "user-service"));
+        sink.stop();
+
+        assertThat(meterRegistry.get("gateway.access.log.queued").functionCounter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("gateway.access.log.written").functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("gateway.access.log.dropped").functionCounter().count()).isEqualTo(1);
+    }
+}
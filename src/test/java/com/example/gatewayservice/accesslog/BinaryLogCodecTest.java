@@ -0,0 +1,101 @@
+package com.example.gatewayservice.accesslog;
+
+import com.example.gatewayservice.entity.GatewayLog;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BinaryLogCodecTest {
+
+    static GatewayLog fullLog(String requestId, String targetServer) {
+        GatewayLog gatewayLog = new GatewayLog();
+        gatewayLog.setTargetServer(targetServer);
+        gatewayLog.setClientType("password");
+        gatewayLog.setRequestPath("/us/users/1");
+        gatewayLog.setRequestMethod("GET");
+        gatewayLog.setRequestId(requestId);
+        gatewayLog.setSpanId("00f067aa0ba902b7");
+        gatewayLog.setSchema("http");
+        gatewayLog.setUserId(-10086L);
+        gatewayLog.setUsername("张三");
+        gatewayLog.setRequestBody("{\"a\":1}");
+        gatewayLog.setResponseData("{\"code\":200}");
+        gatewayLog.setStatus(200);
+        gatewayLog.setIp("10.0.0.1");
+        gatewayLog.setRequestTime(new Date(1_792_000_000_000L));
+        gatewayLog.setResponseTime(new Date(1_792_000_000_123L));
+        gatewayLog.setExecuteTime(123);
+        gatewayLog.setClientId("web-app");
+        Map<String, Long> stageTimes = new LinkedHashMap<>();
+        stageTimes.put("jwt", 310L);
+        stageTimes.put("upstream", 21064L);
+        gatewayLog.setStageTimes(stageTimes);
+        return gatewayLog;
+    }
+
+    @Test
+    void roundTripsAllFields() {
+        GatewayLog full = fullLog("r1", "user-service");
+        GatewayLog sparse = new GatewayLog();
+        sparse.setRequestPath("/oauth2/token");
+        sparse.setExecuteTime(-1);
+
+        List<GatewayLog> decoded = decode(encodeAll(new BinaryLogCodec.Encoder(), full, sparse));
+
+        assertThat(decoded).containsExactly(full, sparse);
+    }
+
+    @Test
+    void writesDictionaryValuesOncePerSegment() {
+        BinaryLogCodec.Encoder encoder = new BinaryLogCodec.Encoder();
+        encoder.encode(fullLog("r1", "user-service"));
+        int first = encoder.length();
+        encoder.commit();
+        encoder.encode(fullLog("r2", "user-service"));
+
+        assertThat(encoder.length()).isLessThan(first);
+    }
+
+    @Test
+    void discardsDictionaryValuesOfUncommittedEncode() {
+        BinaryLogCodec.Encoder encoder = new BinaryLogCodec.Encoder();
+        // 编码结果未写出，字典值不应被后续日志引用
+        encoder.encode(fullLog("dropped", "order-service"));
+        GatewayLog next = fullLog("r2", "order-service");
+
+        assertThat(decode(encodeAll(encoder, next))).containsExactly(next);
+    }
+
+    private static byte[] encodeAll(BinaryLogCodec.Encoder encoder, GatewayLog... logs) {
+        ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+        buffer.putInt(BinaryLogCodec.MAGIC);
+        buffer.put(BinaryLogCodec.VERSION);
+        for (GatewayLog gatewayLog : logs) {
+            byte[] frames = encoder.encode(gatewayLog);
+            buffer.put(frames, 0, encoder.length());
+            encoder.commit();
+        }
+        buffer.put(BinaryLogCodec.FRAME_END);
+        byte[] bytes = new byte[buffer.position()];
+        buffer.flip();
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    private static List<GatewayLog> decode(byte[] bytes) {
+        BinaryLogCodec.Decoder decoder = new BinaryLogCodec.Decoder(ByteBuffer.wrap(bytes), new ArrayList<>());
+        List<GatewayLog> logs = new ArrayList<>();
+        GatewayLog gatewayLog;
+        while ((gatewayLog = decoder.next()) != null) {
+            logs.add(gatewayLog);
+        }
+        return logs;
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.gatewayservice.accesslog;
+
+import cn.hutool.core.util.StrUtil;
+import com.example.gatewayservice.entity.GatewayLog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BinaryLogSegmentWriterTest {
+    private static final int SEGMENT_SIZE = 1024;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void rotatesWhenSegmentIsFull() throws Exception {
+        List<GatewayLog> written = new ArrayList<>();
+        try (BinaryLogSegmentWriter writer = new BinaryLogSegmentWriter(directory, SEGMENT_SIZE, 100)) {
+            for (int i = 0; i < 20; i++) {
+                GatewayLog gatewayLog = BinaryLogCodecTest.fullLog("r" + i, "user-service");
+                assertThat(writer.write(gatewayLog)).isTrue();
+                written.add(gatewayLog);
+            }
+        }
+
+        assertThat(BinaryLogSegmentWriter.listSegments(directory).size()).isGreaterThan(1);
+        assertThat(readAll()).isEqualTo(written);
+    }
+
+    @Test
+    void stripsBodiesAfterRotateWithNewDictionaryValues() throws Exception {
+        GatewayLog first = BinaryLogCodecTest.fullLog("r1", "user-service");
+        // 新段中也放不下报文体，去掉报文体后重新编码，新段仍需写出targetServer的字典帧
+        GatewayLog large = BinaryLogCodecTest.fullLog("r2", "order-service");
+        large.setResponseData(StrUtil.repeat('x', SEGMENT_SIZE));
+        GatewayLog next = BinaryLogCodecTest.fullLog("r3", "order-service");
+        try (BinaryLogSegmentWriter writer = new BinaryLogSegmentWriter(directory, SEGMENT_SIZE, 100)) {
+            assertThat(writer.write(first)).isTrue();
+            assertThat(writer.write(large)).isTrue();
+            assertThat(writer.write(next)).isTrue();
+        }
+
+        assertThat(large.getRequestBody()).isNull();
+        assertThat(large.getResponseData()).isNull();
+        assertThat(readAll()).containsExactly(first, large, next);
+    }
+
+    @Test
+    void rejectedLogDoesNotLeaveDictionaryEntries() throws Exception {
+        GatewayLog rejected = BinaryLogCodecTest.fullLog("r1", "order-service");
+        rejected.setRequestPath("/" + StrUtil.repeat('p', SEGMENT_SIZE));
+        GatewayLog next = BinaryLogCodecTest.fullLog("r2", "order-service");
+        try (BinaryLogSegmentWriter writer = new BinaryLogSegmentWriter(directory, SEGMENT_SIZE, 100)) {
+            assertThat(writer.write(rejected)).isFalse();
+            assertThat(writer.write(next)).isTrue();
+        }
+
+        assertThat(readAll()).containsExactly(next);
+    }
+
+    @Test
+    void rejectsSegmentSizeOverMappableLimit() {
+        assertThatThrownBy(() -> new BinaryLogSegmentWriter(directory, Integer.MAX_VALUE + 1L, 1))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new BinaryLogSegmentWriter(directory, BinaryLogCodec.HEADER_SIZE, 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private List<GatewayLog> readAll() throws Exception {
+        List<GatewayLog> logs = new ArrayList<>();
+        for (Path segment : BinaryLogSegmentWriter.listSegments(directory)) {
+            logs.addAll(BinaryAccessLogReader.read(segment));
+        }
+        return logs;
+    }
+}
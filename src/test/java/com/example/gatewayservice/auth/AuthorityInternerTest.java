@@ -0,0 +1,62 @@
+package com.example.gatewayservice.auth;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuthorityInternerTest {
+
+    @Test
+    void assignsStableDenseIds() {
+        AuthorityInterner interner = new AuthorityInterner();
+        int admin = interner.intern("ROLE_ADMIN");
+        int user = interner.intern("ROLE_USER");
+
+        assertThat(admin).isEqualTo(0);
+        assertThat(user).isEqualTo(1);
+        assertThat(interner.intern("ROLE_ADMIN")).isEqualTo(admin);
+        assertThat(interner.generation()).isEqualTo(2);
+    }
+
+    @Test
+    void tokenAuthoritiesIntersectRequiredRoles() {
+        AuthorityInterner interner = new AuthorityInterner();
+        BitSet required = interner.internAll(Arrays.asList("ROLE_ADMIN", "ROLE_AUDITOR"));
+        int generation = interner.generation();
+
+        BitSet admin = interner.lookupAll(Arrays.asList(new SimpleGrantedAuthority("ROLE_ADMIN"), new SimpleGrantedAuthority("ROLE_OTHER")));
+        BitSet user = interner.lookupAll(Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER")));
+
+        assertThat(admin.intersects(required)).isTrue();
+        assertThat(user.intersects(required)).isFalse();
+        assertThat(user.isEmpty()).isTrue();
+        // 只查找不分配编号，未要求的角色不改变generation
+        assertThat(interner.generation()).isEqualTo(generation);
+    }
+
+    @Test
+    void concurrentInternAssignsUniqueIds() {
+        AuthorityInterner interner = new AuthorityInterner();
+        ConcurrentHashMap<String, Integer> seen = new ConcurrentHashMap<>();
+        IntStream.range(0, 10_000).parallel().forEach(i -> {
+            String authority = "ROLE_" + (i % 500);
+            int id = interner.intern(authority);
+            Integer previous = seen.putIfAbsent(authority, id);
+            assertThat(previous == null || previous == id).isTrue();
+        });
+
+        Set<Integer> ids = new HashSet<>(seen.values());
+        assertThat(ids).hasSize(500);
+        assertThat(Collections.max(ids)).isEqualTo(499);
+        assertThat(interner.generation()).isEqualTo(500);
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.gatewayservice.auth;
+
+import com.example.gatewayservice.config.TokenCacheConfig;
+import com.example.gatewayservice.constant.AuthConstant;
+import com.example.gatewayservice.entity.GatewayPrincipal;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GatewayJwtAuthenticationConverterTest {
+
+    @Test
+    void createsAuthenticationPerRequestAndReusesPrincipal() {
+        JwtGrantedAuthoritiesConverter authoritiesConverter = new JwtGrantedAuthoritiesConverter();
+        authoritiesConverter.setAuthorityPrefix(AuthConstant.AUTHORITY_PREFIX);
+        authoritiesConverter.setAuthoritiesClaimName(AuthConstant.AUTHORITY_CLAIM_NAME);
+        GatewayJwtAuthenticationConverter converter = new GatewayJwtAuthenticationConverter(authoritiesConverter, new TokenCacheConfig());
+        Jwt jwt = jwt();
+
+        AbstractAuthenticationToken first = converter.convert(jwt).block();
+        AbstractAuthenticationToken second = converter.convert(jwt).block();
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getDetails()).isSameAs(first.getDetails());
+        assertThat(second.getAuthorities()).isEqualTo(first.getAuthorities());
+        assertThat(second.getAuthorities()).extracting(Object::toString)
+                .containsExactly(AuthConstant.AUTHORITY_PREFIX + "ADMIN", AuthConstant.AUTHORITY_PREFIX + "USER");
+        GatewayPrincipal principal = (GatewayPrincipal) first.getDetails();
+        assertThat(principal.getUserId()).isEqualTo(1L);
+        assertThat(principal.getUsername()).isEqualTo("admin");
+
+        // 修改一次请求的认证信息不影响其他请求
+        first.setDetails(null);
+        assertThat(converter.convert(jwt).block().getDetails()).isSameAs(second.getDetails());
+    }
+
+    private static Jwt jwt() {
+        String payload = "{\"id\":1,\"user_name\":\"admin\"}";
+        String token = "e30." + Base64.getUrlEncoder().withoutPadding().encodeToString(payload.getBytes(StandardCharsets.UTF_8)) + ".sig";
+        return Jwt.withTokenValue(token)
+                .header("alg", "RS256")
+                .claim("id", 1)
+                .claim("user_name", "admin")
+                .claim(AuthConstant.AUTHORITY_CLAIM_NAME, Arrays.asList("ADMIN", "USER"))
+                .expiresAt(Instant.now().plusSeconds(3600))
+                .build();
+    }
+}
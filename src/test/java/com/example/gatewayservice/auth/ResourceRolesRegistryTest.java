@@ -0,0 +1,65 @@
+package com.example.gatewayservice.auth;
+
+import com.example.gatewayservice.config.ResourceRolesConfig;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResourceRolesRegistryTest {
+
+    @Test
+    void skipsRebuildWhenUnversionedMappingIsUnchanged() {
+        Map<String, List<String>> resources = new LinkedHashMap<>();
+        resources.put("/us/users/{id}", Arrays.asList("ADMIN", "USER"));
+        resources.put("/us/roles", Collections.singletonList("ADMIN"));
+        UnversionedRegistry registry = new UnversionedRegistry(resources);
+        registry.reload().block();
+        BitSet loaded = registry.getAuthorities("/us/users/1");
+
+        // Redis返回顺序不同但内容相同，不重建索引
+        Map<String, List<String>> reordered = new LinkedHashMap<>();
+        reordered.put("/us/roles", Collections.singletonList("ADMIN"));
+        reordered.put("/us/users/{id}", Arrays.asList("ADMIN", "USER"));
+        registry.resources = reordered;
+        registry.reload().block();
+        assertThat(registry.getAuthorities("/us/users/1")).isSameAs(loaded);
+
+        reordered.put("/us/users/{id}", Collections.singletonList("ADMIN"));
+        registry.reload().block();
+        assertThat(registry.getAuthorities("/us/users/1")).isNotSameAs(loaded);
+        assertThat(registry.getAuthorities("/us/users/1").cardinality()).isEqualTo(1);
+    }
+
+    /**
+     * 以内存Map代替Redis中的资源角色映射，未设置版本号
+     */
+    private static class UnversionedRegistry extends ResourceRolesRegistry {
+        private Map<String, List<String>> resources;
+
+        UnversionedRegistry(Map<String, List<String>> resources) {
+            super(null, null, new ResourceRolesConfig(), new AuthorityInterner());
+            this.resources = resources;
+        }
+
+        @Override
+        protected Mono<String> currentVersion() {
+            return Mono.just("");
+        }
+
+        @Override
+        protected Flux<Map.Entry<Object, Object>> resourceEntries() {
+            return Flux.fromIterable(resources.entrySet())
+                    .map(entry -> new AbstractMap.SimpleImmutableEntry<>(entry.getKey(), entry.getValue()));
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.gatewayservice.cache;
+
+import com.example.gatewayservice.config.ResponseCacheConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.web.server.header.CacheControlServerHttpHeadersWriter;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseCacheTest {
+    private ResponseCache responseCache;
+    private ResponseCacheConfig.RouteCacheConfig routeConfig;
+    private MockServerWebExchange exchange;
+
+    @BeforeEach
+    void setUp() {
+        responseCache = new ResponseCache(new ResponseCacheConfig(), new SimpleMeterRegistry());
+        routeConfig = new ResponseCacheConfig.RouteCacheConfig();
+        routeConfig.setTtl(Duration.ofSeconds(30));
+        exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/users/1"));
+        // 与Spring Security默认响应头一致，提交前在上游未返回Cache-Control时添加no-store
+        CacheControlServerHttpHeadersWriter securityHeaders = new CacheControlServerHttpHeadersWriter();
+        exchange.getResponse().beforeCommit(() -> securityHeaders.writeHttpHeaders(exchange));
+    }
+
+    @Test
+    void cachesWithRouteTtlWhenUpstreamSendsNoCacheControl() {
+        CachedResponse cached = capture(new HttpHeaders());
+        assertThat(exchange.getResponse().getHeaders().getCacheControl()).contains("no-store");
+        assertThat(cached.getHeaders().getCacheControl()).isNull();
+        assertThat(cached.getHeaders().containsKey(HttpHeaders.PRAGMA)).isFalse();
+
+        responseCache.put("key", cached, routeConfig);
+        ResponseCacheEntry entry = responseCache.get("key");
+        assertThat(entry).isNotNull();
+        assertThat(entry.getTtlNanos()).isEqualTo(Duration.ofSeconds(30).toNanos());
+    }
+
+    @Test
+    void honoursUpstreamNoStore() {
+        HttpHeaders upstream = new HttpHeaders();
+        upstream.setCacheControl("no-store");
+        responseCache.put("key", capture(upstream), routeConfig);
+        assertThat(responseCache.get("key")).isNull();
+    }
+
+    @Test
+    void skipsHeadersAddedBeforeCapture() {
+        exchange.getResponse().getHeaders().add("X-Request-Id", "1");
+        CachedResponse cached = capture(new HttpHeaders());
+        assertThat(cached.getHeaders().containsKey("X-Request-Id")).isFalse();
+    }
+
+    private CachedResponse capture(HttpHeaders upstream) {
+        CapturingResponseDecorator response = new CapturingResponseDecorator(exchange.getResponse(), 1024);
+        response.setStatusCode(HttpStatus.OK);
+        response.getHeaders().addAll(upstream);
+        byte[] body = "{\"id\":1}".getBytes(StandardCharsets.UTF_8);
+        response.writeWith(Mono.just(new DefaultDataBufferFactory().wrap(body))).block();
+        return response.toCachedResponse();
+    }
+}
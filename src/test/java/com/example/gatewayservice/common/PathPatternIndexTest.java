@@ -0,0 +1,77 @@
+package com.example.gatewayservice.common;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PathPatternIndexTest {
+    private static final String[] PATTERNS = {
+            "/us/users/{id}", "/us/users/*", "/us/*", "/us/*/", "/us/*/detail", "/us/**", "/us/**/", "/us/**/detail",
+            "/us/**/*", "/us/**/users/**", "/us/users/{id}/**", "/us/{id}/x/", "/**", "/**/x", "/*",
+            "/us/user-*", "/us/user-*/x", "/us/{id:\\d+}"
+    };
+    private static final String[] PATHS = {
+            "/", "/x", "/x/", "/us", "/us/", "/us/users", "/us/users/", "/us/users/1", "/us/users/1/", "/us/users/1/detail",
+            "/us/detail", "/us/a/b/detail", "/us/a/users", "/us/a/x", "/us/a/x/", "/us/user-1", "/us/user-1/x",
+            "/us/user-1/x/", "/us/12", "/us//users//1", "//us/users/1", "/other"
+    };
+
+    @Test
+    void matchesLikeAntPathMatcher() {
+        AntPathMatcher antPathMatcher = new AntPathMatcher();
+        for (String pattern : PATTERNS) {
+            PathPatternIndex<String> index = PathPatternIndex.compile(Collections.singletonMap(pattern, pattern));
+            for (String path : PATHS) {
+                assertThat(index.match(path) != null)
+                        .as("%s -> %s", pattern, path)
+                        .isEqualTo(antPathMatcher.match(pattern, path));
+            }
+        }
+    }
+
+    @Test
+    void prefersMoreSpecificEntries() {
+        Map<String, String> resources = new HashMap<>();
+        resources.put("/us/users/me", "exact");
+        resources.put("/us/users/list", "literal");
+        resources.put("/us/users/{id}", "variable");
+        resources.put("/us/**", "multi");
+        resources.put("/us/user-*", "fallback");
+        PathPatternIndex<String> index = PathPatternIndex.compile(resources);
+
+        assertThat(index.match("/us/users/me")).isEqualTo("exact");
+        assertThat(index.match("/us/users/list")).isEqualTo("literal");
+        assertThat(index.match("/us/users/1")).isEqualTo("variable");
+        assertThat(index.match("/us/users/1/roles")).isEqualTo("multi");
+        assertThat(index.match("/us/user-1")).isEqualTo("multi");
+        assertThat(index.match("/oauth2/token")).isNull();
+        assertThat(index.size()).isEqualTo(5);
+    }
+
+    @Test
+    void backtracksFromLiteralToWildcard() {
+        Map<String, String> resources = new HashMap<>();
+        resources.put("/us/users/{id}/detail", "literal");
+        resources.put("/us/*/{id}/roles", "variable");
+        PathPatternIndex<String> index = PathPatternIndex.compile(resources);
+
+        assertThat(index.match("/us/users/1/detail")).isEqualTo("literal");
+        assertThat(index.match("/us/users/1/roles")).isEqualTo("variable");
+    }
+
+    @Test
+    void fallbackPatternsOrderedBySpecificity() {
+        Map<String, String> resources = new HashMap<>();
+        resources.put("/us/user-*", "broad");
+        resources.put("/us/user-admin-*", "narrow");
+        PathPatternIndex<String> index = PathPatternIndex.compile(resources);
+
+        assertThat(index.match("/us/user-admin-1")).isEqualTo("narrow");
+        assertThat(index.match("/us/user-1")).isEqualTo("broad");
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.gatewayservice.concurrency;
+
+import com.example.gatewayservice.config.ConcurrencyLimitConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CircuitBreakerTest {
+    private final AtomicLong clock = new AtomicLong();
+    private ConcurrencyLimitConfig.CircuitBreakerConfig config;
+
+    @BeforeEach
+    void setUp() {
+        config = new ConcurrencyLimitConfig.CircuitBreakerConfig();
+        config.setFailureRateThreshold(0.5);
+        config.setMinimumRequests(4);
+        config.setWindow(Duration.ofSeconds(10));
+        config.setOpenDuration(Duration.ofSeconds(30));
+        config.setHalfOpenRequests(2);
+        config.setHalfOpenTimeout(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void opensWhenFailureRateExceedsThreshold() {
+        CircuitBreaker breaker = new CircuitBreaker(config, clock::get);
+        trip(breaker);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.OPEN);
+        assertThat(breaker.tryAcquire()).isEqualTo(CircuitBreaker.REJECTED);
+    }
+
+    @Test
+    void closesAfterHalfOpenProbesSucceed() {
+        CircuitBreaker breaker = new CircuitBreaker(config, clock::get);
+        trip(breaker);
+        clock.addAndGet(config.getOpenDuration().toNanos());
+        long first = breaker.tryAcquire();
+        long second = breaker.tryAcquire();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.HALF_OPEN);
+        assertThat(breaker.tryAcquire()).isEqualTo(CircuitBreaker.REJECTED);
+        breaker.onSuccess(first);
+        breaker.onSuccess(second);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.CLOSED);
+    }
+
+    @Test
+    void cancelledProbeReturnsPermit() {
+        CircuitBreaker breaker = new CircuitBreaker(config, clock::get);
+        trip(breaker);
+        clock.addAndGet(config.getOpenDuration().toNanos());
+        long first = breaker.tryAcquire();
+        long second = breaker.tryAcquire();
+        assertThat(breaker.tryAcquire()).isEqualTo(CircuitBreaker.REJECTED);
+
+        breaker.onCancel(second);
+        long third = breaker.tryAcquire();
+        assertThat(third).isNotEqualTo(CircuitBreaker.REJECTED);
+        breaker.onSuccess(first);
+        breaker.onSuccess(third);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.CLOSED);
+    }
+
+    @Test
+    void reopensWhenHalfOpenTimesOut() {
+        CircuitBreaker breaker = new CircuitBreaker(config, clock::get);
+        trip(breaker);
+        clock.addAndGet(config.getOpenDuration().toNanos());
+        // 探测请求一直没有结果
+        breaker.tryAcquire();
+        breaker.tryAcquire();
+        clock.addAndGet(config.getHalfOpenTimeout().toNanos() + 1);
+        assertThat(breaker.tryAcquire()).isEqualTo(CircuitBreaker.REJECTED);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.OPEN);
+
+        clock.addAndGet(config.getOpenDuration().toNanos());
+        assertThat(breaker.tryAcquire()).isNotEqualTo(CircuitBreaker.REJECTED);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.HALF_OPEN);
+    }
+
+    @Test
+    void ignoresOutcomesFromPreviousGeneration() {
+        CircuitBreaker breaker = new CircuitBreaker(config, clock::get);
+        long stale = breaker.tryAcquire();
+        trip(breaker);
+        clock.addAndGet(config.getOpenDuration().toNanos());
+        long probe = breaker.tryAcquire();
+        assertThat(probe).isNotEqualTo(stale);
+
+        // 打开前放行的请求失败，不影响半开状态
+        breaker.onFailure(stale);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.HALF_OPEN);
+        breaker.onCancel(stale);
+        breaker.onSuccess(stale);
+        breaker.onSuccess(probe);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.HALF_OPEN);
+        breaker.onSuccess(breaker.tryAcquire());
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.CLOSED);
+    }
+
+    @Test
+    void failedProbeReopens() {
+        CircuitBreaker breaker = new CircuitBreaker(config, clock::get);
+        trip(breaker);
+        clock.addAndGet(config.getOpenDuration().toNanos());
+        long probe = breaker.tryAcquire();
+        breaker.onFailure(probe);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.OPEN);
+        assertThat(breaker.tryAcquire()).isEqualTo(CircuitBreaker.REJECTED);
+    }
+
+    private void trip(CircuitBreaker breaker) {
+        for (int i = 0; i < config.getMinimumRequests(); i++) {
+            breaker.onFailure(breaker.tryAcquire());
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.gatewayservice.concurrency;
+
+import com.example.gatewayservice.config.ConcurrencyLimitConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VegasLimitTest {
+    private static final long RTT = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private ConcurrencyLimitConfig.RouteConcurrencyConfig config;
+
+    @BeforeEach
+    void setUp() {
+        config = new ConcurrencyLimitConfig.RouteConcurrencyConfig();
+        config.setInitialLimit(20);
+        config.setMinLimit(2);
+        config.setMaxLimit(100);
+    }
+
+    @Test
+    void growsWithoutQueueing() {
+        VegasLimit limit = new VegasLimit(config);
+        // 首个样本作为无排队基准
+        limit.onSample(RTT, 1, false);
+        limit.onSample(RTT, limit.getLimit(), false);
+        assertThat(limit.getLimit()).isGreaterThan(20);
+        for (int i = 0; i < 1000; i++) {
+            limit.onSample(RTT, limit.getLimit(), false);
+        }
+        assertThat(limit.getLimit()).isEqualTo(100);
+    }
+
+    @Test
+    void shrinksWhenQueueing() {
+        VegasLimit limit = new VegasLimit(config);
+        limit.onSample(RTT, 1, false);
+        limit.onSample(RTT * 10, limit.getLimit(), false);
+        assertThat(limit.getLimit()).isLessThan(20);
+    }
+
+    @Test
+    void shrinksOnDropsDownToMinimum() {
+        VegasLimit limit = new VegasLimit(config);
+        limit.onSample(RTT, 1, false);
+        limit.onSample(RTT, 1, true);
+        assertThat(limit.getLimit()).isLessThan(20);
+        for (int i = 0; i < 1000; i++) {
+            limit.onSample(RTT, 1, true);
+        }
+        assertThat(limit.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    void staysPutWhenMostlyIdle() {
+        VegasLimit limit = new VegasLimit(config);
+        limit.onSample(RTT, 1, false);
+        for (int i = 0; i < 100; i++) {
+            limit.onSample(RTT, 5, false);
+        }
+        assertThat(limit.getLimit()).isEqualTo(20);
+    }
+
+    @Test
+    void droppedFirstSampleIsNotBaseline() {
+        VegasLimit limit = new VegasLimit(config);
+        limit.onSample(1, 1, true);
+        limit.onSample(RTT, 1, false);
+        // 基准取第二个样本，排队为0时上限增大
+        limit.onSample(RTT, limit.getLimit(), false);
+        assertThat(limit.getLimit()).isGreaterThan(20);
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.gatewayservice.filter;
+
+import com.example.gatewayservice.metrics.GatewayMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Flux;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GatewayMetricsFilterTest {
+    private static final String ROUTE_ID = "user-service";
+
+    @Test
+    void countsChunkedBodyBytes() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        GatewayMetricsFilter filter = new GatewayMetricsFilter(new GatewayMetrics(meterRegistry));
+        DataBufferFactory bufferFactory = new DefaultDataBufferFactory();
+        // 分块传输，没有Content-Length
+        MockServerHttpRequest request = MockServerHttpRequest.post("/users")
+                .header("Transfer-Encoding", "chunked")
+                .body(Flux.just(wrap(bufferFactory, "{\"name\":"), wrap(bufferFactory, "\"joe\"}")));
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR,
+                Route.async().id(ROUTE_ID).uri(URI.create("http://localhost")).predicate(e -> true).build());
+
+        // 模拟上游：读取请求体后分块写出响应体
+        filter.filter(exchange, forwarded -> {
+            forwarded.getResponse().setStatusCode(HttpStatus.OK);
+            return DataBufferUtils.join(forwarded.getRequest().getBody())
+                    .doOnNext(DataBufferUtils::release)
+                    .then(forwarded.getResponse().writeWith(Flux.just(wrap(bufferFactory, "{\"id\":1,"), wrap(bufferFactory, "\"name\":\"joe\"}"))));
+        }).block(Duration.ofSeconds(5));
+
+        assertThat(meterRegistry.get("gateway.request.bytes").tag("route", ROUTE_ID).counter().count()).isEqualTo(14);
+        assertThat(meterRegistry.get("gateway.response.bytes").tag("route", ROUTE_ID).counter().count()).isEqualTo(21);
+    }
+
+    private static DataBuffer wrap(DataBufferFactory bufferFactory, String text) {
+        return bufferFactory.wrap(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.gatewayservice.filter;
+
+import com.example.gatewayservice.concurrency.UpstreamGuard;
+import com.example.gatewayservice.concurrency.UpstreamGuardRegistry;
+import com.example.gatewayservice.config.ConcurrencyLimitConfig;
+import com.example.gatewayservice.config.HedgingConfig;
+import com.example.gatewayservice.config.LoadBalancerConfig;
+import com.example.gatewayservice.hedge.HedgingRegistry;
+import com.example.gatewayservice.loadbalance.InstanceStatsRegistry;
+import com.example.gatewayservice.metrics.GatewayMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 对冲请求胜出时，前面的过滤器仍按首次请求的耗时与结果记录实例统计与并发限制
+ */
+class HedgingFilterTest {
+    private static final String ROUTE_ID = "user-service-lb";
+    private static final String PRIMARY = "primary:8080";
+    private static final String HEDGE = "hedge:8080";
+    private static final Duration HEDGE_DELAY = Duration.ofMillis(20);
+
+    private InstanceStatsRegistry instanceStatsRegistry;
+    private UpstreamGuardRegistry upstreamGuardRegistry;
+    private List<GlobalFilter> filters;
+    private Mono<Void> primaryResponse;
+    private Duration hedgeLatency = Duration.ZERO;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        instanceStatsRegistry = new InstanceStatsRegistry(new LoadBalancerConfig());
+        ConcurrencyLimitConfig concurrencyLimitConfig = new ConcurrencyLimitConfig();
+        ConcurrencyLimitConfig.RouteConcurrencyConfig routeConcurrency = new ConcurrencyLimitConfig.RouteConcurrencyConfig();
+        routeConcurrency.getCircuitBreaker().setMinimumRequests(1);
+        concurrencyLimitConfig.getRoutes().put(ROUTE_ID, routeConcurrency);
+        upstreamGuardRegistry = new UpstreamGuardRegistry(concurrencyLimitConfig, meterRegistry);
+
+        HedgingConfig hedgingConfig = new HedgingConfig();
+        HedgingConfig.RouteHedgingConfig routeHedging = new HedgingConfig.RouteHedgingConfig();
+        routeHedging.setDelay(HEDGE_DELAY);
+        routeHedging.setBudgetPercent(100);
+        hedgingConfig.getRoutes().put(ROUTE_ID, routeHedging);
+        HedgingRegistry hedgingRegistry = new HedgingRegistry(hedgingConfig, new GatewayMetrics(meterRegistry), meterRegistry);
+        LoadBalancerClient loadBalancerClient = mock(LoadBalancerClient.class);
+        when(loadBalancerClient.choose(anyString())).thenReturn(new DefaultServiceInstance("hedge", "user-service", "hedge", 8080, false));
+
+        GlobalFilter routing = (exchange, chain) -> {
+            URI url = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR);
+            if (PRIMARY.equals(url.getAuthority())) {
+                return primaryResponse;
+            }
+            return Mono.delay(hedgeLatency).then(Mono.fromRunnable(() -> exchange.getResponse().setStatusCode(HttpStatus.OK)));
+        };
+        filters = Arrays.asList(
+                new ConcurrencyLimitFilter(upstreamGuardRegistry),
+                new LoadBalancerStatsFilter(instanceStatsRegistry),
+                new HedgingFilter(hedgingRegistry, loadBalancerClient, instanceStatsRegistry, upstreamGuardRegistry),
+                routing);
+    }
+
+    @Test
+    void recordsSlowPrimaryLatencyWhenHedgeWins() {
+        primaryResponse = Mono.never();
+        ServerWebExchange exchange = send();
+
+        assertThat((Boolean) exchange.getAttribute(HedgingFilter.HEDGE_WON_ATTR)).isTrue();
+        assertThat(instanceStatsRegistry.get(PRIMARY).getInflight()).isZero();
+        assertThat(instanceStatsRegistry.get(PRIMARY).cost(0)).isGreaterThanOrEqualTo(HEDGE_DELAY.toNanos() * 0.9);
+        assertThat(guard(PRIMARY).tryAcquire()).isNotEqualTo(UpstreamGuard.REJECTED_CIRCUIT);
+    }
+
+    @Test
+    void recordsPrimaryFailureWhenHedgeWins() {
+        // 对冲请求发出后、返回前首次请求失败
+        primaryResponse = Mono.delay(HEDGE_DELAY.multipliedBy(2)).then(Mono.error(new IllegalStateException("connection reset")));
+        hedgeLatency = HEDGE_DELAY.multipliedBy(3);
+        ServerWebExchange exchange = send();
+
+        assertThat((Boolean) exchange.getAttribute(HedgingFilter.HEDGE_WON_ATTR)).isTrue();
+        assertThat((Boolean) exchange.getAttribute(HedgingFilter.HEDGE_PRIMARY_FAILED_ATTR)).isTrue();
+        // 失败按不低于errorPenalty的延迟计入
+        assertThat(instanceStatsRegistry.get(PRIMARY).cost(0))
+                .isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(900));
+        assertThat(guard(PRIMARY).tryAcquire()).isEqualTo(UpstreamGuard.REJECTED_CIRCUIT);
+        // 胜出的对冲请求按成功记录
+        assertThat(instanceStatsRegistry.get(HEDGE).getInflight()).isZero();
+        assertThat(guard(HEDGE).tryAcquire()).isNotEqualTo(UpstreamGuard.REJECTED_CIRCUIT);
+    }
+
+    private ServerWebExchange send() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("http://localhost/lb/users/1"));
+        Route route = Route.async().id(ROUTE_ID).uri(URI.create("lb://user-service")).predicate(e -> true).build();
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route);
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR, URI.create("http://" + PRIMARY + "/lb/users/1"));
+        new Chain(filters, 0).filter(exchange).block(Duration.ofSeconds(5));
+        return exchange;
+    }
+
+    private UpstreamGuard guard(String instance) {
+        return upstreamGuardRegistry.getGuard(ROUTE_ID, instance, upstreamGuardRegistry.getRouteConfig(ROUTE_ID));
+    }
+
+    private static final class Chain implements GatewayFilterChain {
+        private final List<GlobalFilter> filters;
+        private final int index;
+
+        private Chain(List<GlobalFilter> filters, int index) {
+            this.filters = filters;
+            this.index = index;
+        }
+
+        @Override
+        public Mono<Void> filter(ServerWebExchange exchange) {
+            return index < filters.size() ? filters.get(index).filter(exchange, new Chain(filters, index + 1)) : Mono.empty();
+        }
+    }
+}
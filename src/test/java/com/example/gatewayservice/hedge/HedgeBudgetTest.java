@@ -0,0 +1,51 @@
+package com.example.gatewayservice.hedge;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HedgeBudgetTest {
+
+    @Test
+    void emptyBudgetRejects() {
+        HedgeBudget budget = new HedgeBudget(5, 10);
+        assertThat(budget.tryWithdraw()).isFalse();
+    }
+
+    @Test
+    void hedgesStayWithinPercentOfRequests() {
+        HedgeBudget budget = new HedgeBudget(5, 10);
+        int hedges = 0;
+        for (int i = 0; i < 10_000; i++) {
+            budget.deposit();
+            if (budget.tryWithdraw()) {
+                hedges++;
+            }
+        }
+        assertThat(hedges).isEqualTo(500);
+    }
+
+    @Test
+    void burstIsCapped() {
+        HedgeBudget budget = new HedgeBudget(5, 10);
+        for (int i = 0; i < 100_000; i++) {
+            budget.deposit();
+        }
+        int hedges = 0;
+        while (budget.tryWithdraw()) {
+            hedges++;
+        }
+        assertThat(hedges).isEqualTo(10);
+    }
+
+    @Test
+    void fractionalPercentAccumulates() {
+        HedgeBudget budget = new HedgeBudget(0.5, 10);
+        for (int i = 0; i < 199; i++) {
+            budget.deposit();
+        }
+        assertThat(budget.tryWithdraw()).isFalse();
+        budget.deposit();
+        assertThat(budget.tryWithdraw()).isTrue();
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.gatewayservice.loadbalance;
+
+import com.example.gatewayservice.config.LoadBalancerConfig;
+import com.netflix.loadbalancer.BaseLoadBalancer;
+import com.netflix.loadbalancer.Server;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LatencyAwareRuleTest {
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(500);
+
+    private InstanceStatsRegistry registry;
+    private LatencyAwareRule rule;
+    private final BaseLoadBalancer loadBalancer = new BaseLoadBalancer();
+
+    @BeforeEach
+    void setUp() {
+        LoadBalancerConfig config = new LoadBalancerConfig();
+        // 衰减时间足够长，测试期间延迟估计基本不变
+        config.setDecay(Duration.ofHours(1));
+        config.setInflightPenalty(Duration.ofMillis(5));
+        registry = new InstanceStatsRegistry(config);
+        rule = new LatencyAwareRule(registry);
+        rule.setLoadBalancer(loadBalancer);
+    }
+
+    @Test
+    void neverChoosesSlowInstance() {
+        Server slow = server("10.0.0.1:8080");
+        Server fastA = server("10.0.0.2:8080");
+        Server fastB = server("10.0.0.3:8080");
+        loadBalancer.setServersList(Arrays.asList(slow, fastA, fastB));
+        sample(slow, SLOW);
+        sample(fastA, FAST);
+        sample(fastB, FAST);
+
+        for (int i = 0; i < 1000; i++) {
+            assertThat(rule.choose(null)).isNotSameAs(slow);
+        }
+    }
+
+    @Test
+    void prefersIdleInstanceOverBusyOne() {
+        Server busy = server("10.0.0.1:8080");
+        Server idle = server("10.0.0.2:8080");
+        loadBalancer.setServersList(Arrays.asList(busy, idle));
+        sample(busy, FAST);
+        sample(idle, FAST * 2);
+        for (int i = 0; i < 10; i++) {
+            registry.get(busy.getHostPort()).start();
+        }
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(rule.choose(null)).isSameAs(idle);
+        }
+    }
+
+    @Test
+    void skipsDeadInstances() {
+        Server dead = server("10.0.0.1:8080");
+        Server alive = server("10.0.0.2:8080");
+        loadBalancer.setServersList(Arrays.asList(dead, alive));
+        sample(alive, SLOW);
+        dead.setAlive(false);
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(rule.choose(null)).isSameAs(alive);
+        }
+    }
+
+    @Test
+    void latencySpikeTakesEffectImmediately() {
+        InstanceStats stats = registry.get("10.0.0.1:8080");
+        stats.start();
+        stats.complete(FAST);
+        double before = stats.cost(0);
+        stats.start();
+        stats.complete(SLOW);
+        assertThat(stats.cost(0)).isGreaterThan(before * 50);
+    }
+
+    private static Server server(String hostPort) {
+        Server server = new Server(hostPort);
+        server.setAlive(true);
+        return server;
+    }
+
+    private void sample(Server server, long rttNanos) {
+        InstanceStats stats = registry.get(server.getHostPort());
+        stats.start();
+        stats.complete(rttNanos);
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.gatewayservice.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitBucketTest {
+    /**每秒10个请求**/
+    private static final long EMISSION = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final int BURST = 5;
+    private static final long TOLERANCE = EMISSION * BURST;
+
+    @Test
+    void allowsBurstThenReportsWait() {
+        RateLimitBucket bucket = new RateLimitBucket();
+        long now = 1_000_000_000L;
+        for (int i = 0; i < BURST; i++) {
+            assertThat(bucket.tryAcquire(now, EMISSION, TOLERANCE)).isZero();
+        }
+        assertThat(bucket.tryAcquire(now, EMISSION, TOLERANCE)).isEqualTo(EMISSION);
+        assertThat(bucket.tryAcquire(now + EMISSION - 1, EMISSION, TOLERANCE)).isEqualTo(1);
+        assertThat(bucket.tryAcquire(now + EMISSION, EMISSION, TOLERANCE)).isZero();
+    }
+
+    @Test
+    void sustainedRateMatchesEmissionInterval() {
+        RateLimitBucket bucket = new RateLimitBucket();
+        // System.nanoTime可能为负数
+        long start = -TimeUnit.SECONDS.toNanos(30);
+        int allowed = 0;
+        for (long now = start; now < start + TimeUnit.SECONDS.toNanos(10); now += TimeUnit.MILLISECONDS.toNanos(1)) {
+            if (bucket.tryAcquire(now, EMISSION, TOLERANCE) == 0) {
+                allowed++;
+            }
+        }
+        // 突发量 + 10秒内按速率产生的令牌
+        assertThat(allowed).isBetween(BURST + 99, BURST + 100);
+    }
+
+    @Test
+    void idleBucketDoesNotAccumulateBeyondBurst() {
+        RateLimitBucket bucket = new RateLimitBucket();
+        long now = 0;
+        assertThat(bucket.tryAcquire(now, EMISSION, TOLERANCE)).isZero();
+        now += TimeUnit.HOURS.toNanos(1);
+        int allowed = 0;
+        while (bucket.tryAcquire(now, EMISSION, TOLERANCE) == 0) {
+            allowed++;
+        }
+        assertThat(allowed).isEqualTo(BURST);
+    }
+
+    @Test
+    void releaseReturnsToken() {
+        RateLimitBucket bucket = new RateLimitBucket();
+        long now = 0;
+        for (int i = 0; i < BURST; i++) {
+            bucket.tryAcquire(now, EMISSION, TOLERANCE);
+        }
+        assertThat(bucket.tryAcquire(now, EMISSION, TOLERANCE)).isPositive();
+        bucket.release(EMISSION);
+        assertThat(bucket.tryAcquire(now, EMISSION, TOLERANCE)).isZero();
+        assertThat(bucket.drainPending()).isEqualTo(BURST);
+    }
+
+    @Test
+    void consumeDeductsPermitsUsedByOtherNodes() {
+        RateLimitBucket bucket = new RateLimitBucket();
+        long now = 0;
+        bucket.consume(now, BURST - 1, EMISSION);
+        assertThat(bucket.tryAcquire(now, EMISSION, TOLERANCE)).isZero();
+        assertThat(bucket.tryAcquire(now, EMISSION, TOLERANCE)).isPositive();
+    }
+
+    @Test
+    void concurrentAcquireNeverExceedsBurst() {
+        RateLimitBucket bucket = new RateLimitBucket();
+        long now = 42;
+        AtomicInteger allowed = new AtomicInteger();
+        IntStream.range(0, 10_000).parallel().forEach(i -> {
+            if (bucket.tryAcquire(now, EMISSION, TOLERANCE) == 0) {
+                allowed.incrementAndGet();
+            }
+        });
+        assertThat(allowed.get()).isEqualTo(BURST);
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.gatewayservice.trace;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TraceContextTest {
+    private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+    private static final String PARENT_ID = "00f067aa0ba902b7";
+
+    @Test
+    void continuesValidTraceparent() {
+        TraceContext context = TraceContext.continueOrCreate("00-" + TRACE_ID + "-" + PARENT_ID + "-01");
+        assertThat(context.getTraceId()).isEqualTo(TRACE_ID);
+        assertThat(context.getParentSpanId()).isEqualTo(PARENT_ID);
+        assertThat(context.getSpanId()).hasSize(16).isNotEqualTo(PARENT_ID);
+        assertThat(context.isSampled()).isTrue();
+        assertThat(context.toTraceparent()).isEqualTo("00-" + TRACE_ID + "-" + context.getSpanId() + "-01");
+    }
+
+    @Test
+    void keepsUnsampledFlag() {
+        TraceContext context = TraceContext.continueOrCreate("00-" + TRACE_ID + "-" + PARENT_ID + "-00");
+        assertThat(context.isSampled()).isFalse();
+        assertThat(context.toTraceparent()).endsWith("-00");
+    }
+
+    @Test
+    void acceptsFutureVersionWithExtraFields() {
+        TraceContext context = TraceContext.continueOrCreate("01-" + TRACE_ID + "-" + PARENT_ID + "-01-extra");
+        assertThat(context.getTraceId()).isEqualTo(TRACE_ID);
+        // 转发时使用本网关支持的版本
+        assertThat(context.toTraceparent()).startsWith("00-").hasSize(55);
+    }
+
+    @Test
+    void startsNewTraceForInvalidTraceparent() {
+        String[] invalid = {
+                null,
+                "",
+                "00-" + TRACE_ID + "-" + PARENT_ID,
+                "00-" + TRACE_ID + "-" + PARENT_ID + "-01-extra",
+                "ff-" + TRACE_ID + "-" + PARENT_ID + "-01",
+                "00-" + TRACE_ID.toUpperCase() + "-" + PARENT_ID + "-01",
+                "00-00000000000000000000000000000000-" + PARENT_ID + "-01",
+                "00-" + TRACE_ID + "-0000000000000000-01",
+                "00_" + TRACE_ID + "-" + PARENT_ID + "-01",
+                "00-" + TRACE_ID + "-" + PARENT_ID + "-0g",
+                "01-" + TRACE_ID + "-" + PARENT_ID + "-01x",
+        };
+        for (String traceparent : invalid) {
+            TraceContext context = TraceContext.continueOrCreate(traceparent);
+            assertThat(context.getTraceId()).as(traceparent).isNotEqualTo(TRACE_ID).matches("[0-9a-f]{32}");
+            assertThat(context.getParentSpanId()).as(traceparent).isNull();
+            assertThat(context.isSampled()).as(traceparent).isTrue();
+        }
+    }
+
+    @Test
+    void generatedTraceparentRoundTrips() {
+        TraceContext created = TraceContext.continueOrCreate(null);
+        assertThat(created.toTraceparent()).matches("00-[0-9a-f]{32}-[0-9a-f]{16}-01");
+        TraceContext continued = TraceContext.continueOrCreate(created.toTraceparent());
+        assertThat(continued.getTraceId()).isEqualTo(created.getTraceId());
+        assertThat(continued.getParentSpanId()).isEqualTo(created.getSpanId());
+    }
+}